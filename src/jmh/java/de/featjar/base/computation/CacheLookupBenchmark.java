@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-base.
+ *
+ * base is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * base is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with base. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-base> for further information.
+ */
+package de.featjar.base.computation;
+
+import de.featjar.base.data.Result;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the throughput of cache hits (see {@link Cache#tryHit(IComputation)}) with 1 to 64 threads
+ * that look up the same cached computations concurrently.
+ * Lookups should scale with the number of threads, as they do not synchronize on the cache.
+ * A bounded cache additionally records each hit for its {@link Cache.EvictionPolicy}.
+ *
+ * @author Sebastian Krieter
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CacheLookupBenchmark {
+
+    @Param({"false", "true"})
+    public boolean bounded;
+
+    @Param({"1024"})
+    public int numberOfComputations;
+
+    private Cache cache;
+    private IComputation<?>[] computations;
+
+    /**
+     * Walks through the cached computations, starting at a different computation for each thread.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int index;
+
+        @Setup
+        public void setup() {
+            index = (int) (Thread.currentThread().getId() * 31 & Integer.MAX_VALUE);
+        }
+    }
+
+    @Setup
+    public void setup() {
+        Cache.Configuration configuration = new Cache.Configuration();
+        if (bounded) {
+            // large enough to hold all computations, so lookups are never misses
+            configuration.setMaximumWeight(numberOfComputations);
+        }
+        cache = new Cache(configuration);
+        computations = new IComputation<?>[numberOfComputations];
+        for (int i = 0; i < numberOfComputations; i++) {
+            ComputeConstant<Integer> computation = new ComputeConstant<>(i);
+            cache.put(computation, new FutureResult<>(Result.of(i), new Progress()));
+            computations[i] = computation;
+        }
+    }
+
+    private Result<?> tryHit(Cursor cursor) {
+        cursor.index = (cursor.index + 1) % computations.length;
+        return cache.tryHit(computations[cursor.index]);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Result<?> tryHit1(Cursor cursor) {
+        return tryHit(cursor);
+    }
+
+    @Benchmark
+    @Threads(2)
+    public Result<?> tryHit2(Cursor cursor) {
+        return tryHit(cursor);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Result<?> tryHit4(Cursor cursor) {
+        return tryHit(cursor);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Result<?> tryHit8(Cursor cursor) {
+        return tryHit(cursor);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public Result<?> tryHit16(Cursor cursor) {
+        return tryHit(cursor);
+    }
+
+    @Benchmark
+    @Threads(32)
+    public Result<?> tryHit32(Cursor cursor) {
+        return tryHit(cursor);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public Result<?> tryHit64(Cursor cursor) {
+        return tryHit(cursor);
+    }
+}
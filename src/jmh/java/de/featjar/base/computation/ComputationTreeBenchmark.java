@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-base.
+ *
+ * base is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * base is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with base. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-base> for further information.
+ */
+package de.featjar.base.computation;
+
+import de.featjar.base.data.Result;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the overhead of evaluating a large computation tree, whose computations are trivial.
+ * The tree is a balanced binary tree of {@link ComputePair} computations with distinct constant leaves.
+ * Run with the {@code gc} profiler (e.g., {@code -prof gc}) to compare the allocation per evaluated computation.
+ *
+ * @author Sebastian Krieter
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ComputationTreeBenchmark {
+
+    @Param({"100000"})
+    public int numberOfComputations;
+
+    private IComputation<?> computation;
+
+    @Setup
+    public void setup() {
+        computation = createTree(0, (numberOfComputations + 1) / 2);
+    }
+
+    private static IComputation<?> createTree(int from, int to) {
+        if (to - from == 1) {
+            return Computations.of(from);
+        }
+        int middle = (from + to) >>> 1;
+        return new ComputePair<>(createTree(from, middle), createTree(middle, to));
+    }
+
+    @Benchmark
+    public Result<?> computeResult() {
+        return computation.computeUncachedResult();
+    }
+
+    @Benchmark
+    public Result<?> computeFutureResult() {
+        return computation.computeUncachedFutureResult().get();
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-base.
+ *
+ * base is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * base is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with base. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-base> for further information.
+ */
+package de.featjar.base.computation;
+
+import de.featjar.base.FeatJAR;
+import de.featjar.base.data.Result;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the bounded work-stealing executor (see {@link Cache.Configuration#setWorkStealingExecutor()})
+ * with the default executor when evaluating a deep and a wide computation tree, whose computations are trivial.
+ * The deep tree is a chain of mapped computations.
+ * The wide tree is a chain of {@link ComputePair} computations, each of which pairs the previous pair with a
+ * mapped computation, so that many independent computations are ready at the same time.
+ *
+ * @author Sebastian Krieter
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WorkStealingExecutorBenchmark {
+
+    @Param({"default", "workStealing"})
+    public String executor;
+
+    @Param({"deep", "wide"})
+    public String shape;
+
+    @Param({"1000"})
+    public int numberOfComputations;
+
+    private FeatJAR featJAR;
+    private IComputation<?> computation;
+
+    @Setup
+    public void setup() {
+        FeatJAR.Configuration configuration = FeatJAR.createPanicConfiguration();
+        if ("workStealing".equals(executor)) {
+            configuration.cacheConfig.setWorkStealingExecutor();
+        }
+        featJAR = FeatJAR.initialize(configuration);
+        computation = "deep".equals(shape) ? createDeepTree() : createWideTree();
+    }
+
+    @TearDown
+    public void tearDown() {
+        featJAR.close();
+    }
+
+    private IComputation<?> createDeepTree() {
+        IComputation<Integer> deep = Computations.of(0);
+        for (int i = 0; i < numberOfComputations; i++) {
+            deep = deep.mapResult(WorkStealingExecutorBenchmark.class, "increment", n -> n + 1);
+        }
+        return deep;
+    }
+
+    private IComputation<?> createWideTree() {
+        IComputation<?> wide = Computations.of(0);
+        for (int i = 1; i < numberOfComputations / 2; i++) {
+            wide = new ComputePair<>(
+                    wide, Computations.of(i).mapResult(WorkStealingExecutorBenchmark.class, "square", n -> n * n));
+        }
+        return wide;
+    }
+
+    @Benchmark
+    public Result<?> computeFutureResult() {
+        return computation.computeUncachedFutureResult().get();
+    }
+}
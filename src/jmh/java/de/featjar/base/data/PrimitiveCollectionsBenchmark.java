@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-base.
+ *
+ * base is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * base is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with base. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-base> for further information.
+ */
+package de.featjar.base.data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the primitive collections {@link IntSet} and {@link IntObjectMap}
+ * with their boxed counterparts from {@code java.util}.
+ * Each benchmark fills a collection with random literals and then looks up every literal and its negation.
+ * In addition, compares {@link IntegerList#mergeInt(java.util.Collection)}, which uses an {@link IntSet},
+ * with removing duplicates from a stream.
+ * Run with the {@code gc} profiler (e.g., {@code -prof gc}) to compare the allocation per operation.
+ *
+ * @author Sebastian Krieter
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PrimitiveCollectionsBenchmark {
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    private int[] literals;
+    private List<int[]> clauses;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(1);
+        literals = random.ints(size, 1, 4 * size)
+                .map(v -> random.nextBoolean() ? v : -v)
+                .toArray();
+        clauses = new ArrayList<>();
+        for (int i = 0; i < size; i += 10) {
+            clauses.add(Arrays.copyOfRange(literals, i, Math.min(i + 10, size)));
+        }
+    }
+
+    @Benchmark
+    public int intSet() {
+        IntSet set = new IntSet();
+        for (int literal : literals) {
+            set.add(literal);
+        }
+        int count = 0;
+        for (int literal : literals) {
+            if (set.contains(-literal)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int hashSet() {
+        HashSet<Integer> set = new HashSet<>();
+        for (int literal : literals) {
+            set.add(literal);
+        }
+        int count = 0;
+        for (int literal : literals) {
+            if (set.contains(-literal)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int intObjectMap() {
+        IntObjectMap<int[]> map = new IntObjectMap<>();
+        for (int literal : literals) {
+            map.computeIfAbsent(Math.abs(literal), v -> new int[1])[0]++;
+        }
+        int sum = 0;
+        for (int literal : literals) {
+            sum += map.get(Math.abs(literal))[0];
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int objectHashMap() {
+        HashMap<Integer, int[]> map = new HashMap<>();
+        for (int literal : literals) {
+            map.computeIfAbsent(Math.abs(literal), v -> new int[1])[0]++;
+        }
+        int sum = 0;
+        for (int literal : literals) {
+            sum += map.get(Math.abs(literal))[0];
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int[] integerListMerge() {
+        return IntegerList.mergeInt(clauses);
+    }
+
+    @Benchmark
+    public int[] streamDistinct() {
+        return clauses.stream().flatMapToInt(Arrays::stream).distinct().toArray();
+    }
+}
@@ -21,15 +21,24 @@
 package de.featjar.base.computation;
 
 import de.featjar.base.FeatJAR;
+import de.featjar.base.data.Problem;
 import de.featjar.base.data.Result;
+import de.featjar.base.tree.Trees;
 import de.featjar.base.tree.structure.ATree;
 import de.featjar.base.tree.structure.ITree;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Constructor;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.CancellationException;
 import java.util.function.Supplier;
-import java.util.stream.Collectors;
 
 /**
  * Describes a deterministic (potentially complex or long-running) computation.
@@ -40,19 +49,55 @@ import java.util.stream.Collectors;
  */
 public abstract class AComputation<T> extends ATree<IComputation<?>> implements IComputation<T> {
 
+    private static final ClassValue<Constructor<?>> COPY_CONSTRUCTORS = new ClassValue<>() {
+        @Override
+        protected Constructor<?> computeValue(Class<?> computationClass) {
+            try {
+                return computationClass.getDeclaredConstructor(computationClass);
+            } catch (NoSuchMethodException e) {
+                return null;
+            }
+        }
+    };
+
+    /**
+     * Whether a computation class can be serialized with the default {@link #serializeNode()},
+     * which is not the case if it overrides {@link #equalsNode(IComputation)}, but not {@link #serializeNode()}.
+     */
+    private static final ClassValue<Boolean> SERIALIZABLE_NODES = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(Class<?> computationClass) {
+            try {
+                Class<?> equalsNodeClass = computationClass
+                        .getMethod("equalsNode", IComputation.class)
+                        .getDeclaringClass();
+                Class<?> serializeNodeClass =
+                        computationClass.getMethod("serializeNode").getDeclaringClass();
+                return equalsNodeClass.isAssignableFrom(serializeNodeClass);
+            } catch (NoSuchMethodException e) {
+                return Boolean.FALSE;
+            }
+        }
+    };
+
     protected Cache cache = FeatJAR.cache();
 
+    private static final byte[] NO_DIGEST = new byte[0];
+
+    private volatile Fingerprint fingerprint;
+    private volatile byte[] digest;
+    private List<WeakReference<AComputation<?>>> dependents;
+
     protected AComputation(IComputation<?>... computations) {
         super(computations.length);
-        final Integer size = Dependency.computeDependencyCount(getClass());
-        assert size == computations.length;
+        assert Dependency.computeDependencyCount(getClass()) == computations.length;
         setChildren(List.of(computations));
     }
 
     protected AComputation(List<IComputation<?>> computations1, IComputation<?>... computations2) {
         super(computations1.size() + computations2.length);
-        final Integer size = Dependency.computeDependencyCount(getClass());
-        assert size == computations1.size() + computations2.length;
+        final int size = computations1.size() + computations2.length;
+        assert Dependency.computeDependencyCount(getClass()) == size;
         ArrayList<IComputation<?>> computations = new ArrayList<>(size);
         computations.addAll(computations1);
         computations.addAll(List.of(computations2));
@@ -61,12 +106,11 @@ public abstract class AComputation<T> extends ATree<IComputation<?>> implements
 
     protected AComputation(Object... computations) {
         super(computations.length);
-        final Integer size = Dependency.computeDependencyCount(getClass());
-        ArrayList<IComputation<?>> computationList = new ArrayList<>(size);
+        ArrayList<IComputation<?>> computationList = new ArrayList<>(computations.length);
         for (Object computation : computations) {
             unpackComputations(computationList, computation);
         }
-        assert size == computationList.size();
+        assert Dependency.computeDependencyCount(getClass()) == computationList.size();
         setChildren(computationList);
     }
 
@@ -98,6 +142,7 @@ public abstract class AComputation<T> extends ATree<IComputation<?>> implements
         if (Thread.interrupted()) {
             throw new CancellationException();
         }
+        ComputationContext.currentCancellationToken().check();
     }
 
     @Override
@@ -108,13 +153,21 @@ public abstract class AComputation<T> extends ATree<IComputation<?>> implements
                 return cacheHit.get().get();
             }
         }
-        List<Result<?>> results = getChildren().stream()
-                .map(computation -> computation.computeResult(tryHitCache, tryWriteCache, progressSupplier))
-                .collect(Collectors.toList());
+        List<? extends IComputation<?>> children = getChildren();
+        Result<?>[] results = new Result<?>[children.size()];
+        for (int i = 0; i < results.length; i++) {
+            results[i] = children.get(i).computeResult(tryHitCache, tryWriteCache, progressSupplier);
+        }
         Progress progress = progressSupplier.get();
+        progress.setCancellationToken(ComputationContext.currentCancellationToken());
         checkCancel();
         try {
-            Result<T> result = mergeResults(results).flatMap(r -> compute(r, progress));
+            CacheStatistics statistics = getCache().statistics;
+            long start = statistics != null ? System.nanoTime() : 0;
+            Result<T> result = mergeResults(Arrays.asList(results)).flatMap(r -> ComputationContext.compute(this, r, progress));
+            if (statistics != null) {
+                statistics.recordLatency(this, System.nanoTime() - start);
+            }
             if (tryWriteCache) {
                 getCache().tryWrite(this, new FutureResult<>(result, progress));
             }
@@ -124,6 +177,182 @@ public abstract class AComputation<T> extends ATree<IComputation<?>> implements
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * The fingerprint is cached until a descendant of this computation is modified.
+     * To this end, this computation registers itself with its children, so they can invalidate it when they change.
+     */
+    @Override
+    public Fingerprint getFingerprint() {
+        Fingerprint fingerprint = this.fingerprint;
+        if (fingerprint != null) {
+            return fingerprint;
+        }
+        // computes missing fingerprints in post-order, so deep trees do not overflow the stack
+        ArrayDeque<AComputation<?>> stack = new ArrayDeque<>();
+        stack.push(this);
+        while (!stack.isEmpty()) {
+            AComputation<?> computation = stack.peek();
+            if (computation.fingerprint != null) {
+                stack.pop();
+                continue;
+            }
+            boolean childrenFingerprinted = true;
+            for (IComputation<?> child : computation.getChildren()) {
+                if (child instanceof AComputation && ((AComputation<?>) child).fingerprint == null) {
+                    stack.push((AComputation<?>) child);
+                    childrenFingerprinted = false;
+                }
+            }
+            if (childrenFingerprinted) {
+                stack.pop();
+                computation.computeFingerprint();
+            }
+        }
+        return this.fingerprint;
+    }
+
+    private void computeFingerprint() {
+        List<? extends IComputation<?>> children = getChildren();
+        List<Fingerprint> childFingerprints = new ArrayList<>(children.size());
+        for (IComputation<?> child : children) {
+            if (child instanceof AComputation) {
+                ((AComputation<?>) child).addDependent(this);
+            }
+            childFingerprints.add(child.getFingerprint());
+        }
+        fingerprint = Fingerprint.of(this, childFingerprints);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The digest is cached until a descendant of this computation is modified, just like the fingerprint.
+     */
+    @Override
+    public Result<byte[]> getDigest() {
+        byte[] digest = this.digest;
+        if (digest == null) {
+            // registers this computation with its descendants, so they invalidate the digest when they change
+            getFingerprint();
+            ArrayDeque<AComputation<?>> stack = new ArrayDeque<>();
+            stack.push(this);
+            while (!stack.isEmpty()) {
+                AComputation<?> computation = stack.peek();
+                if (computation.digest != null) {
+                    stack.pop();
+                    continue;
+                }
+                boolean childrenDigested = true;
+                for (IComputation<?> child : computation.getChildren()) {
+                    if (child instanceof AComputation && ((AComputation<?>) child).digest == null) {
+                        stack.push((AComputation<?>) child);
+                        childrenDigested = false;
+                    }
+                }
+                if (childrenDigested) {
+                    stack.pop();
+                    computation.computeDigest();
+                }
+            }
+            digest = this.digest;
+        }
+        return digest != NO_DIGEST ? Result.of(digest) : Result.empty(new Problem("cannot serialize " + this));
+    }
+
+    private void computeDigest() {
+        List<? extends IComputation<?>> children = getChildren();
+        List<byte[]> childDigests = new ArrayList<>(children.size());
+        for (IComputation<?> child : children) {
+            Result<byte[]> childDigest = child.getDigest();
+            if (childDigest.isEmpty()) {
+                digest = NO_DIGEST;
+                return;
+            }
+            childDigests.add(childDigest.get());
+        }
+        digest = digestNode(childDigests).orElse(NO_DIGEST);
+    }
+
+    private synchronized void addDependent(AComputation<?> dependent) {
+        if (dependents == null) {
+            dependents = new ArrayList<>(1);
+        }
+        Iterator<WeakReference<AComputation<?>>> iterator = dependents.iterator();
+        while (iterator.hasNext()) {
+            AComputation<?> computation = iterator.next().get();
+            if (computation == dependent) {
+                return;
+            }
+            if (computation == null) {
+                iterator.remove();
+            }
+        }
+        dependents.add(new WeakReference<>(dependent));
+    }
+
+    private synchronized boolean hasDependents() {
+        return dependents != null;
+    }
+
+    private synchronized List<WeakReference<AComputation<?>>> removeDependents() {
+        List<WeakReference<AComputation<?>>> dependents = this.dependents;
+        this.dependents = null;
+        return dependents;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Also invalidates the cached fingerprints and hash codes of all computations whose fingerprint depends on this one.
+     */
+    @Override
+    public void invalidateHashCode() {
+        if (!hashCodeValid && fingerprint == null && digest == null && !hasDependents()) {
+            // nothing is cached yet, for example, while the children are set during construction
+            return;
+        }
+        ArrayDeque<AComputation<?>> stack = new ArrayDeque<>();
+        stack.push(this);
+        while (!stack.isEmpty()) {
+            AComputation<?> computation = stack.pop();
+            computation.hashCodeValid = false;
+            computation.fingerprint = null;
+            computation.digest = null;
+            List<WeakReference<AComputation<?>>> dependents = computation.removeDependents();
+            if (dependents != null) {
+                for (WeakReference<AComputation<?>> reference : dependents) {
+                    AComputation<?> dependent = reference.get();
+                    if (dependent != null && (dependent.fingerprint != null || dependent.digest != null)) {
+                        stack.push(dependent);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * Derived from the cached fingerprint, so it takes constant time unless a descendant has been modified.
+     */
+    @Override
+    public int hashCodeTree() {
+        return getFingerprint().hashCode();
+    }
+
+    /**
+     * {@inheritDoc}
+     * Compares the fingerprints first, so different computations are usually told apart in constant time.
+     */
+    @Override
+    public boolean equalsTree(IComputation<?> other) {
+        if (this == other) {
+            return true;
+        }
+        if (other instanceof AComputation && !getFingerprint().equals(other.getFingerprint())) {
+            return false;
+        }
+        return Trees.equals(this, other);
+    }
+
     @Override
     public boolean equalsNode(IComputation<?> other) {
         return (getClass() == other.getClass());
@@ -134,6 +363,45 @@ public abstract class AComputation<T> extends ATree<IComputation<?>> implements
         return Objects.hash(getClass());
     }
 
+    /**
+     * {@inheritDoc}
+     * By default, a computation is fully described by its class and its dependencies,
+     * so the serialized node is empty.
+     * Anonymous and local classes do not have a stable name and thus cannot be serialized.
+     * Subclasses that override {@link #equalsNode(IComputation)} cannot be serialized either,
+     * unless they override this method as well, so that persistence is opt-in for such computations.
+     */
+    @Override
+    public Result<byte[]> serializeNode() {
+        if (!SERIALIZABLE_NODES.get(getClass())) {
+            return Result.empty();
+        }
+        return serializeParameters();
+    }
+
+    /**
+     * {@return a serialization of this computation's node that consists of the given parameters, if any}
+     * Helps to implement {@link #serializeNode()} for computations that are described by strings, such as identifiers.
+     * Anonymous and local classes do not have a stable name and thus cannot be serialized.
+     *
+     * @param parameters the parameters
+     */
+    protected Result<byte[]> serializeParameters(String... parameters) {
+        Class<?> klass = getClass();
+        if (klass.isAnonymousClass() || klass.isLocalClass() || klass.isSynthetic()) {
+            return Result.empty();
+        }
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(byteArrayOutputStream)) {
+            for (String parameter : parameters) {
+                out.writeUTF(parameter);
+            }
+        } catch (IOException e) {
+            return Result.empty(e);
+        }
+        return Result.of(byteArrayOutputStream.toByteArray());
+    }
+
     @Override
     public Cache getCache() {
         return cache;
@@ -164,12 +432,19 @@ public abstract class AComputation<T> extends ATree<IComputation<?>> implements
         return getClass().getSimpleName();
     }
 
+    /**
+     * {@inheritDoc}
+     * Calls the copy constructor of this computation's class, which is looked up only once per class.
+     */
+    @SuppressWarnings("unchecked")
     @Override
     public ITree<IComputation<?>> cloneNode() {
         try {
-            @SuppressWarnings("unchecked")
-            final Class<? extends AComputation<T>> computationClass = (Class<? extends AComputation<T>>) getClass();
-            return computationClass.getDeclaredConstructor(computationClass).newInstance(this);
+            Constructor<?> copyConstructor = COPY_CONSTRUCTORS.get(getClass());
+            if (copyConstructor == null) {
+                throw new NoSuchMethodException(getClass().getName() + ".<init>(" + getClass().getName() + ")");
+            }
+            return (ITree<IComputation<?>>) copyConstructor.newInstance(this);
         } catch (InstantiationException | NoSuchMethodException e) {
             FeatJAR.log().error(e);
             throw new UnsupportedOperationException(e);
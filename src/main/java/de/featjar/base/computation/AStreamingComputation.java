@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-base.
+ *
+ * base is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * base is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with base. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-base> for further information.
+ */
+package de.featjar.base.computation;
+
+import de.featjar.base.data.Result;
+import de.featjar.base.data.Void;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * A computation that emits its result elements one by one while computing, such as a long-running enumeration.
+ * Can be evaluated like any other computation, which collects all elements into a list.
+ * In addition, its elements can be consumed while it is running, either with {@link #publish()},
+ * which respects the backpressure of the subscriber, or with {@link #streamElements()}.
+ * Downstream stages created with {@link #mapElements(Class, String, Function)} process each element as it arrives.
+ *
+ * @param <E> the type of the result elements
+ * @author Sebastian Krieter
+ */
+public abstract class AStreamingComputation<E> extends AComputation<List<E>> {
+
+    protected AStreamingComputation(Object... computations) {
+        super(computations);
+    }
+
+    protected AStreamingComputation(AStreamingComputation<E> other) {
+        super(other);
+    }
+
+    /**
+     * Emits the result elements of this computation for a given list of dependencies.
+     * Should regularly check for cancellation, for example, by updating the given {@link Progress}.
+     *
+     * @param dependencyList the dependency list
+     * @param progress       the progress
+     * @param emitter        receives the result elements in order, must not be passed null
+     * @return a void result if all elements have been emitted, or an empty result with problems otherwise
+     */
+    protected abstract Result<Void> compute(
+            List<Object> dependencyList, Progress progress, Consumer<? super E> emitter);
+
+    @Override
+    public Result<List<E>> compute(List<Object> dependencyList, Progress progress) {
+        List<E> elements = new ArrayList<>();
+        return compute(dependencyList, progress, elements::add).map(v -> elements);
+    }
+
+    /**
+     * {@return a publisher of the result elements of this computation, which buffers up to the given number of elements}
+     * Each subscription evaluates this computation anew, unless its complete result is already cached.
+     *
+     * @param bufferCapacity the maximum number of elements buffered per subscriber
+     */
+    public Flow.Publisher<E> publish(int bufferCapacity) {
+        return new ElementPublisher<E>(this::produce, bufferCapacity);
+    }
+
+    /**
+     * {@return a publisher of the result elements of this computation}
+     * Each subscription evaluates this computation anew, unless its complete result is already cached.
+     */
+    public Flow.Publisher<E> publish() {
+        return publish(Flow.defaultBufferSize());
+    }
+
+    /**
+     * {@return a stream of the result elements of this computation, which are available while it is running}
+     * Blocks when waiting for further elements.
+     * The stream should be closed when it is not consumed entirely, which cancels the computation.
+     */
+    public Stream<E> streamElements() {
+        return ElementPublisher.stream(publish(), Flow.defaultBufferSize());
+    }
+
+    /**
+     * {@return a streaming computation that applies a function to each result element of this computation}
+     * When published or streamed, each element is mapped as soon as this computation emits it.
+     * Elements that are mapped to null are skipped.
+     *
+     * @param klass the calling class
+     * @param scope the calling scope
+     * @param fn    the function
+     * @param <F>   the type of the mapped elements
+     */
+    public <F> AStreamingComputation<F> mapElements(Class<?> klass, String scope, Function<E, F> fn) {
+        return new ComputeMappedElements<>(this, klass, scope, fn);
+    }
+
+    /**
+     * Emits the result elements of this computation after computing its dependencies.
+     * The dependencies are evaluated with {@link FutureResult#computeAll},
+     * so they are looked up in and stored to the cache.
+     *
+     * @param progress the progress
+     * @param emitter  the emitter
+     * @return a void result if all elements have been emitted, or an empty result with problems otherwise
+     */
+    @SuppressWarnings("unchecked")
+    protected Result<?> produce(Progress progress, Consumer<? super E> emitter) {
+        Result<FutureResult<List<E>>> cacheHit = getCache().tryHit(this);
+        if (cacheHit.isPresent()) {
+            Result<List<E>> result = cacheHit.get().getPromise().getNow(Result.<List<E>>empty());
+            if (result.isPresent()) {
+                result.get().forEach(emitter);
+                return Result.ofVoid();
+            }
+        }
+        return ComputationContext.compute(progress, () -> {
+            // evaluates the dependencies like any other computation, so they are planned, cached, and cancelled along
+            List<IComputation<Object>> children = (List<IComputation<Object>>) (List<?>) getChildren();
+            List<Result<?>> results = new ArrayList<>(children.size());
+            for (FutureResult<Object> futureResult :
+                    FutureResult.computeAll(children, true, true, Progress::new, Math.max(1, children.size()))) {
+                results.add(futureResult.get());
+            }
+            return mergeResults(results).flatMap(dependencyList -> compute(dependencyList, progress, emitter));
+        });
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-base.
+ *
+ * base is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * base is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with base. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-base> for further information.
+ */
+package de.featjar.base.computation;
+
+import de.featjar.base.data.Pair;
+import de.featjar.base.data.Result;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Evaluates many independent computations together, for example, one computation per input file.
+ * All computations are evaluated with a single {@link ComputationPlan}, so subcomputations they have in common
+ * are only computed once (see {@link FutureResult#computeAll(List, boolean, boolean, Supplier, int)}).
+ * At most a given number of computations are in flight at the same time.
+ * Results can be consumed in the order in which the computations finish with {@link #stream()}.
+ * The progress and the failures of all computations are aggregated.
+ *
+ * @param <T> the type of the computation results
+ * @author Sebastian Krieter
+ */
+public class BatchEvaluation<T> {
+    protected final List<? extends IComputation<T>> computations;
+    protected final List<FutureResult<T>> futureResults;
+    protected final Progress progress = new Progress();
+    protected final BlockingQueue<Integer> completedIndices = new LinkedBlockingQueue<>();
+    protected final List<Pair<IComputation<T>, Result<T>>> failures = new ArrayList<>();
+    protected final AtomicInteger numberOfCompleted = new AtomicInteger();
+
+    /**
+     * Creates and starts a batch evaluation that uses the cache and keeps all processors busy.
+     *
+     * @param computations the computations
+     */
+    public BatchEvaluation(List<? extends IComputation<T>> computations) {
+        this(computations, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates and starts a batch evaluation that uses the cache.
+     *
+     * @param computations   the computations
+     * @param maxConcurrency the maximum number of computations in flight
+     */
+    public BatchEvaluation(List<? extends IComputation<T>> computations, int maxConcurrency) {
+        this(computations, true, true, Progress::new, maxConcurrency);
+    }
+
+    /**
+     * Creates and starts a batch evaluation.
+     *
+     * @param computations     the computations
+     * @param tryHitCache      whether the cache should be queried for the results
+     * @param tryWriteCache    whether the results should be stored in the cache
+     * @param progressSupplier creates a {@link Progress} for each computation
+     * @param maxConcurrency   the maximum number of computations in flight
+     */
+    public BatchEvaluation(
+            List<? extends IComputation<T>> computations,
+            boolean tryHitCache,
+            boolean tryWriteCache,
+            Supplier<Progress> progressSupplier,
+            int maxConcurrency) {
+        this.computations = List.copyOf(computations);
+        progress.setTotalSteps(Math.max(1, computations.size()));
+        futureResults = FutureResult.computeAll(
+                this.computations, tryHitCache, tryWriteCache, progressSupplier, maxConcurrency);
+        if (!futureResults.isEmpty()) {
+            progress.setCancellationToken(futureResults.get(0).progress.getCancellationToken());
+        }
+        for (int i = 0; i < futureResults.size(); i++) {
+            int index = i;
+            FutureResult<T> futureResult = futureResults.get(index);
+            progress.addChild(futureResult.progress);
+            futureResult.getPromise().whenComplete((result, e) -> complete(index, futureResult));
+        }
+    }
+
+    private void complete(int index, FutureResult<T> futureResult) {
+        // the progress of the computation may otherwise be finished only after this callback
+        futureResult.progress.finish();
+        Result<T> result = futureResult.get();
+        if (result.isEmpty()) {
+            synchronized (failures) {
+                failures.add(new Pair<>(computations.get(index), result));
+            }
+        }
+        progress.setCurrentStep(numberOfCompleted.incrementAndGet());
+        completedIndices.add(index);
+    }
+
+    /**
+     * {@return the computations of this batch, in the given order}
+     */
+    public List<? extends IComputation<T>> getComputations() {
+        return computations;
+    }
+
+    /**
+     * {@return the future results of the computations of this batch, in the given order}
+     */
+    public List<FutureResult<T>> getFutureResults() {
+        return futureResults;
+    }
+
+    /**
+     * {@return the results of the computations of this batch, in the given order}
+     * Blocks until all computations have finished.
+     */
+    public List<Result<T>> getResults() {
+        return futureResults.stream().map(FutureResult::get).collect(Collectors.toList());
+    }
+
+    /**
+     * {@return a sequential stream of the computations of this batch and their results, in the order in which they finish}
+     * Blocks when waiting for further computations to finish.
+     * Should only be called once, as the finished computations are not retained for further streams.
+     */
+    public Stream<Pair<IComputation<T>, Result<T>>> stream() {
+        Iterator<Pair<IComputation<T>, Result<T>>> iterator = new Iterator<>() {
+            private int numberOfReturned;
+
+            @Override
+            public boolean hasNext() {
+                return numberOfReturned < futureResults.size();
+            }
+
+            @Override
+            public Pair<IComputation<T>, Result<T>> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                int index;
+                try {
+                    index = completedIndices.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new CancellationException();
+                }
+                numberOfReturned++;
+                return new Pair<>(computations.get(index), futureResults.get(index).get());
+            }
+        };
+        // not sized, so that terminal operations such as count() actually wait for all computations
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.NONNULL), false);
+    }
+
+    /**
+     * {@return the aggregated progress of all computations of this batch}
+     * Each computation contributes equally, regardless of its number of steps.
+     * The current step of this progress is the number of computations that have finished.
+     */
+    public Progress getProgress() {
+        return progress;
+    }
+
+    /**
+     * {@return the number of computations of this batch that have finished}
+     */
+    public int getNumberOfCompleted() {
+        return numberOfCompleted.get();
+    }
+
+    /**
+     * {@return whether all computations of this batch have finished}
+     */
+    public boolean isDone() {
+        return numberOfCompleted.get() == futureResults.size();
+    }
+
+    /**
+     * {@return the computations of this batch that have finished with an empty result so far, together with their results}
+     * Failed computations are listed in the order in which they finish.
+     */
+    public List<Pair<IComputation<T>, Result<T>>> getFailures() {
+        synchronized (failures) {
+            return new ArrayList<>(failures);
+        }
+    }
+
+    /**
+     * Cancels all computations of this batch that have not finished yet.
+     */
+    public void cancel() {
+        futureResults.forEach(FutureResult::cancel);
+    }
+}
@@ -21,6 +21,7 @@
 package de.featjar.base.computation;
 
 import de.featjar.base.FeatJAR;
+import de.featjar.base.data.Pair;
 import de.featjar.base.data.Result;
 import de.featjar.base.env.IBrowsable;
 import de.featjar.base.env.StackTrace;
@@ -30,16 +31,19 @@ import de.featjar.base.tree.structure.ITree;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 
 /**
  * Caches computation results by storing a map of computations to their future results.
+ * If a maximum size or weight is configured, results are evicted according to an {@link EvictionPolicy}.
  *
  * @author Sebastian Krieter
  * @author Elias Kuiter
@@ -61,10 +65,21 @@ public class Cache implements IInitializer, IBrowsable<GraphVizTreeFormat<ICompu
 
         /**
          * Caches top-level computation results; that is, those not nested in other computations.
-         * Nested computations are detected by checking if {@link IComputation#compute(DependencyList, Progress)} is already on the stack.
+         * Nested computations are detected by the nesting depth of the {@link ComputationContext},
+         * which is maintained by the scheduler in constant time.
+         * When called with a stack trace instead, checks whether {@link IComputation#compute(List, Progress)} is already on the stack.
          */
-        CachePolicy CACHE_TOP_LEVEL =
-                (computation, stackTrace) -> !stackTrace.containsMethodCall(IComputation.class, "compute");
+        CachePolicy CACHE_TOP_LEVEL = new CachePolicy() {
+            @Override
+            public boolean shouldCache(IComputation<?> computation, ComputationContext context) {
+                return context.isTopLevel();
+            }
+
+            @Override
+            public boolean shouldCache(IComputation<?> computation, StackTrace stackTrace) {
+                return !stackTrace.containsMethodCall(IComputation.class, "compute");
+            }
+        };
 
         /**
          * {@return whether the calling cache should store the given computation}
@@ -73,6 +88,73 @@ public class Cache implements IInitializer, IBrowsable<GraphVizTreeFormat<ICompu
          * @param stackTrace  the current stack trace
          */
         boolean shouldCache(IComputation<?> computation, StackTrace stackTrace);
+
+        /**
+         * {@return whether the calling cache should store the given computation}
+         * This is called by the cache.
+         * By default, calls {@link #shouldCache(IComputation, StackTrace)} with the current stack trace.
+         * Policies should override this method to avoid capturing the stack trace,
+         * for example by using {@link ComputationContext#getNestingDepth()} or {@link ComputationContext#containsMethodCall(Class, String)}.
+         *
+         * @param computation the computation
+         * @param context     the current computation context
+         */
+        default boolean shouldCache(IComputation<?> computation, ComputationContext context) {
+            return shouldCache(computation, context.getStackTrace());
+        }
+    }
+
+    /**
+     * Specifies which computation results a bounded cache should evict first.
+     */
+    public enum EvictionPolicy {
+        /**
+         * Evicts the least recently written or hit computation result.
+         */
+        LEAST_RECENTLY_USED,
+        /**
+         * Evicts the least frequently hit computation result.
+         */
+        LEAST_FREQUENTLY_USED,
+        /**
+         * Admits computation results to the cache based on their estimated frequency, in the style of W-TinyLFU.
+         * Protects frequently used results from being flushed by many one-off computations.
+         */
+        WINDOWED_TINY_LEAST_FREQUENTLY_USED
+    }
+
+    /**
+     * Estimates the weight of a cached computation result (e.g., its size in bytes).
+     */
+    public interface Weigher {
+        /**
+         * Weighs every computation result equally.
+         */
+        Weigher UNIT = (computation, futureResult) -> 1;
+
+        /**
+         * {@return the non-negative weight of the given computation result}
+         * Is called when the future result is written to the cache, when it may not be done yet,
+         * and again when it is done.
+         * Thus, this should not block on the future result, but return an estimate (e.g., 0) while it is not done.
+         *
+         * @param computation  the computation
+         * @param futureResult the future result
+         */
+        long weigh(IComputation<?> computation, FutureResult<?> futureResult);
+    }
+
+    /**
+     * Is notified when a computation result is evicted from a bounded cache.
+     */
+    public interface EvictionListener {
+        /**
+         * Called after the given computation result has been evicted.
+         *
+         * @param computation  the computation
+         * @param futureResult the evicted future result
+         */
+        void onEviction(IComputation<?> computation, FutureResult<?> futureResult);
     }
 
     /**
@@ -83,6 +165,26 @@ public class Cache implements IInitializer, IBrowsable<GraphVizTreeFormat<ICompu
 
         protected Executor executor = Executors.newCachedThreadPool();
 
+        protected Executor cpuBoundExecutor;
+
+        protected boolean inlineLightweightComputations;
+
+        protected ComputationScheduler scheduler;
+
+        protected long maximumWeight = Long.MAX_VALUE;
+
+        protected Weigher weigher = Weigher.UNIT;
+
+        protected EvictionPolicy evictionPolicy = EvictionPolicy.LEAST_RECENTLY_USED;
+
+        protected final List<EvictionListener> evictionListeners = new ArrayList<>();
+
+        protected DiskCache diskCache;
+
+        protected boolean recordStatistics;
+
+        protected boolean coalesceComputations;
+
         /**
          * Configures the cache policy.
          *
@@ -104,6 +206,250 @@ public class Cache implements IInitializer, IBrowsable<GraphVizTreeFormat<ICompu
             this.executor = executor;
             return this;
         }
+
+        /**
+         * Configures the executor for CPU-bound computations (see {@link IComputation#isCPUBound()}).
+         * If not configured, CPU-bound computations are run on the default executor.
+         *
+         * @param cpuBoundExecutor the executor for CPU-bound computations, or {@code null} to use the default executor
+         * @return this configuration
+         */
+        public Configuration setCPUBoundExecutor(Executor cpuBoundExecutor) {
+            this.cpuBoundExecutor = cpuBoundExecutor;
+            return this;
+        }
+
+        /**
+         * Configures an executor that runs each computation on a new virtual thread, if supported by the JVM (i.e., Java 21 or later).
+         * This is suited for computations that block, for example, on an external {@link de.featjar.base.env.Process}.
+         * CPU-bound computations are routed to a bounded pool with one thread per available processor instead,
+         * unless another executor for CPU-bound computations is configured.
+         * If virtual threads are not supported, the current executors are kept.
+         *
+         * @return this configuration
+         */
+        public Configuration setVirtualThreadExecutor() {
+            Result<Executor> virtualThreadExecutor = newVirtualThreadExecutor();
+            if (virtualThreadExecutor.isEmpty()) {
+                FeatJAR.log().debug("virtual threads not supported, keeping current executor");
+                return this;
+            }
+            this.executor = virtualThreadExecutor.get();
+            if (cpuBoundExecutor == null) {
+                this.cpuBoundExecutor = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+            }
+            return this;
+        }
+
+        /**
+         * {@return a new executor that runs each task on a new virtual thread, if supported by the JVM}
+         */
+        public static Result<Executor> newVirtualThreadExecutor() {
+            try {
+                return Result.of((Executor)
+                        Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null));
+            } catch (ReflectiveOperationException | ClassCastException e) {
+                return Result.empty(e);
+            }
+        }
+
+        /**
+         * {@return the executor for the given computation}
+         * CPU-bound computations are run on the executor for CPU-bound computations, if configured.
+         *
+         * @param computation the computation
+         */
+        public Executor getExecutor(IComputation<?> computation) {
+            return cpuBoundExecutor != null && computation.isCPUBound() ? cpuBoundExecutor : executor;
+        }
+
+        /**
+         * Configures a scheduler that orders computations by priority and estimated cost
+         * before handing them to their executor.
+         * Only top-level evaluations are scheduled; computations nested in other computations bypass the scheduler,
+         * so that they cannot wait for executors held by the computations they are nested in.
+         *
+         * @param scheduler the scheduler, or {@code null} to hand computations to their executor immediately
+         * @return this configuration
+         */
+        public Configuration setScheduler(ComputationScheduler scheduler) {
+            this.scheduler = scheduler;
+            return this;
+        }
+
+        /**
+         * {@return the scheduler that orders computations by priority and estimated cost, if any}
+         */
+        public Result<ComputationScheduler> getScheduler() {
+            return Result.ofNullable(scheduler);
+        }
+
+        /**
+         * Configures a bounded work-stealing executor with the given parallelism.
+         * Lightweight computations (see {@link IComputation#isLightweight()}) and the aggregation of dependency results
+         * are run inline on the thread that resolved the last dependency, while all other computations are forked.
+         * This avoids unbounded thread creation and saves a context switch per dependency.
+         *
+         * @param parallelism the maximum number of computations that run in parallel
+         * @return this configuration
+         */
+        public Configuration setWorkStealingExecutor(int parallelism) {
+            this.executor = new ForkJoinPool(parallelism, ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, true);
+            this.inlineLightweightComputations = true;
+            return this;
+        }
+
+        /**
+         * Configures a bounded work-stealing executor with one thread per available processor.
+         *
+         * @return this configuration
+         * @see #setWorkStealingExecutor(int)
+         */
+        public Configuration setWorkStealingExecutor() {
+            return setWorkStealingExecutor(Runtime.getRuntime().availableProcessors());
+        }
+
+        /**
+         * Configures whether lightweight computations and the aggregation of dependency results
+         * are run inline instead of being scheduled on the executor.
+         *
+         * @param inlineLightweightComputations whether to run lightweight computations inline
+         * @return this configuration
+         */
+        public Configuration setInlineLightweightComputations(boolean inlineLightweightComputations) {
+            this.inlineLightweightComputations = inlineLightweightComputations;
+            return this;
+        }
+
+        /**
+         * {@return whether lightweight computations are run inline instead of being scheduled on the executor}
+         */
+        public boolean isInliningLightweightComputations() {
+            return inlineLightweightComputations;
+        }
+
+        /**
+         * Configures the maximum number of cached computation results.
+         * When exceeded, results are evicted according to the eviction policy.
+         * Replaces the configured weigher with {@link Weigher#UNIT}.
+         *
+         * @param maximumSize the maximum number of cached computation results
+         * @return this configuration
+         */
+        public Configuration setMaximumSize(long maximumSize) {
+            return setMaximumWeight(maximumSize, Weigher.UNIT);
+        }
+
+        /**
+         * Configures the maximum total weight of cached computation results.
+         * When exceeded, results are evicted according to the eviction policy.
+         *
+         * @param maximumWeight the maximum total weight of cached computation results
+         * @param weigher       the weigher
+         * @return this configuration
+         */
+        public Configuration setMaximumWeight(long maximumWeight, Weigher weigher) {
+            return setWeigher(weigher).setMaximumWeight(maximumWeight);
+        }
+
+        /**
+         * Configures the maximum total weight of cached computation results, as estimated by the configured weigher.
+         * When exceeded, results are evicted according to the eviction policy.
+         *
+         * @param maximumWeight the maximum total weight of cached computation results
+         * @return this configuration
+         * @see #setWeigher(Weigher)
+         */
+        public Configuration setMaximumWeight(long maximumWeight) {
+            if (maximumWeight < 0) {
+                throw new IllegalArgumentException(String.valueOf(maximumWeight));
+            }
+            this.maximumWeight = maximumWeight;
+            return this;
+        }
+
+        /**
+         * Configures the weigher, which estimates the weight of cached computation results.
+         * The weight bounds the cache if a maximum weight is configured,
+         * and is reported as retained weight in the {@link CacheStatistics} in any case.
+         *
+         * @param weigher the weigher
+         * @return this configuration
+         */
+        public Configuration setWeigher(Weigher weigher) {
+            this.weigher = Objects.requireNonNull(weigher);
+            return this;
+        }
+
+        /**
+         * Configures the eviction policy, which is only relevant when a maximum size or weight is configured.
+         *
+         * @param evictionPolicy the eviction policy
+         * @return this configuration
+         */
+        public Configuration setEvictionPolicy(EvictionPolicy evictionPolicy) {
+            this.evictionPolicy = Objects.requireNonNull(evictionPolicy);
+            return this;
+        }
+
+        /**
+         * Adds a listener that is notified of every evicted computation result.
+         *
+         * @param evictionListener the eviction listener
+         * @return this configuration
+         */
+        public Configuration addEvictionListener(EvictionListener evictionListener) {
+            evictionListeners.add(Objects.requireNonNull(evictionListener));
+            return this;
+        }
+
+        /**
+         * Configures a second-level cache that persists computation results on disk.
+         * Results that are written to the cache are also stored on disk once they are available.
+         * On a cache miss, the disk cache is consulted before the computation is recomputed.
+         *
+         * @param diskCache the disk cache, or {@code null} to disable persistence
+         * @return this configuration
+         */
+        public Configuration setDiskCache(DiskCache diskCache) {
+            this.diskCache = diskCache;
+            return this;
+        }
+
+        /**
+         * Configures whether the cache records {@link CacheStatistics}, which can be accessed with {@link Cache#getStatistics()}.
+         *
+         * @param recordStatistics whether to record statistics
+         * @return this configuration
+         */
+        public Configuration setRecordStatistics(boolean recordStatistics) {
+            this.recordStatistics = recordStatistics;
+            return this;
+        }
+
+        /**
+         * Configures whether identical computations that are scheduled concurrently share a single computation.
+         * If enabled, a computation that is requested while an identical computation is still in flight
+         * joins the in-flight computation instead of being computed again.
+         * Each joined future result can be cancelled on its own, and the shared computation is only cancelled
+         * when all of them are cancelled (see {@link InFlightComputation}).
+         * This is independent of the cache policy, as only in-flight computations are shared.
+         * Disabled by default.
+         *
+         * @param coalesceComputations whether to coalesce identical in-flight computations
+         * @return this configuration
+         */
+        public Configuration setCoalesceComputations(boolean coalesceComputations) {
+            this.coalesceComputations = coalesceComputations;
+            return this;
+        }
+
+        /**
+         * {@return whether this configuration bounds the size or weight of the cache}
+         */
+        public boolean isBounded() {
+            return maximumWeight < Long.MAX_VALUE;
+        }
     }
 
     /**
@@ -117,7 +463,26 @@ public class Cache implements IInitializer, IBrowsable<GraphVizTreeFormat<ICompu
      */
     protected final Map<IComputation<?>, FutureResult<?>> computationMap = new ConcurrentHashMap<>();
 
-    protected final Map<IComputation<?>, Long> hitStatistics = new HashMap<>();
+    /**
+     * Maps computations that are currently in flight to their shared in-flight computations.
+     * Entries are removed as soon as the in-flight computation is done.
+     */
+    protected final Map<IComputation<?>, InFlightComputation<?>> inFlightMap = new ConcurrentHashMap<>();
+
+    /**
+     * Counts the cache hits for each computation.
+     */
+    protected final Map<IComputation<?>, LongAdder> hitStatistics = new ConcurrentHashMap<>();
+
+    /**
+     * Decides which computations to evict, if this cache is bounded.
+     */
+    protected CacheEviction eviction;
+
+    /**
+     * Records statistics about this cache, if enabled.
+     */
+    protected CacheStatistics statistics;
 
     /**
      * Creates a cache without configuration.
@@ -161,6 +526,50 @@ public class Cache implements IInitializer, IBrowsable<GraphVizTreeFormat<ICompu
     public void setConfiguration(Configuration configuration) {
         FeatJAR.log().debug("setting new cache configuration");
         this.configuration = configuration;
+        if (configuration.isBounded()) {
+            eviction = CacheEviction.of(configuration.evictionPolicy, configuration.maximumWeight);
+            computationMap.keySet().forEach(this::evictIfNecessary);
+        } else {
+            eviction = null;
+        }
+        statistics = configuration.recordStatistics ? new CacheStatistics() : null;
+    }
+
+    /**
+     * {@return a snapshot of this cache's statistics, if recorded}
+     *
+     * @see Configuration#setRecordStatistics(boolean)
+     */
+    public Result<CacheStatistics.Snapshot> getStatistics() {
+        CacheStatistics statistics = this.statistics;
+        if (statistics == null) {
+            return Result.empty();
+        }
+        long retainedWeight;
+        if (eviction != null) {
+            retainedWeight = eviction.getWeight();
+        } else {
+            retainedWeight = 0;
+            for (Map.Entry<IComputation<?>, FutureResult<?>> entry : computationMap.entrySet()) {
+                retainedWeight += configuration.weigher.weigh(entry.getKey(), entry.getValue());
+            }
+        }
+        return Result.of(statistics.snapshot(computationMap.size(), retainedWeight));
+    }
+
+    /**
+     * {@return the second-level cache that persists computation results on disk, if any}
+     */
+    protected DiskCache getDiskCache() {
+        return configuration != null ? configuration.diskCache : null;
+    }
+
+    /**
+     * {@return the total weight of all computation results in this cache}
+     * If this cache is not bounded, this is the number of cached computation results.
+     */
+    public long getWeight() {
+        return eviction != null ? eviction.getWeight() : computationMap.size();
     }
 
     /**
@@ -171,32 +580,104 @@ public class Cache implements IInitializer, IBrowsable<GraphVizTreeFormat<ICompu
      */
     @SuppressWarnings("unchecked")
     public <T> Result<FutureResult<T>> tryHit(IComputation<T> computation) {
-        FutureResult<T> futureResult;
-        synchronized (computationMap) {
-            futureResult = (FutureResult<T>) computationMap.get(computation);
-            if (futureResult != null
-                    && (futureResult.getPromise().isCancelled()
-                            || futureResult.getPromise().isCompletedExceptionally())) {
-                computationMap.put(computation, null);
-                futureResult = null;
+        FutureResult<T> futureResult = (FutureResult<T>) computationMap.get(computation);
+        if (futureResult != null
+                && (futureResult.getPromise().isCancelled()
+                        || futureResult.getPromise().isCompletedExceptionally())) {
+            // only removes the failed future result if it has not been replaced concurrently
+            if (computationMap.remove(computation, futureResult)) {
+                hitStatistics.remove(computation);
+                if (eviction != null) {
+                    eviction.recordRemove(computation, futureResult);
+                }
             }
+            futureResult = null;
         }
         if (futureResult != null) {
             //            FeatJAR.log().debug("cache hit for " + computation);
-            synchronized (hitStatistics) {
-                Long count = hitStatistics.get(computation);
-                if (count == null) {
-                    hitStatistics.put(computation, 1L);
-                } else {
-                    hitStatistics.put(computation, count + 1);
-                }
+            if (eviction != null) {
+                eviction.recordHit(computation);
+            }
+            LongAdder hits = hitStatistics.get(computation);
+            if (hits == null) {
+                hits = hitStatistics.computeIfAbsent(computation, c -> new LongAdder());
+            }
+            hits.increment();
+            if (statistics != null) {
+                statistics.recordHit(computation);
             }
             return Result.of(futureResult);
         }
-        FeatJAR.log().debug("cache miss for " + computation);
+        DiskCache diskCache = getDiskCache();
+        if (diskCache != null) {
+            Result<T> result = diskCache.load(computation);
+            if (result.isPresent()) {
+                FeatJAR.log().debug(() -> "disk cache hit for " + computation);
+                if (statistics != null) {
+                    statistics.recordDiskHit(computation);
+                }
+                futureResult = new FutureResult<>(result, Progress.completed(1));
+                FutureResult<T> previousFutureResult =
+                        (FutureResult<T>) computationMap.putIfAbsent(computation, futureResult);
+                if (previousFutureResult != null) {
+                    return Result.of(previousFutureResult);
+                }
+                evictIfNecessary(computation);
+                return Result.of(futureResult);
+            }
+        }
+        FeatJAR.log().debug(() -> "cache miss for " + computation);
+        if (statistics != null) {
+            statistics.recordMiss(computation);
+        }
         return Result.empty();
     }
 
+    /**
+     * {@return whether identical computations that are in flight concurrently should share a single computation}
+     *
+     * @see Configuration#setCoalesceComputations(boolean)
+     */
+    public boolean isCoalescing() {
+        return configuration != null && configuration.coalesceComputations;
+    }
+
+    /**
+     * {@return the in-flight computation of an identical computation that is currently in flight, if any}
+     * Otherwise, atomically registers and returns the given in-flight computation until it is done,
+     * so that identical computations that are scheduled concurrently can {@link InFlightComputation#join(Progress) join}
+     * it. In this case, the caller must {@link InFlightComputation#complete(net.tascalate.concurrent.DependentPromise)
+     * complete} the given in-flight computation.
+     * Released in-flight computations are replaced, as they cannot be joined anymore.
+     *
+     * @param computation         the computation
+     * @param inFlightComputation the in-flight computation to register if none is registered yet
+     * @param <T>                 the type of the computation result
+     */
+    @SuppressWarnings("unchecked")
+    public <T> InFlightComputation<T> tryJoin(IComputation<T> computation, InFlightComputation<T> inFlightComputation) {
+        InFlightComputation<T> registered = (InFlightComputation<T>) inFlightMap.compute(
+                computation,
+                (key, existing) -> existing == null || existing.isReleased() ? inFlightComputation : existing);
+        if (registered == inFlightComputation) {
+            inFlightComputation
+                    .getPromise()
+                    .whenComplete((result, e) -> inFlightMap.remove(computation, inFlightComputation));
+        } else {
+            FeatJAR.log().debug(() -> "joining in-flight computation " + computation);
+        }
+        return registered;
+    }
+
+    /**
+     * {@return the number of distinct computations that are currently in flight}
+     *
+     * @see #tryJoin(IComputation, InFlightComputation)
+     */
+    public int getNumberOfInFlightComputations() {
+        return inFlightMap.size();
+    }
+
     /**
      * Stores the given future result for the given computation if the current {@link CachePolicy} agrees.
      *
@@ -205,8 +686,8 @@ public class Cache implements IInitializer, IBrowsable<GraphVizTreeFormat<ICompu
      * @param <T>          the type of the computation result
      */
     public <T> void tryWrite(IComputation<T> computation, FutureResult<T> futureResult) {
-        if (configuration.cachePolicy.shouldCache(computation, new StackTrace())) {
-            FeatJAR.log().debug("cache write for " + computation);
+        if (configuration.cachePolicy.shouldCache(computation, ComputationContext.current())) {
+            FeatJAR.log().debug(() -> "cache write for " + computation);
             put(computation, futureResult);
         }
     }
@@ -242,12 +723,73 @@ public class Cache implements IInitializer, IBrowsable<GraphVizTreeFormat<ICompu
      * @return whether the operation affected this cache
      */
     public <T> boolean put(IComputation<T> computation, FutureResult<T> futureResult) {
-        if (has(computation)) // once set, immutable
+        if (computationMap.putIfAbsent(computation, futureResult) != null) // once set, immutable
         return false;
-        computationMap.put(computation, futureResult);
+        if (statistics != null) {
+            statistics.recordPut(computation, futureResult);
+        }
+        evictIfNecessary(computation);
+        DiskCache diskCache = getDiskCache();
+        if (diskCache != null) {
+            futureResult.getPromise().whenComplete((result, e) -> {
+                if (result != null && result.isPresent()) {
+                    diskCache.store(computation, result.get());
+                }
+            });
+        }
         return true;
     }
 
+    @SuppressWarnings("unchecked")
+    private <T> void evictIfNecessary(IComputation<T> computation) {
+        CacheEviction eviction = this.eviction;
+        if (eviction == null) {
+            return;
+        }
+        FutureResult<T> futureResult = (FutureResult<T>) computationMap.get(computation);
+        if (futureResult == null) {
+            return;
+        }
+        evict(eviction.recordWrite(
+                computation, futureResult, configuration.weigher.weigh(computation, futureResult)));
+        if (computationMap.get(computation) != futureResult) {
+            // the future result has been removed before it was recorded, so it must not be tracked anymore
+            eviction.recordRemove(computation, futureResult);
+            return;
+        }
+        if (!futureResult.getPromise().isDone()) {
+            // the result is weighed again once it is available, as its weight is usually not known before
+            futureResult.getPromise().whenComplete((result, e) -> reweigh(computation, futureResult));
+        }
+    }
+
+    private <T> void reweigh(IComputation<T> computation, FutureResult<T> futureResult) {
+        CacheEviction eviction = this.eviction;
+        if (eviction == null || computationMap.get(computation) != futureResult) {
+            return;
+        }
+        evict(eviction.recordUpdate(
+                computation, futureResult, configuration.weigher.weigh(computation, futureResult)));
+    }
+
+    private void evict(List<Pair<IComputation<?>, FutureResult<?>>> evictedEntries) {
+        for (Pair<IComputation<?>, FutureResult<?>> evictedEntry : evictedEntries) {
+            IComputation<?> evictedComputation = evictedEntry.getKey();
+            FutureResult<?> evictedFutureResult = evictedEntry.getValue();
+            // only removes the evicted future result if it has not been replaced concurrently
+            if (computationMap.remove(evictedComputation, evictedFutureResult)) {
+                FeatJAR.log().debug(() -> "cache evict for " + evictedComputation);
+                hitStatistics.remove(evictedComputation);
+                if (statistics != null) {
+                    statistics.recordEviction(evictedComputation);
+                }
+                for (EvictionListener evictionListener : configuration.evictionListeners) {
+                    evictionListener.onEviction(evictedComputation, evictedFutureResult);
+                }
+            }
+        }
+    }
+
     /**
      * Removes the cached result for a given computation, if already cached.
      * Does nothing if the computation has not already been cached.
@@ -257,9 +799,13 @@ public class Cache implements IInitializer, IBrowsable<GraphVizTreeFormat<ICompu
      * @return whether the operation affected this cache
      */
     public <T> boolean remove(IComputation<T> computation) {
-        if (!has(computation)) return false;
-        FeatJAR.log().debug("cache remove for " + computation);
-        computationMap.remove(computation);
+        FutureResult<?> futureResult = computationMap.remove(computation);
+        if (futureResult == null) return false;
+        FeatJAR.log().debug(() -> "cache remove for " + computation);
+        hitStatistics.remove(computation);
+        if (eviction != null) {
+            eviction.recordRemove(computation, futureResult);
+        }
         return true;
     }
 
@@ -269,6 +815,10 @@ public class Cache implements IInitializer, IBrowsable<GraphVizTreeFormat<ICompu
     public void clear() {
         FeatJAR.log().debug("clearing cache");
         computationMap.clear();
+        hitStatistics.clear();
+        if (eviction != null) {
+            eviction.clear();
+        }
     }
 
     /**
@@ -277,28 +827,30 @@ public class Cache implements IInitializer, IBrowsable<GraphVizTreeFormat<ICompu
      * @param computation the computation
      */
     public Long getNumberOfHits(IComputation<?> computation) {
-        Long hits;
-        synchronized (hitStatistics) {
-            hits = hitStatistics.get(computation);
-        }
-        return Result.ofNullable(hits).orElse(0L);
+        LongAdder hits = hitStatistics.get(computation);
+        return hits != null ? hits.sum() : 0L;
     }
 
     /**
      * {@return the progress of the given computation}
      * The progress is equally weighted over all direct dependencies of the computation.
      * That is, if a computation with two direct dependencies has just started, the progress is 2/3.
+     * If the computation is cached, takes constant time, as its {@link Progress} already aggregates the progress
+     * of its dependencies (see {@link Progress#addChild(Progress)}).
+     * Otherwise, the progress is aggregated over its cached dependencies.
      *
      * @param computation the computation
      */
     public Result<Double> getProgress(IComputation<?> computation) {
-        List<Double> progresses = new ArrayList<>();
-        get(computation).map(FutureResult::getProgress).map(Progress::get).ifPresent(progresses::add);
-        progresses.addAll(computation.getChildren().stream()
+        Result<? extends FutureResult<?>> futureResult = get(computation);
+        if (futureResult.isPresent()) {
+            return Result.of(futureResult.get().getProgress().get());
+        }
+        List<Double> progresses = computation.getChildren().stream()
                 .map(this::getProgress)
                 .filter(Result::isPresent)
                 .map(Result::get)
-                .collect(Collectors.toList()));
+                .collect(Collectors.toList());
         if (progresses.isEmpty()) return Result.empty();
         return Result.of(progresses.stream().reduce(Double::sum).get() / progresses.size());
     }
@@ -0,0 +1,625 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-base.
+ *
+ * base is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * base is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with base. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-base> for further information.
+ */
+package de.featjar.base.computation;
+
+import de.featjar.base.data.Pair;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Decides which computations are evicted from a bounded {@link Cache}.
+ * Tracks the weight and usage of all cached computations and, when the maximum weight is exceeded,
+ * selects victims according to a {@link Cache.EvictionPolicy}.
+ * Each computation is tracked along with its cached {@link FutureResult},
+ * so that the cache only removes the evicted future result and not one that has been stored again concurrently.
+ * All bookkeeping is guarded by a lock owned by this object and not by the cache itself.
+ * Hits are only recorded in a lossy buffer, which is drained whenever the lock is available,
+ * so that concurrent cache lookups do not contend for the lock.
+ *
+ * @author Sebastian Krieter
+ */
+public abstract class CacheEviction {
+
+    /**
+     * {@return a new eviction for the given policy and maximum weight}
+     *
+     * @param evictionPolicy the eviction policy
+     * @param maximumWeight  the maximum weight
+     */
+    public static CacheEviction of(Cache.EvictionPolicy evictionPolicy, long maximumWeight) {
+        switch (evictionPolicy) {
+            case LEAST_RECENTLY_USED:
+                return new LeastRecentlyUsed(maximumWeight);
+            case LEAST_FREQUENTLY_USED:
+                return new LeastFrequentlyUsed(maximumWeight);
+            case WINDOWED_TINY_LEAST_FREQUENTLY_USED:
+                return new WindowedTinyLeastFrequentlyUsed(maximumWeight);
+            default:
+                throw new IllegalArgumentException(String.valueOf(evictionPolicy));
+        }
+    }
+
+    protected static final int READ_BUFFER_DRAIN_THRESHOLD = 16;
+    protected static final int MAXIMUM_READ_BUFFER_SIZE = 256;
+
+    protected final ReentrantLock lock = new ReentrantLock();
+    protected final Queue<IComputation<?>> readBuffer = new ConcurrentLinkedQueue<>();
+    protected final AtomicInteger readBufferSize = new AtomicInteger();
+    protected final long maximumWeight;
+    protected final Map<IComputation<?>, Long> weights = new LinkedHashMap<>();
+    protected final Map<IComputation<?>, FutureResult<?>> futureResults = new HashMap<>();
+    protected long weight;
+
+    protected CacheEviction(long maximumWeight) {
+        if (maximumWeight < 0) {
+            throw new IllegalArgumentException(String.valueOf(maximumWeight));
+        }
+        this.maximumWeight = maximumWeight;
+    }
+
+    /**
+     * {@return the maximum weight of all cached computations}
+     */
+    public long getMaximumWeight() {
+        return maximumWeight;
+    }
+
+    /**
+     * {@return the current weight of all cached computations}
+     */
+    public long getWeight() {
+        lock.lock();
+        try {
+            return weight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * {@return the number of tracked computations}
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return weights.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records that a computation has been written to the cache.
+     * If another future result is tracked for the computation, it is replaced by the given one.
+     * If this exceeds the maximum weight, other (or even the given) computations are selected for eviction.
+     *
+     * @param computation  the computation
+     * @param futureResult the written future result
+     * @param entryWeight  the weight of the written entry
+     * @return the computations and future results that must be evicted from the cache
+     */
+    public List<Pair<IComputation<?>, FutureResult<?>>> recordWrite(
+            IComputation<?> computation, FutureResult<?> futureResult, long entryWeight) {
+        if (entryWeight < 0) {
+            throw new IllegalArgumentException(String.valueOf(entryWeight));
+        }
+        List<Pair<IComputation<?>, FutureResult<?>>> evicted = new ArrayList<>(1);
+        lock.lock();
+        try {
+            drainReadBuffer();
+            FutureResult<?> trackedFutureResult = futureResults.get(computation);
+            if (trackedFutureResult == futureResult) {
+                return evicted;
+            }
+            if (trackedFutureResult != null) {
+                untrack(computation);
+            }
+            if (entryWeight > maximumWeight) {
+                evicted.add(new Pair<>(computation, futureResult));
+                return evicted;
+            }
+            weights.put(computation, entryWeight);
+            futureResults.put(computation, futureResult);
+            weight += entryWeight;
+            onWrite(computation, entryWeight, evicted);
+            return evicted;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records that the weight of a cached computation has changed, for example, because its result has become available.
+     * If this exceeds the maximum weight, other (or even the given) computations are selected for eviction.
+     * Does nothing if the computation is not tracked with the given future result.
+     *
+     * @param computation  the computation
+     * @param futureResult the updated future result
+     * @param entryWeight  the new weight of the entry
+     * @return the computations and future results that must be evicted from the cache
+     */
+    public List<Pair<IComputation<?>, FutureResult<?>>> recordUpdate(
+            IComputation<?> computation, FutureResult<?> futureResult, long entryWeight) {
+        if (entryWeight < 0) {
+            throw new IllegalArgumentException(String.valueOf(entryWeight));
+        }
+        List<Pair<IComputation<?>, FutureResult<?>>> evicted = new ArrayList<>(1);
+        lock.lock();
+        try {
+            drainReadBuffer();
+            if (futureResults.get(computation) != futureResult) {
+                return evicted;
+            }
+            Long previousEntryWeight = weights.get(computation);
+            if (previousEntryWeight == null || previousEntryWeight == entryWeight) {
+                return evicted;
+            }
+            if (entryWeight > maximumWeight) {
+                evict(computation, evicted);
+                return evicted;
+            }
+            weights.put(computation, entryWeight);
+            weight += entryWeight - previousEntryWeight;
+            onUpdate(computation, previousEntryWeight, entryWeight, evicted);
+            return evicted;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records that a computation has been hit in the cache.
+     * Does not block, and may drop the hit when many hits are recorded concurrently.
+     *
+     * @param computation the computation
+     */
+    public void recordHit(IComputation<?> computation) {
+        int size = readBufferSize.incrementAndGet();
+        if (size > MAXIMUM_READ_BUFFER_SIZE) {
+            readBufferSize.decrementAndGet();
+        } else {
+            readBuffer.offer(computation);
+        }
+        if (size >= READ_BUFFER_DRAIN_THRESHOLD && lock.tryLock()) {
+            try {
+                drainReadBuffer();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Records that a computation has been removed from the cache by other means than eviction.
+     * Does nothing if the computation is not tracked with the given future result.
+     *
+     * @param computation  the computation
+     * @param futureResult the removed future result
+     */
+    public void recordRemove(IComputation<?> computation, FutureResult<?> futureResult) {
+        lock.lock();
+        try {
+            drainReadBuffer();
+            if (futureResults.get(computation) == futureResult) {
+                untrack(computation);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Forgets all tracked computations.
+     */
+    public void clear() {
+        lock.lock();
+        try {
+            drainReadBuffer();
+            weights.clear();
+            futureResults.clear();
+            weight = 0;
+            onClear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    protected void drainReadBuffer() {
+        IComputation<?> computation;
+        while ((computation = readBuffer.poll()) != null) {
+            readBufferSize.decrementAndGet();
+            if (weights.containsKey(computation)) {
+                onHit(computation);
+            }
+        }
+    }
+
+    protected void untrack(IComputation<?> computation) {
+        Long entryWeight = weights.remove(computation);
+        if (entryWeight != null) {
+            futureResults.remove(computation);
+            weight -= entryWeight;
+            onRemove(computation);
+        }
+    }
+
+    protected void evict(IComputation<?> computation, List<Pair<IComputation<?>, FutureResult<?>>> evicted) {
+        evicted.add(new Pair<>(computation, futureResults.get(computation)));
+        untrack(computation);
+    }
+
+    protected abstract void onWrite(
+            IComputation<?> computation, long entryWeight, List<Pair<IComputation<?>, FutureResult<?>>> evicted);
+
+    protected abstract void onUpdate(
+            IComputation<?> computation,
+            long previousEntryWeight,
+            long entryWeight,
+            List<Pair<IComputation<?>, FutureResult<?>>> evicted);
+
+    protected abstract void onHit(IComputation<?> computation);
+
+    protected abstract void onRemove(IComputation<?> computation);
+
+    protected abstract void onClear();
+
+    /**
+     * Evicts the least recently written or hit computation first.
+     */
+    public static class LeastRecentlyUsed extends CacheEviction {
+        protected final LinkedHashMap<IComputation<?>, Boolean> order = new LinkedHashMap<>(16, 0.75f, true);
+
+        public LeastRecentlyUsed(long maximumWeight) {
+            super(maximumWeight);
+        }
+
+        @Override
+        protected void onWrite(
+                IComputation<?> computation,
+                long entryWeight,
+                List<Pair<IComputation<?>, FutureResult<?>>> evicted) {
+            order.put(computation, Boolean.TRUE);
+            while (weight > maximumWeight) {
+                evict(order.keySet().iterator().next(), evicted);
+            }
+        }
+
+        @Override
+        protected void onUpdate(
+                IComputation<?> computation,
+                long previousEntryWeight,
+                long entryWeight,
+                List<Pair<IComputation<?>, FutureResult<?>>> evicted) {
+            while (weight > maximumWeight) {
+                evict(order.keySet().iterator().next(), evicted);
+            }
+        }
+
+        @Override
+        protected void onHit(IComputation<?> computation) {
+            order.get(computation);
+        }
+
+        @Override
+        protected void onRemove(IComputation<?> computation) {
+            order.remove(computation);
+        }
+
+        @Override
+        protected void onClear() {
+            order.clear();
+        }
+    }
+
+    /**
+     * Evicts the least frequently hit computation first.
+     * Ties are broken by evicting the least recently written or hit computation.
+     */
+    public static class LeastFrequentlyUsed extends CacheEviction {
+        protected final Map<IComputation<?>, Long> frequencies = new LinkedHashMap<>();
+        protected final TreeMap<Long, LinkedHashSet<IComputation<?>>> buckets = new TreeMap<>();
+
+        public LeastFrequentlyUsed(long maximumWeight) {
+            super(maximumWeight);
+        }
+
+        @Override
+        protected void onWrite(
+                IComputation<?> computation,
+                long entryWeight,
+                List<Pair<IComputation<?>, FutureResult<?>>> evicted) {
+            while (weight > maximumWeight) {
+                evict(buckets.firstEntry().getValue().iterator().next(), evicted);
+            }
+            frequencies.put(computation, 0L);
+            buckets.computeIfAbsent(0L, f -> new LinkedHashSet<>()).add(computation);
+        }
+
+        @Override
+        protected void onUpdate(
+                IComputation<?> computation,
+                long previousEntryWeight,
+                long entryWeight,
+                List<Pair<IComputation<?>, FutureResult<?>>> evicted) {
+            while (weight > maximumWeight) {
+                evict(buckets.firstEntry().getValue().iterator().next(), evicted);
+            }
+        }
+
+        @Override
+        protected void onHit(IComputation<?> computation) {
+            long frequency = frequencies.get(computation);
+            removeFromBucket(computation, frequency);
+            frequencies.put(computation, frequency + 1);
+            buckets.computeIfAbsent(frequency + 1, f -> new LinkedHashSet<>()).add(computation);
+        }
+
+        @Override
+        protected void onRemove(IComputation<?> computation) {
+            Long frequency = frequencies.remove(computation);
+            if (frequency != null) {
+                removeFromBucket(computation, frequency);
+            }
+        }
+
+        @Override
+        protected void onClear() {
+            frequencies.clear();
+            buckets.clear();
+        }
+
+        private void removeFromBucket(IComputation<?> computation, long frequency) {
+            LinkedHashSet<IComputation<?>> bucket = buckets.get(frequency);
+            bucket.remove(computation);
+            if (bucket.isEmpty()) {
+                buckets.remove(frequency);
+            }
+        }
+    }
+
+    /**
+     * Evicts computations in the style of W-TinyLFU.
+     * New computations are admitted into a small window region (1% of the maximum weight) that is managed as LRU.
+     * Computations that drop out of the window only enter the main region (also managed as LRU)
+     * if they have been used more frequently than the main region's victim, as estimated by a {@link FrequencySketch}.
+     * Thus, bursts of one-off computations cannot flush frequently used results from the cache.
+     */
+    public static class WindowedTinyLeastFrequentlyUsed extends CacheEviction {
+        protected final LinkedHashMap<IComputation<?>, Long> window = new LinkedHashMap<>(16, 0.75f, true);
+        protected final LinkedHashMap<IComputation<?>, Long> main = new LinkedHashMap<>(16, 0.75f, true);
+        protected final FrequencySketch sketch = new FrequencySketch();
+        protected final long maximumWindowWeight;
+        protected long windowWeight;
+        protected long mainWeight;
+
+        public WindowedTinyLeastFrequentlyUsed(long maximumWeight) {
+            super(maximumWeight);
+            maximumWindowWeight = Math.max(1, maximumWeight / 100);
+        }
+
+        @Override
+        protected void onWrite(
+                IComputation<?> computation,
+                long entryWeight,
+                List<Pair<IComputation<?>, FutureResult<?>>> evicted) {
+            sketch.ensureCapacity(weights.size());
+            sketch.increment(computation);
+            window.put(computation, entryWeight);
+            windowWeight += entryWeight;
+            while (windowWeight > maximumWindowWeight && window.size() > 1) {
+                Map.Entry<IComputation<?>, Long> candidate = window.entrySet().iterator().next();
+                window.remove(candidate.getKey());
+                windowWeight -= candidate.getValue();
+                admit(candidate.getKey(), candidate.getValue(), evicted);
+            }
+            while (weight > maximumWeight) {
+                evict((main.isEmpty() ? window : main).keySet().iterator().next(), evicted);
+            }
+        }
+
+        private void admit(
+                IComputation<?> candidate,
+                long candidateWeight,
+                List<Pair<IComputation<?>, FutureResult<?>>> evicted) {
+            long maximumMainWeight = maximumWeight - maximumWindowWeight;
+            if (mainWeight + candidateWeight <= maximumMainWeight) {
+                main.put(candidate, candidateWeight);
+                mainWeight += candidateWeight;
+                return;
+            }
+            int candidateFrequency = sketch.frequency(candidate);
+            Iterator<IComputation<?>> victims = main.keySet().iterator();
+            long freedWeight = 0;
+            List<IComputation<?>> selectedVictims = new ArrayList<>();
+            while (mainWeight - freedWeight + candidateWeight > maximumMainWeight && victims.hasNext()) {
+                IComputation<?> victim = victims.next();
+                if (sketch.frequency(victim) >= candidateFrequency) {
+                    // the candidate loses against the victim, so it is not admitted
+                    evict(candidate, evicted);
+                    return;
+                }
+                selectedVictims.add(victim);
+                freedWeight += main.get(victim);
+            }
+            for (IComputation<?> victim : selectedVictims) {
+                evict(victim, evicted);
+            }
+            main.put(candidate, candidateWeight);
+            mainWeight += candidateWeight;
+        }
+
+        @Override
+        protected void onUpdate(
+                IComputation<?> computation,
+                long previousEntryWeight,
+                long entryWeight,
+                List<Pair<IComputation<?>, FutureResult<?>>> evicted) {
+            if (window.containsKey(computation)) {
+                window.put(computation, entryWeight);
+                windowWeight += entryWeight - previousEntryWeight;
+            } else if (main.containsKey(computation)) {
+                main.put(computation, entryWeight);
+                mainWeight += entryWeight - previousEntryWeight;
+            }
+            while (weight > maximumWeight) {
+                evict((main.isEmpty() ? window : main).keySet().iterator().next(), evicted);
+            }
+        }
+
+        @Override
+        protected void onHit(IComputation<?> computation) {
+            sketch.increment(computation);
+            if (window.get(computation) == null) {
+                main.get(computation);
+            }
+        }
+
+        @Override
+        protected void onRemove(IComputation<?> computation) {
+            Long entryWeight = window.remove(computation);
+            if (entryWeight != null) {
+                windowWeight -= entryWeight;
+            } else {
+                entryWeight = main.remove(computation);
+                if (entryWeight != null) {
+                    mainWeight -= entryWeight;
+                }
+            }
+        }
+
+        @Override
+        protected void onClear() {
+            window.clear();
+            main.clear();
+            windowWeight = 0;
+            mainWeight = 0;
+            sketch.clear();
+        }
+    }
+
+    /**
+     * A count-min sketch that estimates how often a computation has been used recently.
+     * Uses four rows of saturating counters (capped at 15) and halves all counters periodically,
+     * so that the estimated frequencies decay over time.
+     */
+    public static class FrequencySketch {
+        protected static final int ROWS = 4;
+        protected static final int MAXIMUM_COUNTER = 15;
+        protected static final int MINIMUM_WIDTH = 256;
+        protected static final int MAXIMUM_WIDTH = 1 << 22;
+
+        protected int[] counters;
+        protected int mask;
+        protected int additions;
+
+        public FrequencySketch() {
+            resize(MINIMUM_WIDTH);
+        }
+
+        /**
+         * Grows this sketch if it is too small to accurately track the given number of computations.
+         * Growing resets all counters.
+         *
+         * @param expectedSize the expected number of computations
+         */
+        public void ensureCapacity(int expectedSize) {
+            int width = mask + 1;
+            if (expectedSize > width && width < MAXIMUM_WIDTH) {
+                resize(Math.min(MAXIMUM_WIDTH, Integer.highestOneBit(expectedSize - 1) << 1));
+            }
+        }
+
+        /**
+         * Increments the estimated frequency of the given computation.
+         *
+         * @param computation the computation
+         */
+        public void increment(IComputation<?> computation) {
+            int hash = spread(computation.hashCode());
+            boolean incremented = false;
+            for (int row = 0; row < ROWS; row++) {
+                int index = indexOf(hash, row);
+                if (counters[index] < MAXIMUM_COUNTER) {
+                    counters[index]++;
+                    incremented = true;
+                }
+            }
+            if (incremented && ++additions >= 10 * (mask + 1)) {
+                age();
+            }
+        }
+
+        /**
+         * {@return the estimated frequency of the given computation}
+         *
+         * @param computation the computation
+         */
+        public int frequency(IComputation<?> computation) {
+            int hash = spread(computation.hashCode());
+            int frequency = MAXIMUM_COUNTER;
+            for (int row = 0; row < ROWS; row++) {
+                frequency = Math.min(frequency, counters[indexOf(hash, row)]);
+            }
+            return frequency;
+        }
+
+        /**
+         * Resets all counters.
+         */
+        public void clear() {
+            resize(MINIMUM_WIDTH);
+        }
+
+        protected void age() {
+            for (int i = 0; i < counters.length; i++) {
+                counters[i] >>>= 1;
+            }
+            additions /= 2;
+        }
+
+        protected void resize(int width) {
+            counters = new int[ROWS * width];
+            mask = width - 1;
+            additions = 0;
+        }
+
+        protected int indexOf(int hash, int row) {
+            int h = (hash + row) * 0x9E3779B9 ^ (hash >>> (8 * row));
+            return row * (mask + 1) + (spread(h) & mask);
+        }
+
+        protected static int spread(int hash) {
+            hash ^= hash >>> 16;
+            hash *= 0x45d9f3b;
+            return hash ^ (hash >>> 16);
+        }
+    }
+}
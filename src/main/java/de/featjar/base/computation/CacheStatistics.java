@@ -0,0 +1,470 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-base.
+ *
+ * base is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * base is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with base. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-base> for further information.
+ */
+package de.featjar.base.computation;
+
+import de.featjar.base.io.csv.CSVFile;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records statistics about a {@link Cache}, grouped by computation class.
+ * Counts hits, disk hits, misses, puts, and evictions, and records the latency of computing results.
+ * All counters are updated without locking, so recording is cheap enough for production use.
+ * A consistent view of the statistics can be obtained with {@link Cache#getStatistics()}.
+ *
+ * @author Sebastian Krieter
+ */
+public class CacheStatistics {
+
+    /**
+     * Records a latency distribution in logarithmic buckets with four linear sub-buckets each,
+     * so that percentiles can be estimated with a relative error of at most 25%.
+     */
+    protected static class LatencyHistogram {
+        protected static final int SUB_BUCKETS = 4;
+
+        protected final AtomicLongArray buckets = new AtomicLongArray(64 * SUB_BUCKETS);
+        protected final LongAdder totalNanos = new LongAdder();
+        protected final AtomicLong maximumNanos = new AtomicLong();
+
+        protected void record(long nanos) {
+            nanos = Math.max(0, nanos);
+            buckets.incrementAndGet(bucketOf(nanos));
+            totalNanos.add(nanos);
+            maximumNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        protected void add(LatencyHistogram other) {
+            for (int i = 0; i < buckets.length(); i++) {
+                buckets.addAndGet(i, other.buckets.get(i));
+            }
+            totalNanos.add(other.totalNanos.sum());
+            maximumNanos.accumulateAndGet(other.maximumNanos.get(), Math::max);
+        }
+
+        protected static int bucketOf(long nanos) {
+            if (nanos < SUB_BUCKETS) {
+                return (int) nanos;
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+            int subBucket = (int) (nanos >>> (exponent - 2)) & (SUB_BUCKETS - 1);
+            return exponent * SUB_BUCKETS + subBucket;
+        }
+
+        protected static long upperBoundOf(int bucket) {
+            if (bucket < SUB_BUCKETS) {
+                return bucket;
+            }
+            int exponent = bucket / SUB_BUCKETS;
+            int subBucket = bucket % SUB_BUCKETS;
+            return ((long) (SUB_BUCKETS + subBucket + 1) << (exponent - 2)) - 1;
+        }
+
+        protected long percentile(long[] counts, long total, double percentile) {
+            if (total == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(percentile * total);
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(upperBoundOf(i), maximumNanos.get());
+                }
+            }
+            return maximumNanos.get();
+        }
+    }
+
+    /**
+     * Records statistics for a single computation class.
+     */
+    protected static class ClassStatistics {
+        protected final LongAdder hits = new LongAdder();
+        protected final LongAdder diskHits = new LongAdder();
+        protected final LongAdder misses = new LongAdder();
+        protected final LongAdder puts = new LongAdder();
+        protected final LongAdder evictions = new LongAdder();
+        protected final LatencyHistogram latency = new LatencyHistogram();
+    }
+
+    /**
+     * An immutable view of the statistics of a single computation class.
+     */
+    public static class Entry {
+        protected final String computationClass;
+        protected final long hits, diskHits, misses, puts, evictions, computations;
+        protected final long totalNanos, p50Nanos, p90Nanos, p99Nanos, maximumNanos;
+
+        protected Entry(String computationClass, ClassStatistics statistics) {
+            this.computationClass = computationClass;
+            hits = statistics.hits.sum();
+            diskHits = statistics.diskHits.sum();
+            misses = statistics.misses.sum();
+            puts = statistics.puts.sum();
+            evictions = statistics.evictions.sum();
+            LatencyHistogram latency = statistics.latency;
+            long[] counts = new long[latency.buckets.length()];
+            long total = 0;
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = latency.buckets.get(i);
+                total += counts[i];
+            }
+            computations = total;
+            totalNanos = latency.totalNanos.sum();
+            maximumNanos = latency.maximumNanos.get();
+            p50Nanos = latency.percentile(counts, total, 0.5);
+            p90Nanos = latency.percentile(counts, total, 0.9);
+            p99Nanos = latency.percentile(counts, total, 0.99);
+        }
+
+        /**
+         * {@return the name of the computation class}
+         */
+        public String getComputationClass() {
+            return computationClass;
+        }
+
+        /**
+         * {@return the number of cache hits in memory}
+         */
+        public long getHits() {
+            return hits;
+        }
+
+        /**
+         * {@return the number of results that were missing in memory, but loaded from the disk cache}
+         */
+        public long getDiskHits() {
+            return diskHits;
+        }
+
+        /**
+         * {@return the number of cache misses}
+         */
+        public long getMisses() {
+            return misses;
+        }
+
+        /**
+         * {@return the ratio of cache hits in memory to all cache lookups, or 0 if there were no lookups}
+         */
+        public double getHitRatio() {
+            long lookups = hits + diskHits + misses;
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+
+        /**
+         * {@return the number of results written to the cache}
+         */
+        public long getPuts() {
+            return puts;
+        }
+
+        /**
+         * {@return the number of results evicted from the cache}
+         */
+        public long getEvictions() {
+            return evictions;
+        }
+
+        /**
+         * {@return the number of computed results}
+         */
+        public long getComputations() {
+            return computations;
+        }
+
+        /**
+         * {@return the cumulative time spent computing results in nanoseconds}
+         */
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        /**
+         * {@return the estimated median time spent computing a result in nanoseconds}
+         */
+        public long getP50Nanos() {
+            return p50Nanos;
+        }
+
+        /**
+         * {@return the estimated 90th percentile of time spent computing a result in nanoseconds}
+         */
+        public long getP90Nanos() {
+            return p90Nanos;
+        }
+
+        /**
+         * {@return the estimated 99th percentile of time spent computing a result in nanoseconds}
+         */
+        public long getP99Nanos() {
+            return p99Nanos;
+        }
+
+        /**
+         * {@return the maximum time spent computing a result in nanoseconds}
+         */
+        public long getMaximumNanos() {
+            return maximumNanos;
+        }
+    }
+
+    /**
+     * An immutable view of all statistics of a cache at a point in time.
+     */
+    public static class Snapshot {
+        protected final long timestamp;
+        protected final long entries;
+        protected final long retainedWeight;
+        protected final long inFlight;
+        protected final List<Entry> entriesByClass;
+        protected final Entry total;
+
+        protected Snapshot(long entries, long retainedWeight, long inFlight, List<Entry> entriesByClass, Entry total) {
+            timestamp = System.currentTimeMillis();
+            this.entries = entries;
+            this.retainedWeight = retainedWeight;
+            this.inFlight = inFlight;
+            this.entriesByClass = Collections.unmodifiableList(entriesByClass);
+            this.total = total;
+        }
+
+        /**
+         * {@return the time this snapshot was taken, in milliseconds since the epoch}
+         */
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        /**
+         * {@return the number of cached computation results}
+         */
+        public long getEntries() {
+            return entries;
+        }
+
+        /**
+         * {@return the estimated retained size of all cached results, as measured by the cache's {@link Cache.Weigher}}
+         */
+        public long getRetainedWeight() {
+            return retainedWeight;
+        }
+
+        /**
+         * {@return the number of cached future results that are not done yet}
+         */
+        public long getInFlight() {
+            return inFlight;
+        }
+
+        /**
+         * {@return the statistics for each computation class, sorted by class name}
+         */
+        public List<Entry> getEntriesByClass() {
+            return entriesByClass;
+        }
+
+        /**
+         * {@return the statistics summed over all computation classes}
+         */
+        public Entry getTotal() {
+            return total;
+        }
+
+        /**
+         * Writes one line per computation class to the given CSV file.
+         * Sets the header fields if the CSV file does not have any yet.
+         *
+         * @param csvFile the CSV file
+         */
+        public void writeCSV(CSVFile csvFile) {
+            if (csvFile.getHeaderFields() == null) {
+                csvFile.setHeaderFields(
+                        "Timestamp",
+                        "Class",
+                        "Hits",
+                        "DiskHits",
+                        "Misses",
+                        "HitRatio",
+                        "Puts",
+                        "Evictions",
+                        "Computations",
+                        "TotalNanos",
+                        "P50Nanos",
+                        "P90Nanos",
+                        "P99Nanos",
+                        "MaximumNanos");
+            }
+            for (Entry entry : entriesByClass) {
+                CSVFile.writeCSV(csvFile, csv -> csv.add(timestamp)
+                        .add(entry.computationClass)
+                        .add(entry.hits)
+                        .add(entry.diskHits)
+                        .add(entry.misses)
+                        .add(entry.getHitRatio())
+                        .add(entry.puts)
+                        .add(entry.evictions)
+                        .add(entry.computations)
+                        .add(entry.totalNanos)
+                        .add(entry.p50Nanos)
+                        .add(entry.p90Nanos)
+                        .add(entry.p99Nanos)
+                        .add(entry.maximumNanos));
+            }
+        }
+
+        /**
+         * {@return a single-line summary of this snapshot, suitable for periodic logging}
+         */
+        @Override
+        public String toString() {
+            return String.format(
+                    "cache: %d entries, weight %d, %d in flight, %d hits, %d disk hits, %d misses (%.1f%% hit ratio), %d puts, %d evictions",
+                    entries,
+                    retainedWeight,
+                    inFlight,
+                    total.hits,
+                    total.diskHits,
+                    total.misses,
+                    100 * total.getHitRatio(),
+                    total.puts,
+                    total.evictions);
+        }
+    }
+
+    protected final Map<Class<?>, ClassStatistics> statistics = new ConcurrentHashMap<>();
+    protected final LongAdder inFlight = new LongAdder();
+
+    protected ClassStatistics get(IComputation<?> computation) {
+        Class<?> computationClass = computation.getClass();
+        ClassStatistics classStatistics = statistics.get(computationClass);
+        return classStatistics != null
+                ? classStatistics
+                : statistics.computeIfAbsent(computationClass, c -> new ClassStatistics());
+    }
+
+    /**
+     * Records a cache hit in memory for the given computation.
+     *
+     * @param computation the computation
+     */
+    public void recordHit(IComputation<?> computation) {
+        get(computation).hits.increment();
+    }
+
+    /**
+     * Records that the result for the given computation was missing in memory, but has been loaded from the disk cache.
+     *
+     * @param computation the computation
+     */
+    public void recordDiskHit(IComputation<?> computation) {
+        get(computation).diskHits.increment();
+    }
+
+    /**
+     * Records a cache miss for the given computation.
+     *
+     * @param computation the computation
+     */
+    public void recordMiss(IComputation<?> computation) {
+        get(computation).misses.increment();
+    }
+
+    /**
+     * Records that a result for the given computation has been written to the cache.
+     * Tracks the future result as in flight until it is done.
+     *
+     * @param computation  the computation
+     * @param futureResult the future result
+     */
+    public void recordPut(IComputation<?> computation, FutureResult<?> futureResult) {
+        get(computation).puts.increment();
+        if (!futureResult.getPromise().isDone()) {
+            inFlight.increment();
+            futureResult.getPromise().whenComplete((r, e) -> inFlight.decrement());
+        }
+    }
+
+    /**
+     * Records that the result for the given computation has been evicted from the cache.
+     *
+     * @param computation the computation
+     */
+    public void recordEviction(IComputation<?> computation) {
+        get(computation).evictions.increment();
+    }
+
+    /**
+     * Records the time spent computing a result for the given computation.
+     *
+     * @param computation the computation
+     * @param nanos       the elapsed time in nanoseconds
+     */
+    public void recordLatency(IComputation<?> computation, long nanos) {
+        get(computation).latency.record(nanos);
+    }
+
+    /**
+     * {@return the number of cached future results that are not done yet}
+     */
+    public long getInFlight() {
+        return inFlight.sum();
+    }
+
+    /**
+     * {@return a snapshot of the statistics recorded so far}
+     *
+     * @param entries        the number of cached computation results
+     * @param retainedWeight the estimated retained size of all cached results
+     */
+    public Snapshot snapshot(long entries, long retainedWeight) {
+        List<Entry> entriesByClass = new ArrayList<>(statistics.size());
+        ClassStatistics total = new ClassStatistics();
+        statistics.forEach((klass, classStatistics) -> {
+            Entry entry = new Entry(klass.getName(), classStatistics);
+            entriesByClass.add(entry);
+            total.hits.add(entry.hits);
+            total.diskHits.add(entry.diskHits);
+            total.misses.add(entry.misses);
+            total.puts.add(entry.puts);
+            total.evictions.add(entry.evictions);
+            total.latency.add(classStatistics.latency);
+        });
+        entriesByClass.sort(Comparator.comparing(Entry::getComputationClass));
+        return new Snapshot(entries, retainedWeight, getInFlight(), entriesByClass, new Entry("total", total));
+    }
+
+    /**
+     * Resets all statistics, except for the number of future results in flight.
+     */
+    public void clear() {
+        statistics.clear();
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-base.
+ *
+ * base is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * base is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with base. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-base> for further information.
+ */
+package de.featjar.base.computation;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Signals cooperative cancellation to all computations of an evaluation.
+ * Travels with the {@link Progress} of each computation (see {@link Progress#getCancellationToken()})
+ * and with the {@link ComputationContext} of the thread that runs a computation.
+ * In contrast to thread interruption, which executors may reset or swallow, a token stays cancelled once it is cancelled.
+ * A token can be cancelled explicitly, by a deadline, or by the cancellation of its parent token.
+ * Listeners are notified exactly once on cancellation, for example, to destroy external processes.
+ *
+ * @author Sebastian Krieter
+ */
+public class CancellationToken {
+
+    /**
+     * A token that is never cancelled.
+     */
+    public static final CancellationToken NONE = new CancellationToken() {
+        @Override
+        public void cancel() {}
+
+        @Override
+        public CancellationToken setDeadline(Duration duration) {
+            return this;
+        }
+
+        @Override
+        public void addListener(Runnable listener) {}
+    };
+
+    protected volatile CancellationToken parent;
+    protected final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+    protected final Runnable cancelWithParent = this::cancel;
+    protected volatile boolean cancelled;
+    protected volatile long deadline = Long.MAX_VALUE;
+
+    /**
+     * Creates a token that is only cancelled explicitly or by a deadline.
+     */
+    public CancellationToken() {
+        this(null);
+    }
+
+    /**
+     * Creates a token that is also cancelled when the given parent token is cancelled.
+     * Must be {@link #detach() detached} when it is not needed anymore, but its parent is.
+     *
+     * @param parent the parent token, if any
+     */
+    public CancellationToken(CancellationToken parent) {
+        this.parent = parent;
+        if (parent != null) {
+            parent.addListener(cancelWithParent);
+        }
+    }
+
+    /**
+     * Cancels this token and notifies all listeners.
+     * Does nothing if this token is already cancelled.
+     */
+    public void cancel() {
+        synchronized (this) {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+        }
+        for (Runnable listener : listeners) {
+            // removing claims the listener, so it is not run again by addListener
+            if (listeners.remove(listener)) {
+                listener.run();
+            }
+        }
+    }
+
+    /**
+     * Cancels this token when the given duration has passed.
+     * Keeps an earlier deadline.
+     *
+     * @param duration the duration
+     * @return this token
+     */
+    public CancellationToken setDeadline(Duration duration) {
+        long nanos = duration.toNanos();
+        long newDeadline = System.nanoTime() + nanos;
+        synchronized (this) {
+            if (deadline != Long.MAX_VALUE && deadline - newDeadline <= 0) {
+                return this;
+            }
+            deadline = newDeadline;
+        }
+        CompletableFuture.delayedExecutor(nanos, TimeUnit.NANOSECONDS).execute(this::cancel);
+        return this;
+    }
+
+    /**
+     * {@return the time remaining until the deadline of this token or any of its parents, if any}
+     */
+    public Duration getRemainingTime() {
+        CancellationToken parent = this.parent;
+        Duration remainingTime = parent != null ? parent.getRemainingTime() : null;
+        if (deadline != Long.MAX_VALUE) {
+            Duration ownRemainingTime = Duration.ofNanos(Math.max(0, deadline - System.nanoTime()));
+            if (remainingTime == null || ownRemainingTime.compareTo(remainingTime) < 0) {
+                remainingTime = ownRemainingTime;
+            }
+        }
+        return remainingTime;
+    }
+
+    /**
+     * {@return whether this token has been cancelled}
+     */
+    public boolean isCancelled() {
+        if (cancelled) {
+            return true;
+        }
+        CancellationToken parent = this.parent;
+        if ((deadline != Long.MAX_VALUE && System.nanoTime() - deadline >= 0)
+                || (parent != null && parent.isCancelled())) {
+            cancel();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Throws a {@link CancellationException} if this token has been cancelled.
+     */
+    public void check() {
+        if (isCancelled()) {
+            throw new CancellationException();
+        }
+    }
+
+    /**
+     * Registers a listener that is run once this token is cancelled.
+     * If this token is already cancelled, the listener is run immediately.
+     *
+     * @param listener the listener
+     */
+    public void addListener(Runnable listener) {
+        listeners.add(listener);
+        if (cancelled && listeners.remove(listener)) {
+            listener.run();
+        }
+    }
+
+    /**
+     * Removes a listener.
+     *
+     * @param listener the listener
+     */
+    public void removeListener(Runnable listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Stops this token from being cancelled by its parent.
+     */
+    public void detach() {
+        CancellationToken parent = this.parent;
+        if (parent != null) {
+            parent.removeListener(cancelWithParent);
+            this.parent = null;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-base.
+ *
+ * base is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * base is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with base. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-base> for further information.
+ */
+package de.featjar.base.computation;
+
+import de.featjar.base.data.Result;
+import de.featjar.base.env.StackTrace;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Describes the context in which a computation is scheduled, as seen by a {@link Cache.CachePolicy}.
+ * The nesting depth counts how many invocations of {@link IComputation#compute(List, Progress)}
+ * are currently running on this thread.
+ * It is maintained by the scheduler (i.e., {@link FutureResult} and {@link AComputation}),
+ * which calls {@link #compute(IComputation, List, Progress)} instead of invoking computations directly.
+ * Thus, checking whether a computation is nested in another computation takes constant time.
+ * The context also carries the {@link CancellationToken} of the running computation,
+ * so that nested evaluations and external processes started by the computation are cancelled along with it.
+ * For custom policies that need to inspect the call stack, {@link #containsMethodCall(Class, String)}
+ * walks the stack lazily and {@link #getStackTrace()} captures it on demand.
+ *
+ * @author Sebastian Krieter
+ */
+public class ComputationContext {
+    private static final ThreadLocal<int[]> NESTING_DEPTH = ThreadLocal.withInitial(() -> new int[1]);
+    private static final ThreadLocal<CancellationToken> CANCELLATION_TOKEN = new ThreadLocal<>();
+    private static final ThreadLocal<int[]> ATTEMPT = ThreadLocal.withInitial(() -> new int[1]);
+
+    /**
+     * {@return the context of the current thread}
+     */
+    public static ComputationContext current() {
+        return new ComputationContext(NESTING_DEPTH.get()[0], CANCELLATION_TOKEN.get());
+    }
+
+    /**
+     * {@return the cancellation token of the computation that is currently running on this thread}
+     * Is {@link CancellationToken#NONE} if no computation with a cancellation token is running.
+     */
+    public static CancellationToken currentCancellationToken() {
+        CancellationToken cancellationToken = CANCELLATION_TOKEN.get();
+        return cancellationToken != null ? cancellationToken : CancellationToken.NONE;
+    }
+
+    /**
+     * {@return the number of the attempt at the computation that is currently running on this thread}
+     * Is zero, unless the computation is hedged (see {@link HedgingPolicy}) and this is a second attempt.
+     * Randomized computations can derive a different seed from it.
+     */
+    public static int currentAttempt() {
+        return ATTEMPT.get()[0];
+    }
+
+    /**
+     * {@return the result of the given function, which runs the given attempt at a computation}
+     *
+     * @param attempt  the number of the attempt
+     * @param function the function
+     * @param <T>      the type of the computation result
+     */
+    static <T> Result<T> computeAttempt(int attempt, Supplier<Result<T>> function) {
+        int[] currentAttempt = ATTEMPT.get();
+        int outerAttempt = currentAttempt[0];
+        currentAttempt[0] = attempt;
+        try {
+            return function.get();
+        } finally {
+            currentAttempt[0] = outerAttempt;
+        }
+    }
+
+    /**
+     * {@return a new cancellation token that is cancelled along with the computation currently running on this thread}
+     * The token must be {@link CancellationToken#detach() detached} when it is not needed anymore.
+     */
+    public static CancellationToken newCancellationToken() {
+        CancellationToken cancellationToken = CANCELLATION_TOKEN.get();
+        return new CancellationToken(cancellationToken != CancellationToken.NONE ? cancellationToken : null);
+    }
+
+    /**
+     * {@return the result of the given computation for the given dependency list}
+     * Increases the nesting depth of the current thread while the computation is running.
+     * Fails with a {@link java.util.concurrent.CancellationException} if the progress has been cancelled.
+     *
+     * @param computation    the computation
+     * @param dependencyList the dependency list
+     * @param progress       the progress
+     * @param <T>            the type of the computation result
+     */
+    public static <T> Result<T> compute(IComputation<T> computation, List<Object> dependencyList, Progress progress) {
+        return compute(progress, () -> computation.compute(dependencyList, progress));
+    }
+
+    /**
+     * {@return the result of the given function, which runs (part of) a computation}
+     * Increases the nesting depth of the current thread while the function is running.
+     * Fails with a {@link java.util.concurrent.CancellationException} if the progress has been cancelled.
+     *
+     * @param progress the progress of the computation
+     * @param function the function
+     * @param <T>      the type of the computation result
+     */
+    public static <T> Result<T> compute(Progress progress, Supplier<Result<T>> function) {
+        CancellationToken cancellationToken = progress.getCancellationToken();
+        cancellationToken.check();
+        int[] nestingDepth = NESTING_DEPTH.get();
+        CancellationToken outerCancellationToken = CANCELLATION_TOKEN.get();
+        nestingDepth[0]++;
+        CANCELLATION_TOKEN.set(cancellationToken);
+        try {
+            return function.get();
+        } finally {
+            nestingDepth[0]--;
+            CANCELLATION_TOKEN.set(outerCancellationToken);
+        }
+    }
+
+    protected final int nestingDepth;
+    protected final CancellationToken cancellationToken;
+    private StackTrace stackTrace;
+
+    protected ComputationContext(int nestingDepth, CancellationToken cancellationToken) {
+        this.nestingDepth = nestingDepth;
+        this.cancellationToken = cancellationToken != null ? cancellationToken : CancellationToken.NONE;
+    }
+
+    /**
+     * {@return the number of computations that are currently running on this thread}
+     */
+    public int getNestingDepth() {
+        return nestingDepth;
+    }
+
+    /**
+     * {@return the cancellation token of the computation that is currently running on this thread}
+     */
+    public CancellationToken getCancellationToken() {
+        return cancellationToken;
+    }
+
+    /**
+     * {@return whether no computation is currently running on this thread}
+     */
+    public boolean isTopLevel() {
+        return nestingDepth == 0;
+    }
+
+    /**
+     * {@return whether the call stack of the current thread contains a call to a given method in a given class or any subclass}
+     * Walks the stack lazily, stopping at the first matching frame.
+     *
+     * @param klass      the class
+     * @param methodName the method name
+     */
+    public boolean containsMethodCall(Class<?> klass, String methodName) {
+        return StackTrace.isMethodCallOnStack(klass, methodName);
+    }
+
+    /**
+     * {@return the stack trace of the current thread}
+     * Is only captured when it is first requested, which is expensive.
+     */
+    public StackTrace getStackTrace() {
+        if (stackTrace == null) {
+            stackTrace = new StackTrace();
+        }
+        return stackTrace;
+    }
+}
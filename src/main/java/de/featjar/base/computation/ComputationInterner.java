@@ -0,0 +1,168 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-base.
+ *
+ * base is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * base is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with base. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-base> for further information.
+ */
+package de.featjar.base.computation;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interns computation trees, so that equal trees are represented by the same (canonical) instance.
+ * Each canonical computation has canonical children, so two interned trees are equal if and only if they are identical.
+ * Thus, equality checks and cache lookups (see {@link Cache}) on interned trees take constant time.
+ * Computations are looked up by their {@link Fingerprint}, and candidates are verified with
+ * {@link IComputation#equalsNode(IComputation)} and by identity of their (canonical) children.
+ * Interned computations must not be modified, as they may be shared among many trees.
+ * Canonical computations are retained until {@link #clear()} is called.
+ * Interning is opt-in: computations are not interned on construction or by the {@link Cache}.
+ *
+ * @author Sebastian Krieter
+ */
+public class ComputationInterner {
+    protected final Map<Fingerprint, List<IComputation<?>>> canonicalComputations = new ConcurrentHashMap<>();
+
+    /**
+     * {@return the canonical computation that is equal to the given computation}
+     * If the given computation or any of its descendants has not been interned yet, it becomes canonical.
+     * Computations whose children are replaced by canonical children are cloned, the given tree is not modified.
+     *
+     * @param computation the computation
+     * @param <T>         the type of the computation result
+     */
+    @SuppressWarnings("unchecked")
+    public <T> IComputation<T> intern(IComputation<T> computation) {
+        Map<IComputation<?>, IComputation<?>> internedComputations = new IdentityHashMap<>();
+        ArrayDeque<IComputation<?>> stack = new ArrayDeque<>();
+        stack.push(computation);
+        while (!stack.isEmpty()) {
+            IComputation<?> current = stack.peek();
+            if (internedComputations.containsKey(current)) {
+                stack.pop();
+                continue;
+            }
+            if (isCanonical(current)) {
+                // canonical computations only have canonical descendants, so they need not be traversed
+                stack.pop();
+                internedComputations.put(current, current);
+                continue;
+            }
+            boolean childrenInterned = true;
+            for (IComputation<?> child : current.getChildren()) {
+                if (!internedComputations.containsKey(child)) {
+                    stack.push(child);
+                    childrenInterned = false;
+                }
+            }
+            if (childrenInterned) {
+                stack.pop();
+                internedComputations.put(current, internNode(current, internedComputations));
+            }
+        }
+        return (IComputation<T>) internedComputations.get(computation);
+    }
+
+    private IComputation<?> internNode(
+            IComputation<?> computation, Map<IComputation<?>, IComputation<?>> internedComputations) {
+        List<? extends IComputation<?>> children = computation.getChildren();
+        List<IComputation<?>> canonicalChildren = new ArrayList<>(children.size());
+        boolean hasCanonicalChildren = true;
+        for (IComputation<?> child : children) {
+            IComputation<?> canonicalChild = internedComputations.get(child);
+            canonicalChildren.add(canonicalChild);
+            hasCanonicalChildren &= canonicalChild == child;
+        }
+        IComputation<?> candidate = computation;
+        if (!hasCanonicalChildren) {
+            candidate = (IComputation<?>) computation.cloneNode();
+            candidate.setChildren(canonicalChildren);
+        }
+        IComputation<?> newCanonicalComputation = candidate;
+        List<IComputation<?>> computations =
+                canonicalComputations.computeIfAbsent(candidate.getFingerprint(), f -> new ArrayList<>(1));
+        synchronized (computations) {
+            for (IComputation<?> canonicalComputation : computations) {
+                if (isEqualNode(canonicalComputation, newCanonicalComputation)) {
+                    return canonicalComputation;
+                }
+            }
+            computations.add(newCanonicalComputation);
+        }
+        return newCanonicalComputation;
+    }
+
+    private static boolean isEqualNode(IComputation<?> computation1, IComputation<?> computation2) {
+        if (computation1 == computation2) {
+            return true;
+        }
+        if (computation1.getClass() != computation2.getClass() || !computation1.equalsNode(computation2)) {
+            return false;
+        }
+        List<? extends IComputation<?>> children1 = computation1.getChildren();
+        List<? extends IComputation<?>> children2 = computation2.getChildren();
+        if (children1.size() != children2.size()) {
+            return false;
+        }
+        for (int i = 0; i < children1.size(); i++) {
+            if (children1.get(i) != children2.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * {@return whether the given computation is canonical in this interner}
+     *
+     * @param computation the computation
+     */
+    public boolean isCanonical(IComputation<?> computation) {
+        List<IComputation<?>> computations = canonicalComputations.get(computation.getFingerprint());
+        if (computations == null) {
+            return false;
+        }
+        synchronized (computations) {
+            for (IComputation<?> canonicalComputation : computations) {
+                if (canonicalComputation == computation) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * {@return the number of canonical computations in this interner}
+     */
+    public int size() {
+        return canonicalComputations.values().stream().mapToInt(List::size).sum();
+    }
+
+    /**
+     * Removes all canonical computations from this interner.
+     * Computations interned afterwards are not identical to computations interned before.
+     */
+    public void clear() {
+        canonicalComputations.clear();
+    }
+}
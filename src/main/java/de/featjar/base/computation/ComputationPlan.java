@@ -0,0 +1,179 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-base.
+ *
+ * base is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * base is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with base. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-base> for further information.
+ */
+package de.featjar.base.computation;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A plan for evaluating one or more computation trees, in which identical subtrees are shared.
+ * Hash-conses the given trees into a directed acyclic graph:
+ * Computations that are equal according to {@link IComputation#equalsTree(de.featjar.base.tree.structure.ITree)}
+ * and {@link IComputation#hashCodeTree()} are represented by a single node.
+ * Thus, a scheduler that evaluates each node of the plan once evaluates each distinct subcomputation once,
+ * regardless of how often it occurs in the trees and of the {@link Cache.CachePolicy}.
+ * Nodes are indexed in topological order; that is, every node has a larger index than its dependencies.
+ *
+ * @author Sebastian Krieter
+ */
+public class ComputationPlan {
+
+    /**
+     * {@return a plan for evaluating the given computation}
+     *
+     * @param computation the computation
+     */
+    public static ComputationPlan of(IComputation<?> computation) {
+        return of(List.of(computation));
+    }
+
+    /**
+     * {@return a plan for evaluating the given computations, sharing identical subcomputations among them}
+     *
+     * @param computations the computations
+     */
+    public static ComputationPlan of(List<? extends IComputation<?>> computations) {
+        ComputationPlan plan = new ComputationPlan(computations.size());
+        for (int i = 0; i < computations.size(); i++) {
+            plan.rootIndices[i] = plan.add(computations.get(i));
+        }
+        return plan;
+    }
+
+    private static class StackEntry {
+        private final IComputation<?> computation;
+        private final int[] dependencyIndices;
+        private int nextChild;
+
+        private StackEntry(IComputation<?> computation) {
+            this.computation = computation;
+            this.dependencyIndices = new int[computation.getChildrenCount()];
+        }
+    }
+
+    protected final Map<IComputation<?>, Integer> indices = new HashMap<>();
+    protected final List<IComputation<?>> computations = new ArrayList<>();
+    protected final List<int[]> dependencyIndices = new ArrayList<>();
+    protected final int[] rootIndices;
+
+    protected ComputationPlan(int numberOfRoots) {
+        rootIndices = new int[numberOfRoots];
+    }
+
+    private int add(IComputation<?> root) {
+        Integer rootIndex = indices.get(root);
+        if (rootIndex != null) {
+            return rootIndex;
+        }
+        ArrayDeque<StackEntry> stack = new ArrayDeque<>();
+        stack.push(new StackEntry(root));
+        int index = -1;
+        while (!stack.isEmpty()) {
+            StackEntry entry = stack.peek();
+            List<? extends IComputation<?>> children = entry.computation.getChildren();
+            if (entry.nextChild < children.size()) {
+                IComputation<?> child = children.get(entry.nextChild);
+                Integer childIndex = indices.get(child);
+                if (childIndex != null) {
+                    entry.dependencyIndices[entry.nextChild++] = childIndex;
+                } else {
+                    stack.push(new StackEntry(child));
+                }
+            } else {
+                stack.pop();
+                index = computations.size();
+                indices.put(entry.computation, index);
+                computations.add(entry.computation);
+                dependencyIndices.add(entry.dependencyIndices);
+                StackEntry parent = stack.peek();
+                if (parent != null) {
+                    parent.dependencyIndices[parent.nextChild++] = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * {@return the number of distinct computations in this plan}
+     */
+    public int size() {
+        return computations.size();
+    }
+
+    /**
+     * {@return the distinct computation with the given index}
+     *
+     * @param index the index
+     */
+    public IComputation<?> getComputation(int index) {
+        return computations.get(index);
+    }
+
+    /**
+     * {@return the indices of the dependencies of the computation with the given index, in order of its children}
+     *
+     * @param index the index
+     */
+    public int[] getDependencyIndices(int index) {
+        return Arrays.copyOf(dependencyIndices.get(index), dependencyIndices.get(index).length);
+    }
+
+    /**
+     * {@return the index of the given computation in this plan, or -1 if it is not part of this plan}
+     *
+     * @param computation the computation
+     */
+    public int indexOf(IComputation<?> computation) {
+        Integer index = indices.get(computation);
+        return index != null ? index : -1;
+    }
+
+    /**
+     * {@return the estimated cost of the most expensive path from each computation to any root computation}
+     * The cost of a path is the sum of the estimated costs (see {@link IComputation#getCost()}) of its computations,
+     * including the computation itself.
+     * Computations with a high critical path cost should be run first to finish the root computations early.
+     */
+    public long[] getCriticalPathCosts() {
+        long[] criticalPathCosts = new long[computations.size()];
+        for (int i = criticalPathCosts.length - 1; i >= 0; i--) {
+            // all dependents of a computation have a larger index, so its cost is final here
+            criticalPathCosts[i] += Math.max(0, computations.get(i).getCost());
+            for (int dependencyIndex : dependencyIndices.get(i)) {
+                criticalPathCosts[dependencyIndex] =
+                        Math.max(criticalPathCosts[dependencyIndex], criticalPathCosts[i]);
+            }
+        }
+        return criticalPathCosts;
+    }
+
+    /**
+     * {@return the indices of the computations this plan has been created for, in the given order}
+     */
+    public int[] getRootIndices() {
+        return Arrays.copyOf(rootIndices, rootIndices.length);
+    }
+}
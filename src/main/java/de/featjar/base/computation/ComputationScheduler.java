@@ -0,0 +1,245 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-base.
+ *
+ * base is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * base is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with base. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-base> for further information.
+ */
+package de.featjar.base.computation;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Schedules computations by priority and estimated cost before handing them to an executor.
+ * At most a given number of computations are handed to executors at the same time; all others wait in a queue.
+ * Each independently submitted root computation is evaluated in its own {@link Session}.
+ * When an executor becomes available, the scheduler picks the queued computation with the highest priority
+ * (see {@link IComputation#getPriority()}).
+ * Among sessions with equally prioritized computations, it picks the session that has been served the least
+ * estimated cost so far (see {@link IComputation#getCost()}), so that sessions share the executors fairly.
+ * Inside a session, it picks the computation with the most expensive path to the root computation first,
+ * so that the critical path of the computation tree is not delayed by other computations.
+ *
+ * @author Sebastian Krieter
+ */
+public class ComputationScheduler {
+
+    /**
+     * A computation that is waiting to be handed to an executor.
+     */
+    private static class Task {
+        private final Runnable runnable;
+        private final Executor executor;
+        private final int priority;
+        private final long cost;
+        private final long criticalPathCost;
+        private final long sequenceNumber;
+
+        private Task(
+                Runnable runnable,
+                Executor executor,
+                int priority,
+                long cost,
+                long criticalPathCost,
+                long sequenceNumber) {
+            this.runnable = runnable;
+            this.executor = executor;
+            this.priority = priority;
+            this.cost = cost;
+            this.criticalPathCost = criticalPathCost;
+            this.sequenceNumber = sequenceNumber;
+        }
+    }
+
+    private static final Comparator<Task> TASK_ORDER = Comparator.<Task>comparingInt(task -> -task.priority)
+            .thenComparingLong(task -> -task.criticalPathCost)
+            .thenComparingLong(task -> task.sequenceNumber);
+
+    /**
+     * The evaluation of a root computation, which competes fairly with other sessions for executors.
+     */
+    public class Session {
+        protected final int priority;
+        protected final PriorityQueue<Task> tasks = new PriorityQueue<>(TASK_ORDER);
+        protected long servedCost;
+
+        protected Session(int priority) {
+            this.priority = priority;
+        }
+
+        /**
+         * {@return the priority of this session}
+         * Computations in this session are scheduled with at least this priority.
+         */
+        public int getPriority() {
+            return priority;
+        }
+
+        /**
+         * {@return an executor that schedules the given computation in this session}
+         *
+         * @param computation      the computation
+         * @param criticalPathCost the estimated cost of the most expensive path from the computation to the root computation
+         * @param executor         the executor to eventually run the computation on
+         */
+        public Executor getExecutor(IComputation<?> computation, long criticalPathCost, Executor executor) {
+            int taskPriority = Math.max(priority, computation.getPriority());
+            long cost = Math.max(0, computation.getCost());
+            return runnable -> submit(this, runnable, executor, taskPriority, cost, criticalPathCost);
+        }
+    }
+
+    protected final int parallelism;
+    protected final ReentrantLock lock = new ReentrantLock();
+    protected final List<Session> activeSessions = new ArrayList<>();
+    protected long sequenceNumber;
+    protected long servedCost;
+    protected int running;
+
+    /**
+     * Creates a scheduler.
+     *
+     * @param parallelism the maximum number of computations that are handed to executors at the same time
+     */
+    public ComputationScheduler(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException(String.valueOf(parallelism));
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Creates a scheduler that hands one computation per available processor to executors at the same time.
+     */
+    public ComputationScheduler() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * {@return the maximum number of computations that are handed to executors at the same time}
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * {@return a new session for evaluating a root computation with the given priority}
+     *
+     * @param priority the priority
+     */
+    public Session openSession(int priority) {
+        return new Session(priority);
+    }
+
+    /**
+     * {@return the number of computations that wait to be handed to an executor}
+     */
+    public int getQueueSize() {
+        lock.lock();
+        try {
+            int queueSize = 0;
+            for (Session session : activeSessions) {
+                queueSize += session.tasks.size();
+            }
+            return queueSize;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void submit(
+            Session session, Runnable runnable, Executor executor, int priority, long cost, long criticalPathCost) {
+        lock.lock();
+        try {
+            if (session.tasks.isEmpty()) {
+                // a session that has been idle does not get credit for the time it has not been served
+                session.servedCost = Math.max(session.servedCost, servedCost);
+                activeSessions.add(session);
+            }
+            session.tasks.add(new Task(runnable, executor, priority, cost, criticalPathCost, sequenceNumber++));
+        } finally {
+            lock.unlock();
+        }
+        dispatch();
+    }
+
+    private void dispatch() {
+        while (true) {
+            Task task;
+            lock.lock();
+            try {
+                if (running >= parallelism || activeSessions.isEmpty()) {
+                    return;
+                }
+                Session session = poll();
+                task = session.tasks.poll();
+                if (session.tasks.isEmpty()) {
+                    activeSessions.remove(session);
+                }
+                session.servedCost += task.cost;
+                servedCost = session.servedCost;
+                running++;
+            } finally {
+                lock.unlock();
+            }
+            try {
+                task.executor.execute(() -> {
+                    try {
+                        task.runnable.run();
+                    } finally {
+                        release();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                release();
+                throw e;
+            }
+        }
+    }
+
+    private Session poll() {
+        Session selectedSession = null;
+        for (Session session : activeSessions) {
+            if (selectedSession == null) {
+                selectedSession = session;
+            } else {
+                int priority = session.tasks.peek().priority;
+                int selectedPriority = selectedSession.tasks.peek().priority;
+                if (priority > selectedPriority
+                        || (priority == selectedPriority && session.servedCost < selectedSession.servedCost)) {
+                    selectedSession = session;
+                }
+            }
+        }
+        return selectedSession;
+    }
+
+    private void release() {
+        lock.lock();
+        try {
+            running--;
+        } finally {
+            lock.unlock();
+        }
+        dispatch();
+    }
+}
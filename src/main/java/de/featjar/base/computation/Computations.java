@@ -208,6 +208,30 @@ public class Computations {
         return tComputation.computeFutureResult();
     }
 
+    /**
+     * {@return a batch evaluation of the given independent computations, which shares their common subcomputations}
+     * Keeps all processors busy, but schedules only as many computations at once as there are processors.
+     *
+     * @param computations the computations
+     * @param <T> the type of the computation results
+     * @see BatchEvaluation
+     */
+    public static <T> BatchEvaluation<T> computeAll(List<? extends IComputation<T>> computations) {
+        return new BatchEvaluation<>(computations);
+    }
+
+    /**
+     * {@return a batch evaluation of the given independent computations, which shares their common subcomputations}
+     *
+     * @param computations the computations
+     * @param maxConcurrency the maximum number of computations in flight
+     * @param <T> the type of the computation results
+     * @see BatchEvaluation
+     */
+    public static <T> BatchEvaluation<T> computeAll(List<? extends IComputation<T>> computations, int maxConcurrency) {
+        return new BatchEvaluation<>(computations, maxConcurrency);
+    }
+
     /**
      * {@return the given object, unchanged}
      * Useful to allow transparently switching between (a-)synchronous computation modes.
@@ -40,6 +40,11 @@ public class ComputeAllOf extends AComputation<List<?>> {
         return Result.of(dependencyList);
     }
 
+    @Override
+    public boolean isLightweight() {
+        return true;
+    }
+
     @Override
     public ITree<IComputation<?>> cloneNode() {
         return new ComputeAllOf();
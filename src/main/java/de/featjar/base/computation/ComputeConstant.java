@@ -23,6 +23,10 @@ package de.featjar.base.computation;
 import de.featjar.base.data.Result;
 import de.featjar.base.tree.structure.ALeafNode;
 import de.featjar.base.tree.structure.ITree;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
 import java.util.List;
 import java.util.Objects;
 import java.util.function.Supplier;
@@ -53,6 +57,11 @@ public class ComputeConstant<T> extends ALeafNode<IComputation<?>> implements IC
         return Result.of(value);
     }
 
+    @Override
+    public boolean isLightweight() {
+        return true;
+    }
+
     @Override
     public boolean equalsNode(IComputation<?> other) {
         return getClass() == other.getClass() && Objects.equals(value, ((ComputeConstant<?>) other).value);
@@ -63,6 +72,24 @@ public class ComputeConstant<T> extends ALeafNode<IComputation<?>> implements IC
         return Objects.hash(getClass(), value);
     }
 
+    /**
+     * {@inheritDoc}
+     * Serializes the constant value with Java serialization, which requires the value to be {@link Serializable}.
+     */
+    @Override
+    public Result<byte[]> serializeNode() {
+        if (!(value instanceof Serializable)) {
+            return Result.empty();
+        }
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(byteArrayOutputStream)) {
+            out.writeObject(value);
+        } catch (IOException e) {
+            return Result.empty(e);
+        }
+        return Result.of(byteArrayOutputStream.toByteArray());
+    }
+
     @Override
     public ITree<IComputation<?>> cloneNode() {
         return new ComputeConstant<>(value);
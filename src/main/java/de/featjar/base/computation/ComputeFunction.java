@@ -35,7 +35,7 @@ import java.util.function.Function;
  * @author Elias Kuiter
  */
 public class ComputeFunction<T, U> extends AComputation<U> {
-    protected static final Dependency<?> INPUT = Dependency.newDependency();
+    protected static final Dependency<?> INPUT = Dependency.newDependency(ComputeFunction.class, Object.class);
     protected final Class<?> klass;
     protected final String scope;
     protected final Function<T, Result<U>> function;
@@ -80,6 +80,17 @@ public class ComputeFunction<T, U> extends AComputation<U> {
         return Objects.hash(super.hashCodeNode(), klass, scope);
     }
 
+    /**
+     * {@inheritDoc}
+     * Consists of the identifier only, as the function itself cannot be serialized.
+     * Thus, results persisted in a {@link DiskCache} are only invalidated when the identifier changes;
+     * when the function is modified, the identifier should be changed as well (e.g., by adding a version to the scope).
+     */
+    @Override
+    public Result<byte[]> serializeNode() {
+        return serializeParameters(klass.getName(), scope);
+    }
+
     @Override
     public String toString() {
         return String.format("%s(%s, %s)", super.toString(), klass.getSimpleName(), scope);
@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-base.
+ *
+ * base is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * base is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with base. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-base> for further information.
+ */
+package de.featjar.base.computation;
+
+import de.featjar.base.data.Result;
+import de.featjar.base.data.Void;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * A streaming computation that maps each result element of another computation.
+ * If the other computation is a streaming computation, each element is mapped as soon as it is emitted.
+ * As functions cannot be reliably checked for equality or hashed, an identifier must be explicitly passed.
+ * The caller must guarantee that this identifier is unique.
+ *
+ * @param <E> the type of the mapped elements
+ * @param <F> the type of the result elements
+ * @author Sebastian Krieter
+ * @see ComputeFunction
+ */
+public class ComputeMappedElements<E, F> extends AStreamingComputation<F> {
+    protected static final Dependency<?> INPUT = Dependency.newDependency(ComputeMappedElements.class, Object.class);
+    protected final Class<?> klass;
+    protected final String scope;
+    protected final Function<E, F> function;
+
+    /**
+     * Creates a computation that maps elements.
+     *
+     * @param input    the input computation
+     * @param klass    the calling class
+     * @param scope    the calling scope
+     * @param function the mapper function
+     */
+    public ComputeMappedElements(
+            IComputation<? extends List<E>> input, Class<?> klass, String scope, Function<E, F> function) {
+        super(input);
+        this.klass = klass;
+        this.scope = scope;
+        this.function = function;
+    }
+
+    protected ComputeMappedElements(ComputeMappedElements<E, F> other) {
+        super(other);
+        this.klass = other.klass;
+        this.scope = other.scope;
+        this.function = other.function;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    protected Result<Void> compute(List<Object> dependencyList, Progress progress, Consumer<? super F> emitter) {
+        for (E element : (List<E>) INPUT.getValue(dependencyList)) {
+            map(element, progress, emitter);
+        }
+        return Result.ofVoid();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    protected Result<?> produce(Progress progress, Consumer<? super F> emitter) {
+        IComputation<?> input = getChildren().get(INPUT.getIndex());
+        if (!(input instanceof AStreamingComputation)) {
+            return super.produce(progress, emitter);
+        }
+        return ComputationContext.compute(progress, () -> {
+            try (Stream<E> elements = ((AStreamingComputation<E>) input).streamElements()) {
+                elements.forEach(element -> map(element, progress, emitter));
+            }
+            return Result.ofVoid();
+        });
+    }
+
+    private void map(E element, Progress progress, Consumer<? super F> emitter) {
+        progress.checkCancel();
+        F mappedElement = function.apply(element);
+        if (mappedElement != null) {
+            emitter.accept(mappedElement);
+        }
+    }
+
+    @Override
+    public boolean equalsNode(IComputation<?> other) {
+        return super.equalsNode(other)
+                && Objects.equals(klass, ((ComputeMappedElements<?, ?>) other).klass)
+                && Objects.equals(scope, ((ComputeMappedElements<?, ?>) other).scope);
+    }
+
+    @Override
+    public int hashCodeNode() {
+        return Objects.hash(super.hashCodeNode(), klass, scope);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Consists of the identifier only, as the function itself cannot be serialized.
+     * Thus, results persisted in a {@link DiskCache} are only invalidated when the identifier changes;
+     * when the function is modified, the identifier should be changed as well (e.g., by adding a version to the scope).
+     */
+    @Override
+    public Result<byte[]> serializeNode() {
+        return serializeParameters(klass.getName(), scope);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s(%s, %s)", super.toString(), klass.getSimpleName(), scope);
+    }
+}
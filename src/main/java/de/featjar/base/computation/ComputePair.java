@@ -31,8 +31,8 @@ import java.util.List;
  * @author Elias Kuiter
  */
 public class ComputePair<T, U> extends AComputation<Pair<T, U>> {
-    protected static final Dependency<?> KEY_COMPUTATION = Dependency.newDependency();
-    protected static final Dependency<?> VALUE_COMPUTATION = Dependency.newDependency();
+    protected static final Dependency<?> KEY_COMPUTATION = Dependency.newDependency(ComputePair.class, Object.class);
+    protected static final Dependency<?> VALUE_COMPUTATION = Dependency.newDependency(ComputePair.class, Object.class);
 
     public ComputePair(IComputation<T> key, IComputation<U> value) {
         super(key, value);
@@ -68,4 +68,9 @@ public class ComputePair<T, U> extends AComputation<Pair<T, U>> {
         return Result.of(new Pair<>(
                 (T) KEY_COMPUTATION.getValue(dependencyList), (U) VALUE_COMPUTATION.getValue(dependencyList)));
     }
+
+    @Override
+    public boolean isLightweight() {
+        return true;
+    }
 }
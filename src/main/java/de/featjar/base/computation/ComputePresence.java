@@ -31,7 +31,7 @@ import java.util.List;
  * @author Elias Kuiter
  */
 public class ComputePresence<T> extends AComputation<Boolean> {
-    protected static final Dependency<?> INPUT = Dependency.newDependency();
+    protected static final Dependency<?> INPUT = Dependency.newDependency(ComputePresence.class, Object.class);
 
     public ComputePresence(IComputation<T> input) {
         super(input);
@@ -50,4 +50,9 @@ public class ComputePresence<T> extends AComputation<Boolean> {
     public Result<Boolean> compute(List<Object> dependencyList, Progress progress) {
         return Result.of(INPUT.getValue(dependencyList) != null);
     }
+
+    @Override
+    public boolean isLightweight() {
+        return true;
+    }
 }
@@ -78,6 +78,17 @@ public class ComputeSupplier<T> extends AComputation<T> {
         return Objects.hash(super.hashCodeNode(), klass, scope);
     }
 
+    /**
+     * {@inheritDoc}
+     * Consists of the identifier only, as the supplier itself cannot be serialized.
+     * Thus, results persisted in a {@link DiskCache} are only invalidated when the identifier changes;
+     * when the supplier is modified, the identifier should be changed as well (e.g., by adding a version to the scope).
+     */
+    @Override
+    public Result<byte[]> serializeNode() {
+        return serializeParameters(klass.getName(), scope);
+    }
+
     @Override
     public String toString() {
         return String.format("%s(%s, %s)", super.toString(), klass.getSimpleName(), scope);
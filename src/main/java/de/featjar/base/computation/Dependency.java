@@ -20,10 +20,10 @@
  */
 package de.featjar.base.computation;
 
-import de.featjar.base.FeatJAR;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * A dependency of a computation. Describes the dependency without storing its
@@ -35,26 +35,52 @@ import java.util.Map;
  */
 public class Dependency<U> {
 
-    private static Map<Class<?>, Integer> map = new LinkedHashMap<>();
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
 
+    private static Map<Class<?>, AtomicInteger> map = new ConcurrentHashMap<>();
+
+    /**
+     * {@return a new untyped dependency of the calling computation class}
+     * Determines the calling class from the call stack.
+     * Prefer {@link #newDependency(Class, Class)}, which avoids walking the stack.
+     */
     public static Dependency<Object> newDependency() {
         return addDependency(getCallingClass(), Object.class);
     }
 
+    /**
+     * {@return a new dependency of the calling computation class}
+     * Determines the calling class from the call stack.
+     * Prefer {@link #newDependency(Class, Class)}, which avoids walking the stack.
+     *
+     * @param type the type of the dependency's computation result
+     * @param <U>  the type of the dependency's computation result
+     */
     public static <U> Dependency<U> newDependency(Class<U> type) {
         return addDependency(getCallingClass(), type);
     }
 
+    /**
+     * {@return a new dependency of the given computation class}
+     * Should be called in the static initializer of the given class, once for each of its dependencies.
+     * The dependency's index follows the dependencies declared by the given class so far and by its superclasses.
+     *
+     * @param computationClass the computation class that declares the dependency
+     * @param type             the type of the dependency's computation result
+     * @param <U>              the type of the dependency's computation result
+     */
+    public static <U> Dependency<U> newDependency(Class<?> computationClass, Class<U> type) {
+        assert isComputation(computationClass);
+        return addDependency(computationClass, type);
+    }
+
     private static Class<?> getCallingClass() {
-        try {
-            Class<?> callingClass =
-                    Class.forName(Thread.currentThread().getStackTrace()[3].getClassName());
-            assert isComputation(callingClass);
-            return callingClass;
-        } catch (ClassNotFoundException e) {
-            FeatJAR.log().error(e);
-            throw new RuntimeException(e);
-        }
+        Class<?> callingClass = STACK_WALKER.walk(frames -> frames.skip(2)
+                .findFirst()
+                .<Class<?>>map(StackWalker.StackFrame::getDeclaringClass)
+                .orElseThrow());
+        assert isComputation(callingClass);
+        return callingClass;
     }
 
     private static boolean isComputation(Class<?> callingClass) {
@@ -68,9 +94,7 @@ public class Dependency<U> {
     }
 
     private static <U> Dependency<U> addDependency(Class<?> clazz, Class<U> type) {
-        final int count = computeDependencyCount(clazz);
-        map.put(clazz, count + 1);
-        return new Dependency<>(type, count);
+        return new Dependency<>(type, getDependencyCount(clazz).getAndIncrement());
     }
 
     public static void deleteAllDependencies() {
@@ -78,16 +102,28 @@ public class Dependency<U> {
         map = null;
     }
 
+    /**
+     * {@return the number of dependencies declared by the given computation class and its superclasses so far}
+     * Can safely be called by different threads.
+     *
+     * @param clazz the computation class
+     */
     public static int computeDependencyCount(Class<?> clazz) {
-        final Integer integer = map.get(clazz);
-        if (integer != null) {
-            return integer;
-        } else {
+        return getDependencyCount(clazz).get();
+    }
+
+    private static AtomicInteger getDependencyCount(Class<?> clazz) {
+        AtomicInteger count = map.get(clazz);
+        if (count == null) {
             final Class<?> p = clazz.getSuperclass();
             final int curIndex = (p == null) ? 0 : computeDependencyCount(p);
-            map.put(clazz, curIndex);
-            return curIndex;
+            AtomicInteger newCount = new AtomicInteger(curIndex);
+            count = map.putIfAbsent(clazz, newCount);
+            if (count == null) {
+                count = newCount;
+            }
         }
+        return count;
     }
 
     private final Class<U> type;
@@ -0,0 +1,295 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-base.
+ *
+ * base is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * base is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with base. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-base> for further information.
+ */
+package de.featjar.base.computation;
+
+import de.featjar.base.FeatJAR;
+import de.featjar.base.data.Pair;
+import de.featjar.base.data.Result;
+import de.featjar.base.io.IO;
+import de.featjar.base.io.binary.ComputationResultFormat;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputFilter;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Persists computation results in a directory, so they survive restarts of the JVM.
+ * Serves as a second-level cache behind a {@link Cache}.
+ * Each result is stored in its own file, which is named after the digest of the computation
+ * (see {@link IComputation#getDigest()}), so looking up a computation only serializes its entire tree
+ * (see {@link IComputation#serialize()}) if a file for it exists.
+ * The serialized computation is stored along with the result and compared on lookup,
+ * which detects digest collisions and files that have been overwritten for another computation.
+ * Only results of serializable computations with {@link Serializable} values are persisted.
+ * Results are deserialized with the {@link ObjectInputFilter} of a {@link ComputationResultFormat},
+ * which should only admit the expected result types.
+ * The stored files are indexed in memory, so a lookup only accesses the disk if a file for the computation exists.
+ * Thus, files added to the directory by other processes after this disk cache has been created are ignored.
+ * When the directory exceeds its maximum size, the least recently used files are deleted.
+ *
+ * @author Sebastian Krieter
+ */
+public class DiskCache {
+    private static final String EXTENSION = "." + new ComputationResultFormat().getFileExtension();
+
+    protected final Path directory;
+    protected final long maximumBytes;
+    protected final ComputationResultFormat format;
+    protected final Map<Path, Long> fileSizes = new ConcurrentHashMap<>();
+    protected final AtomicLong bytes = new AtomicLong();
+
+    /**
+     * Creates a disk cache that deserializes the classes admitted by {@link ComputationResultFormat#DEFAULT_FILTER}.
+     *
+     * @param directory    the directory to store results in, created if necessary
+     * @param maximumBytes the maximum size of all stored results in bytes
+     * @throws IOException if the directory cannot be created or read
+     */
+    public DiskCache(Path directory, long maximumBytes) throws IOException {
+        this(directory, maximumBytes, ComputationResultFormat.DEFAULT_FILTER);
+    }
+
+    /**
+     * Creates a disk cache.
+     *
+     * @param directory    the directory to store results in, created if necessary
+     * @param maximumBytes the maximum size of all stored results in bytes
+     * @param filter       admits the classes that may be deserialized, which should only be the expected result types
+     * @throws IOException if the directory cannot be created or read
+     */
+    public DiskCache(Path directory, long maximumBytes, ObjectInputFilter filter) throws IOException {
+        if (maximumBytes < 0) {
+            throw new IllegalArgumentException(String.valueOf(maximumBytes));
+        }
+        this.directory = Files.createDirectories(directory);
+        this.maximumBytes = maximumBytes;
+        this.format = new ComputationResultFormat(filter);
+        try (Stream<Path> files = listFiles()) {
+            files.forEach(file -> {
+                long size = size(file);
+                fileSizes.put(file, size);
+                bytes.addAndGet(size);
+            });
+        }
+    }
+
+    /**
+     * {@return the directory this disk cache stores results in}
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * {@return the maximum size of all stored results in bytes}
+     */
+    public long getMaximumBytes() {
+        return maximumBytes;
+    }
+
+    /**
+     * {@return the current size of all stored results in bytes}
+     */
+    public long getBytes() {
+        return bytes.get();
+    }
+
+    /**
+     * {@return the stored result of the given computation, if any}
+     * Only reads from disk if a file for the computation exists.
+     * Returns an empty result if the file has been stored for a different computation with the same digest.
+     *
+     * @param computation the computation
+     * @param <T>         the type of the computation result
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Result<T> load(IComputation<T> computation) {
+        Result<byte[]> key = computation.getDigest();
+        if (key.isEmpty()) {
+            return Result.empty();
+        }
+        Path file = getFile(key.get());
+        if (!fileSizes.containsKey(file)) {
+            return Result.empty();
+        }
+        Result<Pair<byte[], Serializable>> entry;
+        try (InputStream in = Files.newInputStream(file)) {
+            entry = IO.load(in, format);
+        } catch (NoSuchFileException e) {
+            forget(file);
+            return Result.empty();
+        } catch (IOException e) {
+            FeatJAR.log().warning(e);
+            return Result.empty(e);
+        }
+        if (entry.isEmpty()) {
+            return Result.empty();
+        }
+        Result<byte[]> serializedComputation = computation.serialize();
+        if (serializedComputation.isEmpty() || !Arrays.equals(entry.get().getKey(), serializedComputation.get())) {
+            return Result.empty();
+        }
+        try {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            FeatJAR.log().warning(e);
+        }
+        return Result.of((T) entry.get().getValue());
+    }
+
+    /**
+     * Stores the given result of the given computation, if both can be serialized.
+     * Evicts the least recently used results if the maximum size is exceeded.
+     *
+     * @param computation the computation
+     * @param value       the computation result
+     * @param <T>         the type of the computation result
+     * @return whether the result has been stored
+     */
+    public <T> boolean store(IComputation<T> computation, T value) {
+        if (!(value instanceof Serializable)) {
+            return false;
+        }
+        Result<byte[]> key = computation.getDigest();
+        if (key.isEmpty()) {
+            return false;
+        }
+        Result<byte[]> serializedComputation = computation.serialize();
+        if (serializedComputation.isEmpty()) {
+            return false;
+        }
+        Path file = getFile(key.get());
+        try {
+            Path temporaryFile = Files.createTempFile(directory, "store", ".tmp");
+            try (OutputStream out = Files.newOutputStream(temporaryFile)) {
+                IO.save(new Pair<>(serializedComputation.get(), (Serializable) value), out, format);
+            }
+            long newSize = size(temporaryFile);
+            Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Long oldSize = fileSizes.put(file, newSize);
+            if (bytes.addAndGet(newSize - (oldSize != null ? oldSize : 0)) > maximumBytes) {
+                evict();
+            }
+            return true;
+        } catch (IOException e) {
+            FeatJAR.log().warning(e);
+            return false;
+        }
+    }
+
+    /**
+     * Removes the stored result of the given computation, if any.
+     *
+     * @param computation the computation
+     */
+    public void remove(IComputation<?> computation) {
+        computation.getDigest().ifPresent(key -> delete(getFile(key)));
+    }
+
+    /**
+     * Removes all stored results.
+     */
+    public void clear() {
+        try (Stream<Path> files = listFiles()) {
+            files.forEach(this::delete);
+        } catch (IOException e) {
+            FeatJAR.log().warning(e);
+        }
+    }
+
+    /**
+     * Deletes the least recently used results until the size of all stored results is below 90% of the maximum size.
+     */
+    protected synchronized void evict() {
+        if (bytes.get() <= maximumBytes) {
+            return;
+        }
+        long targetBytes = maximumBytes - maximumBytes / 10;
+        List<Path> files = new ArrayList<>(fileSizes.keySet());
+        files.sort(Comparator.comparingLong(DiskCache::lastModified));
+        for (Path file : files) {
+            if (bytes.get() <= targetBytes) {
+                break;
+            }
+            FeatJAR.log().debug(() -> "disk cache evict " + file.getFileName());
+            delete(file);
+        }
+    }
+
+    protected Path getFile(byte[] key) {
+        StringBuilder name = new StringBuilder(2 * key.length + EXTENSION.length());
+        for (byte b : key) {
+            name.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return directory.resolve(name.append(EXTENSION).toString());
+    }
+
+    private Stream<Path> listFiles() throws IOException {
+        return Files.list(directory).filter(file -> file.getFileName().toString().endsWith(EXTENSION));
+    }
+
+    private void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            FeatJAR.log().warning(e);
+            return;
+        }
+        forget(file);
+    }
+
+    private void forget(Path file) {
+        Long size = fileSizes.remove(file);
+        if (size != null) {
+            bytes.addAndGet(-size);
+        }
+    }
+
+    private static long size(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static long lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return Long.MIN_VALUE;
+        }
+    }
+}
@@ -0,0 +1,278 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-base.
+ *
+ * base is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * base is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with base. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-base> for further information.
+ */
+package de.featjar.base.computation;
+
+import de.featjar.base.data.Result;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Publishes the elements emitted by a producer while it is running.
+ * Each subscription runs the producer anew on the executor of {@link FutureResult#getExecutor()}.
+ * Respects backpressure: when a subscriber has not requested further elements and its buffer is full,
+ * the producer is blocked on its next emitted element until the subscriber catches up.
+ * When the subscriber cancels its subscription, the producer is cancelled
+ * through the {@link CancellationToken} of its {@link Progress}.
+ *
+ * @param <E> the type of the published elements
+ * @author Sebastian Krieter
+ */
+public class ElementPublisher<E> implements Flow.Publisher<E> {
+
+    /**
+     * Produces elements.
+     *
+     * @param <E> the type of the produced elements
+     */
+    @FunctionalInterface
+    public interface Producer<E> {
+        /**
+         * {@return a void result if all elements have been emitted, or an empty result with problems otherwise}
+         *
+         * @param progress the progress of the producer, which carries its cancellation token
+         * @param emitter  receives the elements in order, must not be passed null
+         */
+        Result<?> produce(Progress progress, Consumer<? super E> emitter);
+    }
+
+    private static final long OFFER_TIMEOUT_MILLIS = 100;
+
+    protected final Producer<E> producer;
+    protected final int bufferCapacity;
+
+    /**
+     * Creates an element publisher.
+     *
+     * @param producer       the producer
+     * @param bufferCapacity the maximum number of elements buffered per subscriber
+     */
+    public ElementPublisher(Producer<E> producer, int bufferCapacity) {
+        if (bufferCapacity < 1) {
+            throw new IllegalArgumentException(String.valueOf(bufferCapacity));
+        }
+        this.producer = producer;
+        this.bufferCapacity = bufferCapacity;
+    }
+
+    /**
+     * Creates an element publisher that buffers up to {@link Flow#defaultBufferSize()} elements per subscriber.
+     *
+     * @param producer the producer
+     */
+    public ElementPublisher(Producer<E> producer) {
+        this(producer, Flow.defaultBufferSize());
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super E> subscriber) {
+        SubmissionPublisher<E> publisher = new SubmissionPublisher<>(ForkJoinPool.commonPool(), bufferCapacity);
+        publisher.subscribe(subscriber);
+        CancellationToken cancellationToken = ComputationContext.newCancellationToken();
+        Progress progress = new Progress();
+        progress.setCancellationToken(cancellationToken);
+        Executor executor = FutureResult.getExecutor();
+        executor.execute(() -> {
+            try {
+                producer.produce(progress, element -> offer(publisher, cancellationToken, element)).orElseThrow();
+                publisher.close();
+            } catch (Exception e) {
+                awaitDelivery(publisher);
+                publisher.closeExceptionally(e);
+            } finally {
+                cancellationToken.detach();
+            }
+        });
+    }
+
+    private static <E> void offer(SubmissionPublisher<E> publisher, CancellationToken cancellationToken, E element) {
+        // a dropped element is offered again until it is accepted or the subscriber is gone
+        while (publisher.offer(element, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS, null) < 0) {
+            if (publisher.getNumberOfSubscribers() == 0) {
+                cancellationToken.cancel();
+            }
+            cancellationToken.check();
+        }
+        if (publisher.getNumberOfSubscribers() == 0) {
+            cancellationToken.cancel();
+        }
+        cancellationToken.check();
+    }
+
+    private static void awaitDelivery(SubmissionPublisher<?> publisher) {
+        // a publisher that is closed exceptionally may drop elements that have not been delivered yet
+        while (publisher.estimateMaximumLag() > 0 && publisher.getNumberOfSubscribers() > 0) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+            if (Thread.interrupted()) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * {@return a sequential stream of the elements published by the given publisher}
+     * Requests elements in batches of the given buffer size and blocks while waiting for further elements.
+     * Closing the stream cancels the subscription.
+     * If the publisher fails, the stream throws a {@link CompletionException} with the cause of the failure.
+     *
+     * @param publisher  the publisher
+     * @param bufferSize the maximum number of elements to request ahead of consumption
+     * @param <E>        the type of the elements
+     */
+    public static <E> Stream<E> stream(Flow.Publisher<? extends E> publisher, int bufferSize) {
+        BlockingSubscriber<E> subscriber = new BlockingSubscriber<>(bufferSize);
+        publisher.subscribe(subscriber);
+        return StreamSupport.stream(
+                        Spliterators.spliteratorUnknownSize(subscriber, Spliterator.ORDERED | Spliterator.NONNULL),
+                        false)
+                .onClose(subscriber::cancel);
+    }
+
+    private static class BlockingSubscriber<E> implements Flow.Subscriber<E>, Iterator<E> {
+        private static final Object COMPLETE = new Object();
+
+        private static class Failure {
+            private final Throwable throwable;
+
+            private Failure(Throwable throwable) {
+                this.throwable = throwable;
+            }
+        }
+
+        private final BlockingQueue<Object> queue = new LinkedBlockingQueue<>();
+        private final int bufferSize;
+        private Flow.Subscription subscription;
+        private boolean cancelled;
+        private Object next;
+
+        private BlockingSubscriber(int bufferSize) {
+            if (bufferSize < 1) {
+                throw new IllegalArgumentException(String.valueOf(bufferSize));
+            }
+            this.bufferSize = bufferSize;
+        }
+
+        @Override
+        public synchronized void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (cancelled) {
+                subscription.cancel();
+            } else {
+                subscription.request(bufferSize);
+            }
+        }
+
+        @Override
+        public void onNext(E element) {
+            queue.add(element);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            queue.add(new Failure(throwable));
+        }
+
+        @Override
+        public void onComplete() {
+            queue.add(COMPLETE);
+        }
+
+        private synchronized void cancel() {
+            cancelled = true;
+            if (subscription != null) {
+                subscription.cancel();
+            }
+        }
+
+        private synchronized void request() {
+            if (subscription != null && !cancelled) {
+                subscription.request(1);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null) {
+                try {
+                    next = take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    cancel();
+                    throw new CancellationException();
+                }
+            }
+            if (next instanceof Failure) {
+                Throwable throwable = ((Failure) next).throwable;
+                throw throwable instanceof CompletionException
+                        ? (CompletionException) throwable
+                        : new CompletionException(throwable);
+            }
+            return next != COMPLETE;
+        }
+
+        private Object take() throws InterruptedException {
+            // lets a fork-join pool compensate for this thread, as it may be blocked for a long time
+            Object[] element = new Object[1];
+            ForkJoinPool.managedBlock(new ForkJoinPool.ManagedBlocker() {
+                @Override
+                public boolean block() throws InterruptedException {
+                    if (element[0] == null) {
+                        element[0] = queue.take();
+                    }
+                    return true;
+                }
+
+                @Override
+                public boolean isReleasable() {
+                    return element[0] != null || (element[0] = queue.poll()) != null;
+                }
+            });
+            return element[0];
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public E next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            E element = (E) next;
+            next = null;
+            request();
+            return element;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-base.
+ *
+ * base is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * base is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with base. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-base> for further information.
+ */
+package de.featjar.base.computation;
+
+import java.util.List;
+
+/**
+ * A 128-bit structural hash of a computation tree.
+ * Combines the class and {@link IComputation#hashCodeNode()} of a computation with the fingerprints of its children.
+ * Thus, equal computation trees have equal fingerprints, while different fingerprints imply different trees.
+ * As the fingerprint of a tree is computed from the fingerprints of its children,
+ * it can be cached and updated incrementally (see {@link IComputation#getFingerprint()}).
+ *
+ * @author Sebastian Krieter
+ */
+public final class Fingerprint {
+    private static final long C1 = 0x87c37b91114253d5L;
+    private static final long C2 = 0x4cf5ad432745937fL;
+
+    private final long high;
+    private final long low;
+
+    private Fingerprint(long high, long low) {
+        this.high = high;
+        this.low = low;
+    }
+
+    /**
+     * {@return the fingerprint of the given computation, given the fingerprints of its children}
+     *
+     * @param computation       the computation
+     * @param childFingerprints the fingerprints of the children of the computation, in order
+     */
+    public static Fingerprint of(IComputation<?> computation, List<Fingerprint> childFingerprints) {
+        long h1 = 0x9e3779b97f4a7c15L;
+        long h2 = 0xc2b2ae3d27d4eb4fL;
+        long[] values = new long[3 + 2 * childFingerprints.size()];
+        values[0] = computation.getClass().getName().hashCode();
+        values[1] = computation.hashCodeNode();
+        values[2] = childFingerprints.size();
+        for (int i = 0; i < childFingerprints.size(); i++) {
+            Fingerprint childFingerprint = childFingerprints.get(i);
+            values[3 + 2 * i] = childFingerprint.high;
+            values[4 + 2 * i] = childFingerprint.low;
+        }
+        // mixes every value into both halves, following the body and finalization of MurmurHash3 (x64, 128 bit)
+        for (long value : values) {
+            long k1 = Long.rotateLeft(value * C1, 31) * C2;
+            h1 ^= k1;
+            h1 = Long.rotateLeft(h1, 27) + h2;
+            h1 = h1 * 5 + 0x52dce729;
+            long k2 = Long.rotateLeft(value * C2, 33) * C1;
+            h2 ^= k2;
+            h2 = Long.rotateLeft(h2, 31) + h1;
+            h2 = h2 * 5 + 0x38495ab5;
+        }
+        h1 ^= values.length;
+        h2 ^= values.length;
+        h1 += h2;
+        h2 += h1;
+        h1 = mix(h1);
+        h2 = mix(h2);
+        h1 += h2;
+        h2 += h1;
+        return new Fingerprint(h1, h2);
+    }
+
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+
+    /**
+     * {@return the upper 64 bits of this fingerprint}
+     */
+    public long getHigh() {
+        return high;
+    }
+
+    /**
+     * {@return the lower 64 bits of this fingerprint}
+     */
+    public long getLow() {
+        return low;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Fingerprint other = (Fingerprint) o;
+        return high == other.high && low == other.low;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (low ^ (low >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%016x%016x", high, low);
+    }
+}
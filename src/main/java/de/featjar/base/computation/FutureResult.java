@@ -25,13 +25,18 @@ import de.featjar.base.data.Problem;
 import de.featjar.base.data.Result;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.function.Supplier;
-import java.util.stream.Collectors;
+import net.tascalate.concurrent.CompletablePromise;
 import net.tascalate.concurrent.CompletableTask;
 import net.tascalate.concurrent.DependentPromise;
 import net.tascalate.concurrent.PromiseOrigin;
@@ -76,20 +81,43 @@ public class FutureResult<T> implements Supplier<Result<T>> {
         return FeatJAR.cache().getConfiguration().executor;
     }
 
+    /**
+     * {@return the executor for the given computation}
+     *
+     * @param computation the computation
+     * @see Cache.Configuration#getExecutor(IComputation)
+     */
+    public static Executor getExecutor(IComputation<?> computation) {
+        return FeatJAR.cache().getConfiguration().getExecutor(computation);
+    }
+
     private static <T> Result<T> compute(IComputation<T> computation, List<Object> args, Progress progress) {
         if (Thread.interrupted()) {
             throw new CancellationException();
         }
-        return computation.compute(args, progress);
+        CacheStatistics statistics = FeatJAR.cache().statistics;
+        if (statistics == null) {
+            return ComputationContext.compute(computation, args, progress);
+        }
+        long start = System.nanoTime();
+        try {
+            return ComputationContext.compute(computation, args, progress);
+        } finally {
+            statistics.recordLatency(computation, System.nanoTime() - start);
+        }
     }
 
     /**
      * {@return a future result from given {@link IComputation} that resolves when all dependencies are resolved}
+     * Identical subcomputations are scheduled only once, as the computation is first planned with a {@link ComputationPlan}.
+     * If the cache is queried and coalesces computations, an identical computation that is already in flight
+     * is joined instead of being scheduled again.
      *
      * @param computation the computation
      * @param tryHitCache whether to try to read from the cache
      * @param tryWriteCache whether to try to write to the cache
      * @param progressSupplier creates a {@link Progress} for each future result
+     * @see Cache#tryJoin(IComputation, InFlightComputation)
      */
     @SuppressWarnings("unchecked")
     public static <U, T extends List<Object>> FutureResult<U> compute(
@@ -97,79 +125,507 @@ public class FutureResult<T> implements Supplier<Result<T>> {
             boolean tryHitCache,
             boolean tryWriteCache,
             Supplier<Progress> progressSupplier) {
-        Progress progress = progressSupplier.get();
-
-        if (computation instanceof ComputeConstant) {
-            return new FutureResult<>(
-                    DependentPromise.from(
-                            CompletableTask.submit(() -> compute(computation, List.of(), progress), getExecutor()),
-                            PromiseOrigin.ALL),
-                    progress);
-        }
-
-        if (tryHitCache) {
-            Result<FutureResult<U>> cacheHit = FeatJAR.cache().tryHit(computation);
-            if (cacheHit.isPresent()) {
-                Result<U> result = cacheHit.get().getPromise().getNow(Result.<U>empty());
-                if (result.isPresent()) {
-                    return new FutureResult<>(
-                            DependentPromise.from(CompletableTask.completed(result, getExecutor()), PromiseOrigin.ALL),
-                            progress);
+        ComputationPlan plan = ComputationPlan.of(computation);
+        Evaluation evaluation = new Evaluation(plan, tryHitCache, tryWriteCache, progressSupplier);
+        FutureResult<U> futureResult = (FutureResult<U>) evaluation.compute(plan.rootIndices[0]);
+        if (evaluation.cancellationToken.parent != null) {
+            futureResult.promise.whenComplete((result, e) -> evaluation.cancellationToken.detach());
+        }
+        return futureResult;
+    }
+
+    /**
+     * {@return future results of the given computations, in the given order}
+     * All computations are evaluated with a single {@link ComputationPlan}, so identical subcomputations are
+     * scheduled only once across all computations, and all computations share a {@link CancellationToken}.
+     * At most the given number of computations (including their dependencies) are in flight at the same time;
+     * the remaining computations are only scheduled when another computation has finished.
+     *
+     * @param computations the computations
+     * @param tryHitCache whether to try to read from the cache
+     * @param tryWriteCache whether to try to write to the cache
+     * @param progressSupplier creates a {@link Progress} for each future result
+     * @param maxConcurrency the maximum number of computations in flight
+     * @param <U> the type of the computation results
+     */
+    public static <U> List<FutureResult<U>> computeAll(
+            List<? extends IComputation<U>> computations,
+            boolean tryHitCache,
+            boolean tryWriteCache,
+            Supplier<Progress> progressSupplier,
+            int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException(String.valueOf(maxConcurrency));
+        }
+        ComputationPlan plan = ComputationPlan.of(computations);
+        Evaluation evaluation = new Evaluation(plan, tryHitCache, tryWriteCache, progressSupplier);
+        Batch<U> batch = new Batch<>(evaluation, progressSupplier);
+        for (int i = 0; i < maxConcurrency; i++) {
+            batch.launch();
+        }
+        return batch.futureResults;
+    }
+
+    /**
+     * Launches the root computations of an {@link Evaluation} one by one, each when a previous one has finished.
+     * Until a root computation is launched, its future result is backed by a pending promise.
+     */
+    private static class Batch<U> {
+        private final Evaluation evaluation;
+        private final List<FutureResult<U>> futureResults;
+        private final List<CompletablePromise<Result<U>>> pendingPromises;
+        private final AtomicInteger numberOfPending;
+        private int numberOfLaunched;
+
+        private Batch(Evaluation evaluation, Supplier<Progress> progressSupplier) {
+            this.evaluation = evaluation;
+            int size = evaluation.plan.rootIndices.length;
+            futureResults = new ArrayList<>(size);
+            pendingPromises = new ArrayList<>(size);
+            numberOfPending = new AtomicInteger(size);
+            CancellationToken cancellationToken = evaluation.cancellationToken;
+            if (size == 0) {
+                cancellationToken.detach();
+            }
+            for (int i = 0; i < size; i++) {
+                CompletablePromise<Result<U>> pendingPromise = new CompletablePromise<>();
+                Progress progress = progressSupplier.get();
+                progress.setCancellationToken(cancellationToken);
+                pendingPromise.whenComplete((result, e) -> {
+                    progress.finish();
+                    if (numberOfPending.decrementAndGet() == 0) {
+                        cancellationToken.detach();
+                    }
+                });
+                pendingPromises.add(pendingPromise);
+                futureResults.add(
+                        new FutureResult<>(DependentPromise.from(pendingPromise, PromiseOrigin.ALL), progress));
+            }
+            // computations that have not been launched yet are not known to the evaluation
+            cancellationToken.addListener(() -> pendingPromises.forEach(promise -> promise.cancel(true)));
+        }
+
+        @SuppressWarnings("unchecked")
+        private void launch() {
+            while (true) {
+                CompletablePromise<Result<U>> pendingPromise;
+                FutureResult<U> futureResult;
+                synchronized (evaluation) {
+                    if (numberOfLaunched == pendingPromises.size()) {
+                        return;
+                    }
+                    int index = numberOfLaunched++;
+                    pendingPromise = pendingPromises.get(index);
+                    if (pendingPromise.isDone()) {
+                        continue;
+                    }
+                    futureResult = (FutureResult<U>) evaluation.compute(evaluation.plan.rootIndices[index]);
+                    futureResults.get(index).progress.addChild(futureResult.progress);
+                }
+                boolean done = futureResult.promise.isDone();
+                futureResult.promise.whenComplete((result, e) -> {
+                    futureResult.progress.finish();
+                    if (e != null) {
+                        pendingPromise.completeExceptionally(e);
+                    } else {
+                        pendingPromise.complete(result);
+                    }
+                    if (!done) {
+                        launch();
+                    }
+                });
+                if (!done) {
+                    return;
                 }
             }
         }
+    }
 
-        DependentPromise<Result<U>> promise;
-        if (!computation.hasChildren()) {
-            promise = DependentPromise.from(
-                    CompletableTask.submit(() -> compute(computation, List.of(), progress), getExecutor()),
-                    PromiseOrigin.ALL);
-        } else {
-            DependentPromise<List<Object>> allOf = null;
-            for (IComputation<?> child : computation.getChildren()) {
-                if (allOf == null) {
-                    allOf = compute(child, tryHitCache, tryWriteCache, progressSupplier)
-                            .getPromise()
-                            .thenApplyAsync(
-                                    r -> {
-                                        List<Object> list = new ArrayList<>();
-                                        list.add(r);
-                                        return list;
-                                    },
-                                    getExecutor(),
-                                    true);
-                } else {
-                    allOf = allOf.thenCombineAsync(
-                            compute(child, tryHitCache, tryWriteCache, progressSupplier)
-                                    .getPromise(),
-                            (a, b) -> {
-                                List<Object> list = (List<Object>) a;
-                                list.add(b);
-                                return list;
-                            },
-                            getExecutor(),
-                            PromiseOrigin.ALL);
+    /**
+     * Computes a computation speculatively, as configured by its {@link HedgingPolicy}.
+     * Starts a second attempt when the first attempt has not finished after the policy's delay.
+     * Each attempt has its own {@link CancellationToken}, so the attempt that loses can be cancelled
+     * without cancelling the evaluation.
+     */
+    private static class Hedge<U> {
+        private final IComputation<U> computation;
+        private final List<Object> dependencyList;
+        private final HedgingPolicy hedgingPolicy;
+        private final Executor executor;
+        private final Progress progress;
+        private final CompletablePromise<Result<U>> winner = new CompletablePromise<>();
+        private final List<FutureResult<U>> attempts = new ArrayList<>(2);
+        private int numberOfRunning;
+        private int winningAttempt = -1;
+
+        private Hedge(
+                IComputation<U> computation,
+                List<Object> dependencyList,
+                HedgingPolicy hedgingPolicy,
+                Executor executor,
+                Progress progress) {
+            this.computation = computation;
+            this.dependencyList = dependencyList;
+            this.hedgingPolicy = hedgingPolicy;
+            this.executor = executor;
+            this.progress = progress;
+            winner.whenComplete((result, e) -> finish());
+            FutureResult<U> firstAttempt = launch();
+            long delayNanos = hedgingPolicy.getDelayNanos();
+            if (firstAttempt != null && delayNanos >= 0) {
+                firstAttempt.peekAfter(Duration.ofNanos(delayNanos), this::launch);
+            }
+        }
+
+        private DependentPromise<Result<U>> getPromise() {
+            return DependentPromise.from(winner, PromiseOrigin.ALL);
+        }
+
+        private FutureResult<U> launch() {
+            FutureResult<U> futureResult;
+            int attempt;
+            synchronized (this) {
+                if (winner.isDone()) {
+                    return null;
                 }
+                attempt = attempts.size();
+                Progress attemptProgress = new Progress();
+                attemptProgress.setCancellationToken(new CancellationToken(progress.getCancellationToken()));
+                futureResult = new FutureResult<>(
+                        DependentPromise.from(
+                                CompletableTask.submit(() -> computeAttempt(attempt, attemptProgress), executor),
+                                PromiseOrigin.ALL),
+                        attemptProgress);
+                attempts.add(futureResult);
+                numberOfRunning++;
             }
-            promise = allOf.thenApplyAsync(
-                    list -> compute(
-                            computation,
-                            computation
-                                    .mergeResults(list.stream()
-                                            .map(r -> (Result<Object>) r)
-                                            .collect(Collectors.toList()))
-                                    .get(),
-                            progress),
-                    getExecutor(),
-                    true);
-        }
-
-        FutureResult<U> futureResult = new FutureResult<>(promise, progress);
-        if (tryWriteCache) {
-            // TODO write only result to cache not futureResult
-            FeatJAR.cache().tryWrite(computation, futureResult);
+            progress.addChild(futureResult.progress);
+            futureResult.promise.whenComplete((result, e) -> complete(attempt, result, e));
+            return futureResult;
+        }
+
+        private Result<U> computeAttempt(int attempt, Progress attemptProgress) {
+            long start = System.nanoTime();
+            Result<U> result = ComputationContext.computeAttempt(
+                    attempt, () -> FutureResult.compute(computation, dependencyList, attemptProgress));
+            hedgingPolicy.recordLatency(System.nanoTime() - start);
+            return result;
+        }
+
+        private void complete(int attempt, Result<U> result, Throwable e) {
+            boolean isLast;
+            synchronized (this) {
+                isLast = --numberOfRunning == 0;
+                if (e == null && winningAttempt < 0) {
+                    winningAttempt = attempt;
+                }
+            }
+            if (e == null) {
+                winner.complete(result);
+            } else if (isLast) {
+                // all attempts failed, so there is no result to wait for
+                winner.completeExceptionally(e);
+            }
+        }
+
+        private void finish() {
+            synchronized (this) {
+                if (attempts.size() > 1) {
+                    hedgingPolicy.recordHedge(winningAttempt > 0);
+                }
+                for (FutureResult<U> attempt : attempts) {
+                    CancellationToken cancellationToken = attempt.progress.getCancellationToken();
+                    if (!attempt.promise.isDone()) {
+                        cancellationToken.cancel();
+                        attempt.promise.cancel(true);
+                    }
+                    cancellationToken.detach();
+                    attempt.progress.finish();
+                }
+            }
+        }
+    }
+
+    /**
+     * Schedules the computations of a {@link ComputationPlan}, each at most once.
+     * All computations share a {@link CancellationToken}, which is cancelled along with the computation
+     * that started this evaluation, if any.
+     * When the token is cancelled, all computations of this evaluation that are still in flight are cancelled.
+     */
+    private static class Evaluation {
+        private final ComputationPlan plan;
+        private final FutureResult<?>[] futureResults;
+        private final InFlightComputation<?>[] inFlightComputations;
+        private final boolean[] visited;
+        private final boolean tryHitCache;
+        private final boolean tryWriteCache;
+        private final Supplier<Progress> progressSupplier;
+        private final boolean inline;
+        private final ComputationScheduler.Session session;
+        private final long[] criticalPathCosts;
+        private final CancellationToken cancellationToken;
+
+        private Evaluation(
+                ComputationPlan plan, boolean tryHitCache, boolean tryWriteCache, Supplier<Progress> progressSupplier) {
+            this.plan = plan;
+            this.futureResults = new FutureResult<?>[plan.size()];
+            this.inFlightComputations = new InFlightComputation<?>[plan.size()];
+            this.visited = new boolean[plan.size()];
+            this.tryHitCache = tryHitCache;
+            this.tryWriteCache = tryWriteCache;
+            this.progressSupplier = progressSupplier;
+            this.cancellationToken = ComputationContext.newCancellationToken();
+            this.cancellationToken.addListener(this::cancel);
+            Cache.Configuration configuration = FeatJAR.cache().getConfiguration();
+            this.inline = configuration.isInliningLightweightComputations();
+            if (configuration.scheduler != null && ComputationContext.current().isTopLevel()) {
+                IComputation<?> root = plan.getComputation(plan.rootIndices[0]);
+                this.session = configuration.scheduler.openSession(root.getPriority());
+                this.criticalPathCosts = plan.getCriticalPathCosts();
+            } else {
+                this.session = null;
+                this.criticalPathCosts = null;
+            }
+        }
+
+        private Executor getScheduledExecutor(IComputation<?> computation, int index) {
+            Executor executor = FutureResult.getExecutor(computation);
+            return session != null ? session.getExecutor(computation, criticalPathCosts[index], executor) : executor;
+        }
+
+        private void cancel() {
+            for (FutureResult<?> futureResult : futureResults) {
+                // does not cancel computations joined from other evaluations
+                if (futureResult != null && futureResult.progress.getCancellationToken() == cancellationToken) {
+                    futureResult.promise.cancel(true);
+                }
+            }
+        }
+
+        private Progress newProgress() {
+            Progress progress = progressSupplier.get();
+            progress.setCancellationToken(cancellationToken);
+            return progress;
+        }
+
+        private void put(int index, FutureResult<?> futureResult) {
+            futureResults[index] = futureResult;
+            Progress progress = futureResult.progress;
+            futureResult.promise.whenComplete((result, e) -> progress.finish());
+        }
+
+        private FutureResult<?> compute(int rootIndex) {
+            if (!visited[rootIndex]) {
+                int[] indices = resolve(rootIndex);
+                // dependencies have smaller indices than their dependents (see ComputationPlan),
+                // so scheduling in ascending order needs no recursion, which would overflow the stack for deep plans
+                Arrays.sort(indices);
+                for (int index : indices) {
+                    start(plan.getComputation(index), index);
+                }
+            }
+            return futureResults[rootIndex];
+        }
+
+        /**
+         * Resolves all computations needed for the given root computation that need not be scheduled,
+         * such as constants, cache hits, and joined in-flight computations.
+         * The dependencies of resolved computations are not needed, so they are not visited.
+         *
+         * @return the indices of all other needed computations, which have to be scheduled
+         */
+        private int[] resolve(int rootIndex) {
+            int[] stack = new int[16];
+            int stackSize = 0;
+            int[] indices = new int[16];
+            int numberOfIndices = 0;
+            stack[stackSize++] = rootIndex;
+            visited[rootIndex] = true;
+            while (stackSize > 0) {
+                int index = stack[--stackSize];
+                if (resolve(plan.getComputation(index), index)) {
+                    continue;
+                }
+                if (numberOfIndices == indices.length) {
+                    indices = Arrays.copyOf(indices, numberOfIndices * 2);
+                }
+                indices[numberOfIndices++] = index;
+                for (int dependencyIndex : plan.dependencyIndices.get(index)) {
+                    if (!visited[dependencyIndex]) {
+                        visited[dependencyIndex] = true;
+                        if (stackSize == stack.length) {
+                            stack = Arrays.copyOf(stack, stackSize * 2);
+                        }
+                        stack[stackSize++] = dependencyIndex;
+                    }
+                }
+            }
+            return Arrays.copyOf(indices, numberOfIndices);
+        }
+
+        private <U> boolean resolve(IComputation<U> computation, int index) {
+            if (computation instanceof ComputeConstant) {
+                Progress progress = newProgress();
+                put(index, new FutureResult<>(computeLeaf(computation, index, progress), progress));
+                return true;
+            }
+
+            if (tryHitCache) {
+                Result<FutureResult<U>> cacheHit = FeatJAR.cache().tryHit(computation);
+                if (cacheHit.isPresent()) {
+                    Result<U> result = cacheHit.get().getPromise().getNow(Result.<U>empty());
+                    if (result.isPresent()) {
+                        put(
+                                index,
+                                new FutureResult<>(
+                                        DependentPromise.from(
+                                                CompletableTask.completed(result, getExecutor()), PromiseOrigin.ALL),
+                                        newProgress()));
+                        return true;
+                    }
+                }
+
+                if (FeatJAR.cache().isCoalescing()) {
+                    Progress progress = newProgress();
+                    while (true) {
+                        InFlightComputation<U> inFlightComputation = new InFlightComputation<>();
+                        InFlightComputation<U> registered = FeatJAR.cache().tryJoin(computation, inFlightComputation);
+                        Result<FutureResult<U>> futureResult = registered.join(progress);
+                        if (futureResult.isPresent()) {
+                            inFlightComputations[index] = registered;
+                            put(index, futureResult.get());
+                            if (tryWriteCache) {
+                                FeatJAR.cache().tryWrite(computation, futureResult.get());
+                            }
+                            // only the evaluation that registered the in-flight computation schedules it
+                            return registered != inFlightComputation;
+                        }
+                    }
+                }
+            }
+            return false;
+        }
+
+        @SuppressWarnings("unchecked")
+        private <U> void start(IComputation<U> computation, int index) {
+            InFlightComputation<U> inFlightComputation = (InFlightComputation<U>) inFlightComputations[index];
+            if (inFlightComputation != null) {
+                // the shared computation only depends on its own joins, so it outlives this evaluation
+                List<FutureResult<?>> joinedDependencies = new ArrayList<>();
+                inFlightComputation.complete(
+                        schedule(computation, index, inFlightComputation.getProgress(), joinedDependencies));
+                inFlightComputation.getPromise().whenComplete((result, e) -> {
+                    for (FutureResult<?> dependency : joinedDependencies) {
+                        dependency.promise.cancel(true);
+                    }
+                });
+                return;
+            }
+            Progress progress = newProgress();
+            FutureResult<U> futureResult = new FutureResult<>(schedule(computation, index, progress, null), progress);
+            put(index, futureResult);
+            if (tryWriteCache) {
+                // TODO write only result to cache not futureResult
+                FeatJAR.cache().tryWrite(computation, futureResult);
+            }
+        }
+
+        private FutureResult<?> getDependency(int index, List<FutureResult<?>> joinedDependencies) {
+            InFlightComputation<?> inFlightComputation = inFlightComputations[index];
+            if (joinedDependencies != null && inFlightComputation != null) {
+                Result<? extends FutureResult<?>> joined = inFlightComputation.join(new Progress());
+                if (joined.isPresent()) {
+                    joinedDependencies.add(joined.get());
+                    return joined.get();
+                }
+            }
+            return futureResults[index];
+        }
+
+        private <U> DependentPromise<Result<U>> schedule(
+                IComputation<U> computation, int index, Progress progress, List<FutureResult<?>> joinedDependencies) {
+            int[] dependencyIndices = plan.dependencyIndices.get(index);
+            if (dependencyIndices.length == 0) {
+                return computeLeaf(computation, index, progress);
+            }
+            // the number of dependencies is fixed, so their results are collected in a preallocated array
+            Result<?>[] results = new Result<?>[dependencyIndices.length];
+            DependentPromise<List<Result<?>>> allOf;
+            if (dependencyIndices.length == 1) {
+                FutureResult<?> dependency = getDependency(dependencyIndices[0], joinedDependencies);
+                progress.addChild(dependency.progress);
+                Function<Result<?>, List<Result<?>>> single = result -> {
+                    results[0] = result;
+                    return Arrays.asList(results);
+                };
+                DependentPromise<? extends Result<?>> promise = dependency.getPromise();
+                allOf = inline ? promise.thenApply(single, true) : promise.thenApplyAsync(single, getExecutor(), true);
+            } else {
+                CompletablePromise<List<Result<?>>> all = new CompletablePromise<>();
+                AtomicInteger remaining = new AtomicInteger(dependencyIndices.length);
+                for (int i = 0; i < dependencyIndices.length; i++) {
+                    int resultIndex = i;
+                    FutureResult<?> dependency = getDependency(dependencyIndices[i], joinedDependencies);
+                    progress.addChild(dependency.progress);
+                    dependency.getPromise().whenComplete((result, e) -> {
+                        if (e != null) {
+                            all.completeExceptionally(e);
+                        } else {
+                            results[resultIndex] = result;
+                            if (remaining.decrementAndGet() == 0) {
+                                all.complete(Arrays.asList(results));
+                            }
+                        }
+                    });
+                }
+                allOf = DependentPromise.from(all, PromiseOrigin.ALL);
+                if (!inline) {
+                    allOf = allOf.thenApplyAsync(Function.identity(), getExecutor(), true);
+                }
+            }
+            if (computation.getHedgingPolicy() != null && !(inline && computation.isLightweight())) {
+                return allOf.thenCompose(
+                        list -> {
+                            Result<List<Object>> dependencyList = computation.mergeResults(list);
+                            return dependencyList.isPresent()
+                                    ? submit(computation, dependencyList.get(), index, progress)
+                                    : CompletableTask.completed(
+                                            Result.<U>empty(dependencyList.getProblems()), getExecutor());
+                        },
+                        true);
+            }
+            Function<List<Result<?>>, Result<U>> fn = list -> computation
+                    .mergeResults(list)
+                    .flatMap(dependencyList -> FutureResult.compute(computation, dependencyList, progress));
+            return inline && computation.isLightweight()
+                    ? allOf.thenApply(fn, true)
+                    : allOf.thenApplyAsync(fn, getScheduledExecutor(computation, index), true);
+        }
+
+        private <U> DependentPromise<Result<U>> computeLeaf(IComputation<U> computation, int index, Progress progress) {
+            if (inline && computation.isLightweight()) {
+                CompletablePromise<Result<U>> promise = new CompletablePromise<>();
+                try {
+                    promise.complete(FutureResult.compute(computation, List.of(), progress));
+                } catch (Exception e) {
+                    promise.completeExceptionally(e);
+                }
+                return DependentPromise.from(promise, PromiseOrigin.ALL);
+            }
+            return submit(computation, List.of(), index, progress);
+        }
+
+        private <U> DependentPromise<Result<U>> submit(
+                IComputation<U> computation, List<Object> dependencyList, int index, Progress progress) {
+            Executor executor = getScheduledExecutor(computation, index);
+            HedgingPolicy hedgingPolicy = computation.getHedgingPolicy();
+            if (hedgingPolicy != null) {
+                return new Hedge<>(computation, dependencyList, hedgingPolicy, executor, progress).getPromise();
+            }
+            return DependentPromise.from(
+                    CompletableTask.submit(() -> FutureResult.compute(computation, dependencyList, progress), executor),
+                    PromiseOrigin.ALL);
         }
-        return futureResult;
     }
 
     /**
@@ -181,6 +637,7 @@ public class FutureResult<T> implements Supplier<Result<T>> {
 
     /**
      * {@return this future result's progress}
+     * Includes the progress of all dependencies that have been scheduled together with this future result.
      */
     public Progress getProgress() {
         if (getPromise().isDone()) return Progress.completed(progress.getCurrentStep());
@@ -215,6 +672,7 @@ public class FutureResult<T> implements Supplier<Result<T>> {
      */
     public <U> FutureResult<U> thenFromResult(BiFunction<Result<T>, Progress, Result<U>> fn) {
         Progress progress = new Progress();
+        progress.setCancellationToken(this.progress.getCancellationToken());
         return new FutureResult<>(
                 promise.thenApplyAsync(
                         tResult -> {
@@ -242,15 +700,41 @@ public class FutureResult<T> implements Supplier<Result<T>> {
     /**
      * {@return this future result's result}
      * Blocks synchronously until the result is available.
+     * When called from a {@link ForkJoinPool}, the pool may start a compensating thread while this thread is blocked,
+     * so computations that wait for other computations on the same pool do not starve it.
      */
     public Result<T> get() {
         try {
+            ForkJoinPool.managedBlock(new PromiseBlocker(promise));
             return promise.get();
         } catch (InterruptedException | ExecutionException | CancellationException e) {
             return Result.empty(e);
         }
     }
 
+    private static class PromiseBlocker implements ForkJoinPool.ManagedBlocker {
+        private final Future<?> future;
+
+        private PromiseBlocker(Future<?> future) {
+            this.future = future;
+        }
+
+        @Override
+        public boolean block() throws InterruptedException {
+            try {
+                future.get();
+            } catch (ExecutionException | CancellationException e) {
+                // reported when the result is retrieved
+            }
+            return true;
+        }
+
+        @Override
+        public boolean isReleasable() {
+            return future.isDone();
+        }
+    }
+
     /**
      * {@return this future result's result}
      * Blocks synchronously until the result is available or until the timeout is reached.
@@ -272,14 +756,17 @@ public class FutureResult<T> implements Supplier<Result<T>> {
      * @param duration the duration
      */
     public void cancelAfter(Duration duration) {
+        progress.getCancellationToken().setDeadline(duration);
         promise.orTimeout(duration);
     }
 
     /**
      * Cancels the execution of this future result's promise.
+     * Also cancels the {@link CancellationToken} of its progress, which cancels all dependencies that are still in flight.
      * Discards any partially computed result.
      */
     public void cancel() {
+        progress.getCancellationToken().cancel();
         promise.cancel(true);
     }
 
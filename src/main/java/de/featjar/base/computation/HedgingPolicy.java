@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-base.
+ *
+ * base is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * base is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with base. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-base> for further information.
+ */
+package de.featjar.base.computation;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Configures speculative (hedged) execution of a computation with a high latency variance,
+ * such as a randomized solver.
+ * If an attempt at computing the result has not finished after a given percentile of the observed latencies,
+ * a second attempt is started.
+ * The first attempt to finish wins, and the other attempt is cancelled.
+ * Attempts can tell each other apart with {@link ComputationContext#currentAttempt()}, e.g., to use different seeds.
+ * A policy records the latencies of the computations it is used for, so it is usually shared by all instances
+ * of a computation class (see {@link IComputation#getHedgingPolicy()}).
+ * Hedging only applies to computations scheduled with {@link IComputation#computeFutureResult()}
+ * that are not inlined.
+ *
+ * @author Sebastian Krieter
+ */
+public class HedgingPolicy {
+    protected final double percentile;
+    protected final int minimumSamples;
+    protected final Duration minimumDelay;
+    protected final CacheStatistics.LatencyHistogram latency = new CacheStatistics.LatencyHistogram();
+    protected final LongAdder hedges = new LongAdder();
+    protected final LongAdder hedgeWins = new LongAdder();
+
+    /**
+     * Creates a hedging policy that starts a second attempt after the given percentile of observed latencies,
+     * once at least 20 latencies have been observed.
+     *
+     * @param percentile the percentile, between 0 and 1 (e.g., 0.95)
+     */
+    public HedgingPolicy(double percentile) {
+        this(percentile, 20, Duration.ZERO);
+    }
+
+    /**
+     * Creates a hedging policy.
+     *
+     * @param percentile     the percentile of observed latencies after which a second attempt is started,
+     *                       between 0 and 1 (e.g., 0.95)
+     * @param minimumSamples the number of latencies to observe before hedging
+     * @param minimumDelay   the minimum time to wait before starting a second attempt
+     */
+    public HedgingPolicy(double percentile, int minimumSamples, Duration minimumDelay) {
+        if (percentile <= 0 || percentile > 1) {
+            throw new IllegalArgumentException(String.valueOf(percentile));
+        }
+        if (minimumSamples < 1) {
+            throw new IllegalArgumentException(String.valueOf(minimumSamples));
+        }
+        this.percentile = percentile;
+        this.minimumSamples = minimumSamples;
+        this.minimumDelay = Objects.requireNonNull(minimumDelay);
+    }
+
+    /**
+     * Records the latency of an attempt that has finished.
+     *
+     * @param nanos the elapsed time in nanoseconds
+     */
+    public void recordLatency(long nanos) {
+        latency.record(nanos);
+    }
+
+    /**
+     * Records that a second attempt has been started.
+     *
+     * @param won whether the second attempt has finished first
+     */
+    protected void recordHedge(boolean won) {
+        hedges.increment();
+        if (won) {
+            hedgeWins.increment();
+        }
+    }
+
+    /**
+     * {@return the time to wait before starting a second attempt in nanoseconds,
+     * or -1 if not enough latencies have been observed yet}
+     */
+    public long getDelayNanos() {
+        long[] counts = new long[latency.buckets.length()];
+        long total = 0;
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = latency.buckets.get(i);
+            total += counts[i];
+        }
+        if (total < minimumSamples) {
+            return -1;
+        }
+        return Math.max(minimumDelay.toNanos(), latency.percentile(counts, total, percentile));
+    }
+
+    /**
+     * {@return the number of second attempts that have been started and have finished}
+     */
+    public long getHedges() {
+        return hedges.sum();
+    }
+
+    /**
+     * {@return the number of second attempts that have finished before the first attempt}
+     */
+    public long getHedgeWins() {
+        return hedgeWins.sum();
+    }
+}
@@ -24,7 +24,13 @@ import de.featjar.base.FeatJAR;
 import de.featjar.base.data.Problem;
 import de.featjar.base.data.Result;
 import de.featjar.base.tree.structure.ITree;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.TimeoutException;
@@ -73,14 +79,68 @@ public interface IComputation<T> extends Supplier<Result<T>>, ITree<IComputation
      * Consequently, when {@link Result#empty(Problem...)} is returned, any dependent computations return {@link Result#empty(Problem...)} as well.
      * The given {@link Progress} can be used to report progress tracking information to the backing {@link FutureResult}.
      * This progress can be inspected using {@link FutureResult#peekEvery(Duration, Runnable)} and {@link Cache#getProgress(IComputation)}.
-     * This method must not be renamed, as {@link de.featjar.base.computation.Cache.CachePolicy#CACHE_TOP_LEVEL}
-     * uses reflection based on its name to detect nested computations.
+     * This method should not be called directly by schedulers, but through {@link ComputationContext#compute(IComputation, List, Progress)},
+     * which allows {@link de.featjar.base.computation.Cache.CachePolicy#CACHE_TOP_LEVEL} to detect nested computations.
      *
      * @param dependencyList the dependency list
      * @param progress       the progress
      */
     Result<T> compute(List<Object> dependencyList, Progress progress);
 
+    /**
+     * {@return whether this computation is cheap compared to scheduling it on an executor}
+     * Lightweight computations (e.g., constants and aggregations of dependencies) may be computed inline
+     * on the thread that resolved their dependencies, see {@link Cache.Configuration#setWorkStealingExecutor(int)}.
+     * By default, computations are not lightweight.
+     */
+    default boolean isLightweight() {
+        return false;
+    }
+
+    /**
+     * {@return whether this computation mostly uses the CPU, as opposed to blocking (e.g., on an external process)}
+     * CPU-bound computations are routed to a bounded executor, if configured,
+     * see {@link Cache.Configuration#setCPUBoundExecutor(java.util.concurrent.Executor)}.
+     * By default, computations are not CPU-bound.
+     */
+    default boolean isCPUBound() {
+        return false;
+    }
+
+    /**
+     * {@return the priority of this computation}
+     * If a {@link ComputationScheduler} is configured, computations with higher priority are run first.
+     * The priority of a root computation applies to all computations in its tree, unless they have a higher priority.
+     * By default, computations have priority zero.
+     *
+     * @see Cache.Configuration#setScheduler(ComputationScheduler)
+     */
+    default int getPriority() {
+        return 0;
+    }
+
+    /**
+     * {@return the estimated cost of this computation, in arbitrary but consistent units}
+     * If a {@link ComputationScheduler} is configured, it is used to share executors fairly between root computations
+     * and to run computations on the critical path of a computation tree first.
+     * By default, each computation has cost one.
+     *
+     * @see Cache.Configuration#setScheduler(ComputationScheduler)
+     */
+    default long getCost() {
+        return 1;
+    }
+
+    /**
+     * {@return the hedging policy of this computation, or {@code null} if this computation should not be hedged}
+     * Computations with a high latency variance (e.g., randomized solvers) can return a policy,
+     * usually shared by all instances of their class, to start a second attempt when the first one takes too long.
+     * By default, computations are not hedged.
+     */
+    default HedgingPolicy getHedgingPolicy() {
+        return null;
+    }
+
     default Result<T> getIntermediateResult() {
         return Result.empty();
     }
@@ -240,7 +300,7 @@ public interface IComputation<T> extends Supplier<Result<T>>, ITree<IComputation
      * @param results the results
      */
     default Result<List<Object>> mergeResults(List<? extends Result<?>> results) {
-        return Result.mergeAll(results, ArrayList::new);
+        return Result.mergeAll(results, () -> new ArrayList<>(results.size()));
     }
 
     /**
@@ -342,9 +402,118 @@ public interface IComputation<T> extends Supplier<Result<T>>, ITree<IComputation
         });
     }
 
-    // TODO: serialization scheme. may require that all inputs (all dependencies) implement Serializable.
-    default byte[] serialize() {
-        return new byte[] {};
+    /**
+     * {@return a serialization of this computation's node that is stable across JVM runs, if any}
+     * The serialization must contain all parameters that are considered by {@code equalsNode},
+     * but not the node's class and children, which are serialized by {@link #serialize()}.
+     * If this node cannot be serialized in a stable way, an empty result is returned.
+     */
+    default Result<byte[]> serializeNode() {
+        return Result.empty();
+    }
+
+    /**
+     * {@return the fingerprint of this computation (and its children)}
+     * Equal computation trees have equal fingerprints, so different fingerprints imply different trees.
+     * By default, the fingerprint is computed from the fingerprints of all children each time it is requested.
+     * {@link AComputation} caches it instead and invalidates it when any descendant is modified.
+     */
+    default Fingerprint getFingerprint() {
+        List<? extends IComputation<?>> children = getChildren();
+        List<Fingerprint> childFingerprints = new ArrayList<>(children.size());
+        for (IComputation<?> child : children) {
+            childFingerprints.add(child.getFingerprint());
+        }
+        return Fingerprint.of(this, childFingerprints);
+    }
+
+    /**
+     * {@return a SHA-256 digest of this computation (and its children) that is stable across JVM runs, if any}
+     * Equal computation trees have equal digests, provided that all nodes implement {@link #serializeNode()} correctly.
+     * In contrast to {@link #serialize()}, the digest is computed from the serialized node and the digests of all
+     * children, so it can be used as a compact persistent key for this computation (e.g., in {@link DiskCache}).
+     * By default, the digest is computed from the digests of all children each time it is requested.
+     * {@link AComputation} caches it instead and invalidates it along with its fingerprint.
+     * If any node cannot be serialized, an empty result is returned.
+     */
+    default Result<byte[]> getDigest() {
+        List<? extends IComputation<?>> children = getChildren();
+        List<byte[]> childDigests = new ArrayList<>(children.size());
+        for (IComputation<?> child : children) {
+            Result<byte[]> childDigest = child.getDigest();
+            if (childDigest.isEmpty()) {
+                return childDigest;
+            }
+            childDigests.add(childDigest.get());
+        }
+        return digestNode(childDigests);
+    }
+
+    /**
+     * {@return a SHA-256 digest of this computation's node, given the digests of its children, if any}
+     * Combines the class and {@link #serializeNode()} of this computation with the given digests.
+     *
+     * @param childDigests the digests of the children of this computation, in order
+     */
+    default Result<byte[]> digestNode(List<byte[]> childDigests) {
+        Result<byte[]> node = serializeNode();
+        if (node.isEmpty()) {
+            return Result.empty(new Problem("cannot serialize " + this));
+        }
+        MessageDigest messageDigest;
+        try {
+            messageDigest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            return Result.empty(e);
+        }
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(byteArrayOutputStream)) {
+            out.writeUTF(getClass().getName());
+            out.writeInt(childDigests.size());
+            out.writeInt(node.get().length);
+            out.write(node.get());
+        } catch (IOException e) {
+            return Result.empty(e);
+        }
+        messageDigest.update(byteArrayOutputStream.toByteArray());
+        for (byte[] childDigest : childDigests) {
+            messageDigest.update(childDigest);
+        }
+        return Result.of(messageDigest.digest());
+    }
+
+    /**
+     * {@return a serialization of this computation (and its children) that is stable across JVM runs, if any}
+     * Two computations are serialized into the same byte array if and only if they are equal trees,
+     * provided that all nodes implement {@link #serializeNode()} correctly.
+     * Thus, the serialization can be used as a persistent key for this computation.
+     * As it grows with the size of the tree, {@link #getDigest()} is better suited as a key for large trees.
+     * If any node cannot be serialized, an empty result is returned.
+     */
+    default Result<byte[]> serialize() {
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(byteArrayOutputStream)) {
+            ArrayDeque<IComputation<?>> stack = new ArrayDeque<>();
+            stack.push(this);
+            while (!stack.isEmpty()) {
+                IComputation<?> computation = stack.pop();
+                Result<byte[]> node = computation.serializeNode();
+                if (node.isEmpty()) {
+                    return Result.empty(new Problem("cannot serialize " + computation));
+                }
+                List<? extends IComputation<?>> children = computation.getChildren();
+                out.writeUTF(computation.getClass().getName());
+                out.writeInt(children.size());
+                out.writeInt(node.get().length);
+                out.write(node.get());
+                for (int i = children.size() - 1; i >= 0; i--) {
+                    stack.push(children.get(i));
+                }
+            }
+        } catch (IOException e) {
+            return Result.empty(e);
+        }
+        return Result.of(byteArrayOutputStream.toByteArray());
     }
 
     // TODO: validate whether a computation is sensible.
@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-base.
+ *
+ * base is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * base is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with base. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-base> for further information.
+ */
+package de.featjar.base.computation;
+
+import de.featjar.base.data.Result;
+import net.tascalate.concurrent.CompletablePromise;
+import net.tascalate.concurrent.DependentPromise;
+import net.tascalate.concurrent.PromiseOrigin;
+
+/**
+ * A computation that is in flight and shared by all identical computations that are scheduled concurrently.
+ * Each of them {@link #join(Progress) joins} it with its own {@link FutureResult},
+ * which can be cancelled without affecting the others.
+ * The shared computation runs with its own {@link CancellationToken} and is only cancelled
+ * when all joined future results have been cancelled before it is done.
+ *
+ * @param <T> the type of the computation result
+ * @author Sebastian Krieter
+ * @see Cache#tryJoin(IComputation, InFlightComputation)
+ */
+public class InFlightComputation<T> {
+
+    protected final CompletablePromise<Result<T>> promise = new CompletablePromise<>();
+    protected final Progress progress = new Progress();
+    protected int numberOfJoiners;
+    protected boolean released;
+
+    /**
+     * Creates a computation that is not in flight yet.
+     * It must be {@link #complete(DependentPromise) completed} by whoever registers it in the cache.
+     */
+    public InFlightComputation() {
+        progress.setCancellationToken(new CancellationToken());
+    }
+
+    /**
+     * {@return the shared promise of this computation}
+     * Must not be cancelled directly, as this would cancel all joined future results.
+     */
+    public DependentPromise<Result<T>> getPromise() {
+        return DependentPromise.from(promise, PromiseOrigin.ALL);
+    }
+
+    /**
+     * {@return the shared progress of this computation}
+     * Its cancellation token is cancelled when all joined future results have been cancelled.
+     */
+    public Progress getProgress() {
+        return progress;
+    }
+
+    /**
+     * Completes this computation with the given promise.
+     * The given promise is cancelled when this computation is cancelled.
+     *
+     * @param promise the promise that computes the result
+     */
+    public void complete(DependentPromise<Result<T>> promise) {
+        promise.whenComplete((result, e) -> {
+            if (e != null) {
+                this.promise.completeExceptionally(e);
+            } else {
+                this.promise.complete(result);
+            }
+        });
+        this.promise.whenComplete((result, e) -> {
+            if (e != null) {
+                promise.cancel(true);
+            }
+        });
+    }
+
+    /**
+     * {@return whether all joined future results have been cancelled, so this computation cannot be joined anymore}
+     */
+    public synchronized boolean isReleased() {
+        return released;
+    }
+
+    /**
+     * {@return a new future result for this computation, if it can still be joined}
+     * Cancelling the returned future result before this computation is done releases it.
+     *
+     * @param progress the progress of the returned future result, which includes the shared progress
+     */
+    public synchronized Result<FutureResult<T>> join(Progress progress) {
+        if (released) {
+            return Result.empty();
+        }
+        numberOfJoiners++;
+        CompletablePromise<Result<T>> joinedPromise = new CompletablePromise<>();
+        promise.whenComplete((result, e) -> {
+            if (e != null) {
+                joinedPromise.completeExceptionally(e);
+            } else {
+                joinedPromise.complete(result);
+            }
+        });
+        joinedPromise.whenComplete((result, e) -> {
+            if (!promise.isDone()) {
+                release();
+            }
+        });
+        progress.addChild(this.progress);
+        return Result.of(new FutureResult<>(DependentPromise.from(joinedPromise, PromiseOrigin.ALL), progress));
+    }
+
+    /**
+     * Releases one joined future result.
+     * When no joined future result is left, this computation is cancelled.
+     */
+    protected void release() {
+        synchronized (this) {
+            if (released || --numberOfJoiners > 0) {
+                return;
+            }
+            released = true;
+        }
+        progress.getCancellationToken().cancel();
+        promise.cancel(true);
+    }
+}
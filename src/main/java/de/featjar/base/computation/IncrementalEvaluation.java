@@ -0,0 +1,214 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-base.
+ *
+ * base is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * base is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with base. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-base> for further information.
+ */
+package de.featjar.base.computation;
+
+import de.featjar.base.data.Result;
+import de.featjar.base.tree.structure.ATree;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Evaluates a computation incrementally.
+ * Remembers the result of every computation in the tree together with the computations that depend on it.
+ * When a dependency is replaced through this evaluation (e.g., a {@link ComputeConstant} is set to a new value),
+ * only the results on the path from the replaced dependency to the root computation are invalidated.
+ * The next evaluation then only recomputes this dirty path and reuses all other results.
+ * This is suited for interactive loops that repeatedly modify a single input and reevaluate an analysis.
+ * Computations are tracked by identity, not by structural equality, so modifications are never masked by stale,
+ * structurally equal results.
+ * Computations in the tree must only be modified through this evaluation or be reported with {@link #invalidate(IComputation)}.
+ *
+ * @param <T> the type of the computation result
+ * @author Sebastian Krieter
+ */
+public class IncrementalEvaluation<T> {
+    protected final IComputation<T> computation;
+    protected final Supplier<Progress> progressSupplier;
+    protected final Map<IComputation<?>, Result<?>> results = new IdentityHashMap<>();
+    protected final Map<IComputation<?>, List<IComputation<?>>> dependents = new IdentityHashMap<>();
+    protected int numberOfComputedComputations;
+
+    /**
+     * Creates an incremental evaluation.
+     *
+     * @param computation the root computation
+     */
+    public IncrementalEvaluation(IComputation<T> computation) {
+        this(computation, () -> Progress.Null.NULL);
+    }
+
+    /**
+     * Creates an incremental evaluation.
+     *
+     * @param computation      the root computation
+     * @param progressSupplier creates a {@link Progress} for each computed computation
+     */
+    public IncrementalEvaluation(IComputation<T> computation, Supplier<Progress> progressSupplier) {
+        this.computation = computation;
+        this.progressSupplier = progressSupplier;
+    }
+
+    /**
+     * {@return the root computation}
+     */
+    public IComputation<T> getComputation() {
+        return computation;
+    }
+
+    /**
+     * {@return the result of the root computation}
+     * Only computes the computations whose results have been invalidated since the last evaluation.
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized Result<T> compute() {
+        numberOfComputedComputations = 0;
+        return (Result<T>) compute(computation);
+    }
+
+    private Result<?> compute(IComputation<?> computation) {
+        Result<?> result = results.get(computation);
+        if (result != null) {
+            return result;
+        }
+        List<Result<?>> dependencyResults = new ArrayList<>(computation.getChildrenCount());
+        for (IComputation<?> child : computation.getChildren()) {
+            List<IComputation<?>> childDependents = dependents.computeIfAbsent(child, c -> new ArrayList<>(1));
+            if (!containsIdentical(childDependents, computation)) {
+                childDependents.add(computation);
+            }
+            dependencyResults.add(compute(child));
+        }
+        try {
+            Progress progress = progressSupplier.get();
+            result = computation
+                    .mergeResults(dependencyResults)
+                    .flatMap(dependencyList -> ComputationContext.compute(computation, dependencyList, progress));
+        } catch (Exception e) {
+            result = Result.empty(e);
+        }
+        numberOfComputedComputations++;
+        results.put(computation, result);
+        return result;
+    }
+
+    /**
+     * Replaces a dependency of a computation in the tree with a constant value and invalidates the dirty path.
+     *
+     * @param computation the computation, which must be part of the tree
+     * @param dependency  the dependency
+     * @param value       the new value
+     * @param <U>         the type of the dependency
+     */
+    public <U> void set(IComputation<?> computation, Dependency<U> dependency, U value) {
+        setDependencyComputation(computation, dependency, Computations.of(value));
+    }
+
+    /**
+     * Replaces a dependency of a computation in the tree and invalidates the dirty path.
+     * Results that are only needed by the replaced dependency are discarded.
+     *
+     * @param computation           the computation, which must be part of the tree
+     * @param dependency            the dependency
+     * @param dependencyComputation the new dependency computation
+     * @param <U>                   the type of the dependency
+     */
+    public synchronized <U> void setDependencyComputation(
+            IComputation<?> computation, Dependency<U> dependency, IComputation<? extends U> dependencyComputation) {
+        IComputation<?> oldDependencyComputation = computation.getChildren().get(dependency.getIndex());
+        if (oldDependencyComputation == dependencyComputation) {
+            return;
+        }
+        computation.setDependencyComputation(dependency, dependencyComputation);
+        if (!containsIdentical(computation.getChildren(), oldDependencyComputation)) {
+            detach(oldDependencyComputation, computation);
+        }
+        invalidate(computation);
+    }
+
+    /**
+     * Invalidates the result of the given computation and of all computations that depend on it.
+     * Must be called when a computation in the tree has been modified without this evaluation.
+     *
+     * @param computation the modified computation
+     */
+    public synchronized void invalidate(IComputation<?> computation) {
+        Set<IComputation<?>> invalidated = Collections.newSetFromMap(new IdentityHashMap<>());
+        ArrayDeque<IComputation<?>> stack = new ArrayDeque<>();
+        stack.push(computation);
+        while (!stack.isEmpty()) {
+            IComputation<?> dirtyComputation = stack.pop();
+            if (invalidated.add(dirtyComputation)) {
+                results.remove(dirtyComputation);
+                if (dirtyComputation instanceof ATree) {
+                    ((ATree<?>) dirtyComputation).invalidateHashCode();
+                }
+                List<IComputation<?>> computationDependents = dependents.get(dirtyComputation);
+                if (computationDependents != null) {
+                    computationDependents.forEach(stack::push);
+                }
+            }
+        }
+    }
+
+    private void detach(IComputation<?> computation, IComputation<?> dependent) {
+        List<IComputation<?>> computationDependents = dependents.get(computation);
+        if (computationDependents == null) {
+            return;
+        }
+        computationDependents.removeIf(d -> d == dependent);
+        if (computationDependents.isEmpty()) {
+            dependents.remove(computation);
+            results.remove(computation);
+            for (IComputation<?> child : computation.getChildren()) {
+                detach(child, computation);
+            }
+        }
+    }
+
+    private static boolean containsIdentical(List<? extends IComputation<?>> computations, IComputation<?> computation) {
+        for (IComputation<?> other : computations) {
+            if (other == computation) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * {@return the number of computations that have been computed during the last evaluation}
+     */
+    public synchronized int getNumberOfComputedComputations() {
+        return numberOfComputedComputations;
+    }
+
+    /**
+     * {@return the number of computations whose results are currently remembered}
+     */
+    public synchronized int getNumberOfResults() {
+        return results.size();
+    }
+}
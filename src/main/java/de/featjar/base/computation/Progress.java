@@ -20,17 +20,62 @@
  */
 package de.featjar.base.computation;
 
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.DoubleAdder;
 import java.util.function.Supplier;
 
 /**
  * Tracks progress of an asynchronous computation.
  * Attached to a {@link FutureResult}.
+ * Can safely be updated and read by different threads.
+ * A progress can be composed of weighted child progresses (see {@link #addChild(Progress, double)}),
+ * for example, the progresses of the dependencies of a computation.
+ * Changes are pushed up to all parent progresses, so that {@link #get()} takes constant time
+ * regardless of the number of (transitive) children.
+ * Also carries the {@link CancellationToken} of the computation, which is checked whenever steps are added.
  *
  * @author Elias Kuiter
  */
 public class Progress implements Supplier<Double> {
-    protected long totalSteps;
-    protected long currentSteps = 0;
+
+    /**
+     * Connects a child progress to a parent progress.
+     * Remembers the percentage of the child that has last been pushed to the parent,
+     * so that only the difference is pushed on each change.
+     */
+    private static class Link {
+        private final Progress parent;
+        private final double weight;
+        private final AtomicLong reportedPercentage = new AtomicLong(Double.doubleToLongBits(0));
+
+        private Link(Progress parent, double weight) {
+            this.parent = parent;
+            this.weight = weight;
+        }
+
+        private void push(Progress child) {
+            double percentage;
+            do {
+                percentage = child.get();
+                double oldPercentage =
+                        Double.longBitsToDouble(reportedPercentage.getAndSet(Double.doubleToLongBits(percentage)));
+                if (percentage != oldPercentage) {
+                    parent.childPercentages.add(weight * (percentage - oldPercentage));
+                    parent.push();
+                }
+                // another thread may have pushed an older percentage in between, so check again
+            } while (percentage != child.get());
+        }
+    }
+
+    protected volatile long totalSteps;
+    protected final AtomicLong currentSteps = new AtomicLong();
+    protected final DoubleAdder childPercentages = new DoubleAdder();
+    protected final DoubleAdder childWeights = new DoubleAdder();
+    protected final List<Link> parents = new CopyOnWriteArrayList<>();
+    protected volatile CancellationToken cancellationToken = CancellationToken.NONE;
 
     public Progress() {
         this(Long.MAX_VALUE);
@@ -44,14 +89,16 @@ public class Progress implements Supplier<Double> {
     }
 
     public static Progress completed(long steps) {
-        return new Progress(steps == 0 ? 1 : steps);
+        Progress progress = new Progress(steps == 0 ? 1 : steps);
+        progress.currentSteps.set(progress.totalSteps);
+        return progress;
     }
 
     /**
      * {@return the progress's current step}
      */
     public long getCurrentStep() {
-        return currentSteps;
+        return currentSteps.get();
     }
 
     /**
@@ -60,7 +107,8 @@ public class Progress implements Supplier<Double> {
      * @param currentStep the current step
      */
     public void setCurrentStep(long currentStep) {
-        this.currentSteps = (totalSteps < currentStep) ? totalSteps : currentStep;
+        currentSteps.set(Math.min(totalSteps, currentStep));
+        push();
     }
 
     /**
@@ -76,7 +124,54 @@ public class Progress implements Supplier<Double> {
      * @param steps the steps
      */
     public void addCurrentSteps(long steps) {
-        setCurrentStep(currentSteps + steps);
+        checkCancel();
+        currentSteps.accumulateAndGet(steps, (currentStep, addedSteps) -> {
+            long nextStep = currentStep + addedSteps;
+            if (addedSteps > 0 && nextStep < currentStep) {
+                nextStep = Long.MAX_VALUE;
+            }
+            return Math.min(totalSteps, nextStep);
+        });
+        push();
+    }
+
+    /**
+     * Sets the progress's current step to its total number of steps.
+     */
+    public void finish() {
+        currentSteps.set(totalSteps);
+        push();
+    }
+
+    /**
+     * {@return the cancellation token of this progress}
+     */
+    public CancellationToken getCancellationToken() {
+        return cancellationToken;
+    }
+
+    /**
+     * Sets the cancellation token of this progress.
+     *
+     * @param cancellationToken the cancellation token
+     */
+    public void setCancellationToken(CancellationToken cancellationToken) {
+        this.cancellationToken = cancellationToken != null ? cancellationToken : CancellationToken.NONE;
+    }
+
+    /**
+     * {@return whether the computation tracked by this progress has been cancelled}
+     */
+    public boolean isCancelled() {
+        return getCancellationToken().isCancelled();
+    }
+
+    /**
+     * Throws a {@link java.util.concurrent.CancellationException}
+     * if the computation tracked by this progress has been cancelled.
+     */
+    public void checkCancel() {
+        getCancellationToken().check();
     }
 
     /**
@@ -93,19 +188,66 @@ public class Progress implements Supplier<Double> {
      * @param totalSteps the total steps
      */
     public void setTotalSteps(long totalSteps) {
-        this.totalSteps = (totalSteps < currentSteps) ? currentSteps : totalSteps;
+        this.totalSteps = Math.max(1, Math.max(currentSteps.get(), totalSteps));
+        push();
+    }
+
+    /**
+     * Adds a child progress, which contributes to this progress with the given weight.
+     * The steps of this progress itself contribute with a weight of one.
+     * A child progress may be added to several parents, but must not be added to one of its own children.
+     *
+     * @param child  the child progress
+     * @param weight the weight of the child progress
+     */
+    public void addChild(Progress child, double weight) {
+        if (weight <= 0) {
+            throw new IllegalArgumentException(String.valueOf(weight));
+        }
+        if (child == this || child instanceof Null) {
+            return;
+        }
+        childWeights.add(weight);
+        Link link = new Link(this, weight);
+        child.parents.add(link);
+        link.push(child);
+    }
+
+    /**
+     * Adds a child progress, which contributes to this progress as much as the steps of this progress itself.
+     *
+     * @param child the child progress
+     */
+    public void addChild(Progress child) {
+        addChild(child, 1);
+    }
+
+    /**
+     * Pushes the current percentage of this progress to all its parents.
+     */
+    protected void push() {
+        for (Link link : parents) {
+            link.push(this);
+        }
     }
 
     /**
-     * {@return this progress' percentage (i.e., the current step divided by the total number of steps)}
+     * {@return this progress' percentage}
+     * Without children, this is the current step divided by the total number of steps.
+     * With children, this is the weighted average of this percentage and the percentages of all children.
      */
     public Double get() {
-        return (double) currentSteps / totalSteps;
+        double percentage = (double) currentSteps.get() / totalSteps;
+        double weights = childWeights.sum();
+        if (weights > 0) {
+            percentage = (percentage + childPercentages.sum()) / (1 + weights);
+        }
+        return Math.max(0, Math.min(1, percentage));
     }
 
     @Override
     public String toString() {
-        return String.format("%d / %d", currentSteps, totalSteps);
+        return String.format("%d / %d", currentSteps.get(), totalSteps);
     }
 
     public static class Null extends Progress {
@@ -120,7 +262,25 @@ public class Progress implements Supplier<Double> {
         @Override
         public void addCurrentSteps(long steps) {}
 
+        @Override
+        public void finish() {}
+
         @Override
         public void setTotalSteps(long totalSteps) {}
+
+        @Override
+        public void addChild(Progress child, double weight) {}
+
+        /**
+         * {@return the cancellation token of the computation that is currently running on this thread}
+         * As the null progress is shared, it does not carry a cancellation token itself.
+         */
+        @Override
+        public CancellationToken getCancellationToken() {
+            return ComputationContext.currentCancellationToken();
+        }
+
+        @Override
+        public void setCancellationToken(CancellationToken cancellationToken) {}
     }
 }
@@ -21,46 +21,472 @@
 package de.featjar.base.computation;
 
 import de.featjar.base.data.Result;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
+import java.lang.ref.WeakReference;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 
+/**
+ * A bounded pool of expensive resources, such as solver instances, that can be shared by concurrent computations.
+ * Resources are created lazily, at most {@link #getSize()} at a time, and leased for the duration of
+ * {@link #use(Function)}.
+ * Waiting for a lease can be bounded by a timeout and is aborted when the calling computation is cancelled.
+ * Resources are validated before they are leased and evicted when they have been idle for too long.
+ * Each thread preferably leases the resource it has used last, which is likely to still be warm.
+ * Statistics on wait time and utilization can be obtained with {@link #getStatistics()}.
+ *
+ * @param <T> the type of the pooled resources
+ * @author Sebastian Krieter
+ */
 public class ResourcePool<T> {
 
-    private final BlockingQueue<T> pool;
-    private Supplier<T> supplier;
+    private static final long POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    /**
+     * A pooled resource and the time it has been returned to the pool.
+     */
+    private static class Entry<T> {
+        private final T resource;
+        // referenced by the threads that used this entry last, so that discarded entries can be collected
+        private final WeakReference<Entry<T>> reference = new WeakReference<>(this);
+        private volatile long releaseNanos;
+
+        private Entry(T resource) {
+            this.resource = resource;
+        }
+    }
+
+    /**
+     * An immutable view of the statistics of a {@link ResourcePool}.
+     */
+    public static class Statistics {
+        protected final int size, leased, idle;
+        protected final long leases, affinityHits, timeouts, created, discarded, waits;
+        protected final long totalWaitNanos, p50WaitNanos, p99WaitNanos, maximumWaitNanos;
+        protected final double utilization;
+
+        protected Statistics(ResourcePool<?> pool) {
+            size = pool.size;
+            leased = pool.getNumberOfLeased();
+            idle = pool.getNumberOfIdle();
+            leases = pool.leases.sum();
+            affinityHits = pool.affinityHits.sum();
+            timeouts = pool.timeouts.sum();
+            created = pool.created.sum();
+            discarded = pool.discarded.sum();
+            CacheStatistics.LatencyHistogram waitTime = pool.waitTime;
+            long[] counts = new long[waitTime.buckets.length()];
+            long total = 0;
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = waitTime.buckets.get(i);
+                total += counts[i];
+            }
+            waits = total;
+            totalWaitNanos = waitTime.totalNanos.sum();
+            maximumWaitNanos = waitTime.maximumNanos.get();
+            p50WaitNanos = waitTime.percentile(counts, total, 0.5);
+            p99WaitNanos = waitTime.percentile(counts, total, 0.99);
+            long elapsedNanos = Math.max(1, System.nanoTime() - pool.startNanos);
+            utilization = Math.min(1, (double) pool.leaseNanos.sum() / ((double) size * elapsedNanos));
+        }
+
+        /**
+         * {@return the maximum number of resources of the pool}
+         */
+        public int getSize() {
+            return size;
+        }
+
+        /**
+         * {@return the number of resources currently leased}
+         */
+        public int getLeased() {
+            return leased;
+        }
+
+        /**
+         * {@return the number of resources currently idle}
+         */
+        public int getIdle() {
+            return idle;
+        }
+
+        /**
+         * {@return the number of completed leases}
+         */
+        public long getLeases() {
+            return leases;
+        }
+
+        /**
+         * {@return the number of leases of the resource the leasing thread has used last}
+         */
+        public long getAffinityHits() {
+            return affinityHits;
+        }
+
+        /**
+         * {@return the number of lease requests that timed out}
+         */
+        public long getTimeouts() {
+            return timeouts;
+        }
+
+        /**
+         * {@return the number of created resources}
+         */
+        public long getCreated() {
+            return created;
+        }
+
+        /**
+         * {@return the number of resources discarded because they were invalid or idle for too long}
+         */
+        public long getDiscarded() {
+            return discarded;
+        }
+
+        /**
+         * {@return the cumulative time spent waiting for leases in nanoseconds}
+         */
+        public long getTotalWaitNanos() {
+            return totalWaitNanos;
+        }
+
+        /**
+         * {@return the average time spent waiting for a lease in nanoseconds, or 0 if there were no leases}
+         */
+        public long getAverageWaitNanos() {
+            return waits == 0 ? 0 : totalWaitNanos / waits;
+        }
+
+        /**
+         * {@return the estimated median time spent waiting for a lease in nanoseconds}
+         */
+        public long getP50WaitNanos() {
+            return p50WaitNanos;
+        }
+
+        /**
+         * {@return the estimated 99th percentile of the time spent waiting for a lease in nanoseconds}
+         */
+        public long getP99WaitNanos() {
+            return p99WaitNanos;
+        }
+
+        /**
+         * {@return the maximum time spent waiting for a lease in nanoseconds}
+         */
+        public long getMaximumWaitNanos() {
+            return maximumWaitNanos;
+        }
+
+        /**
+         * {@return the ratio of the time resources have been leased to the lifetime of the pool times its size}
+         * Only completed leases are considered.
+         */
+        public double getUtilization() {
+            return utilization;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "size=%d, leased=%d, idle=%d, leases=%d, affinity hits=%d, timeouts=%d, created=%d, discarded=%d,"
+                            + " average wait=%.3fms, p99 wait=%.3fms, utilization=%.1f%%",
+                    size,
+                    leased,
+                    idle,
+                    leases,
+                    affinityHits,
+                    timeouts,
+                    created,
+                    discarded,
+                    getAverageWaitNanos() / 1e6,
+                    p99WaitNanos / 1e6,
+                    utilization * 100);
+        }
+    }
+
+    private final Supplier<T> supplier;
+    private final int size;
+    private final Semaphore permits;
+    // most recently released resources first, as they are most likely to be warm
+    private final ConcurrentLinkedDeque<Entry<T>> idleEntries = new ConcurrentLinkedDeque<>();
+    private final ThreadLocal<WeakReference<Entry<T>>> lastEntry = new ThreadLocal<>();
+
+    private Predicate<? super T> validator = resource -> true;
+    private Consumer<? super T> disposer = resource -> {};
+    private Duration leaseTimeout;
+    private Duration maxIdleTime;
 
-    private int maxObjectsToCreate;
+    private final long startNanos = System.nanoTime();
+    private final LongAdder leases = new LongAdder();
+    private final LongAdder affinityHits = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder created = new LongAdder();
+    private final LongAdder discarded = new LongAdder();
+    private final LongAdder leaseNanos = new LongAdder();
+    private final CacheStatistics.LatencyHistogram waitTime = new CacheStatistics.LatencyHistogram();
 
+    /**
+     * Creates a new resource pool.
+     *
+     * @param supplier creates new resources
+     * @param size     the maximum number of resources
+     */
     public ResourcePool(Supplier<T> supplier, int size) {
-        this.supplier = supplier;
-        pool = new ArrayBlockingQueue<>(size, true);
-        maxObjectsToCreate = size;
+        if (size < 1) {
+            throw new IllegalArgumentException(String.valueOf(size));
+        }
+        this.supplier = Objects.requireNonNull(supplier);
+        this.size = size;
+        permits = new Semaphore(size, true);
+    }
+
+    /**
+     * Sets the validator of this pool, which is called before a resource is leased.
+     * Resources that are not valid (e.g., crashed solver processes) are disposed and replaced by new resources.
+     *
+     * @param validator the validator
+     * @return this pool
+     */
+    public ResourcePool<T> setValidator(Predicate<? super T> validator) {
+        this.validator = Objects.requireNonNull(validator);
+        return this;
+    }
+
+    /**
+     * Sets the disposer of this pool, which is called when a resource is discarded.
+     *
+     * @param disposer the disposer
+     * @return this pool
+     */
+    public ResourcePool<T> setDisposer(Consumer<? super T> disposer) {
+        this.disposer = Objects.requireNonNull(disposer);
+        return this;
+    }
+
+    /**
+     * Sets the default time to wait for a lease.
+     *
+     * @param leaseTimeout the lease timeout, {@code null} to wait indefinitely
+     * @return this pool
+     */
+    public ResourcePool<T> setLeaseTimeout(Duration leaseTimeout) {
+        this.leaseTimeout = leaseTimeout;
+        return this;
+    }
+
+    /**
+     * Sets the time after which idle resources are evicted.
+     * Idle resources are evicted when they would be leased or when {@link #evictIdle()} is called.
+     *
+     * @param maxIdleTime the maximum idle time, {@code null} to keep idle resources indefinitely
+     * @return this pool
+     */
+    public ResourcePool<T> setMaxIdleTime(Duration maxIdleTime) {
+        this.maxIdleTime = maxIdleTime;
+        return this;
     }
 
+    /**
+     * Applies a function to a leased resource, waiting for a lease at most for the default lease timeout.
+     *
+     * @param function the function
+     * @param <R>      the type of the function's result
+     * @return the function's result, or an empty result if no resource could be leased or the function failed
+     * @see #setLeaseTimeout(Duration)
+     */
     public <R> Result<R> use(Function<T, R> function) {
-        if (maxObjectsToCreate > 0) {
-            synchronized (pool) {
-                if (maxObjectsToCreate > 0) {
-                    --maxObjectsToCreate;
-                    pool.offer(supplier.get());
-                } else {
-                    supplier = null;
+        return use(function, leaseTimeout);
+    }
+
+    /**
+     * Applies a function to a leased resource.
+     * While waiting for a lease, the cancellation of the calling computation is checked regularly.
+     *
+     * @param function the function
+     * @param timeout  the time to wait for a lease, {@code null} to wait indefinitely
+     * @param <R>      the type of the function's result
+     * @return the function's result, or an empty result if no resource could be leased or the function failed
+     */
+    public <R> Result<R> use(Function<T, R> function, Duration timeout) {
+        Entry<T> entry = null;
+        try {
+            if (!acquire(timeout)) {
+                timeouts.increment();
+                return Result.empty(new TimeoutException("no resource available within " + timeout));
+            }
+            try {
+                entry = lease();
+            } finally {
+                if (entry == null) {
+                    permits.release();
                 }
             }
-        }
-        T resource = null;
-        try {
-            resource = pool.take();
-            return Result.ofNullable(function.apply(resource));
+            long leaseStartNanos = System.nanoTime();
+            try {
+                return Result.ofNullable(function.apply(entry.resource));
+            } finally {
+                leaseNanos.add(System.nanoTime() - leaseStartNanos);
+                leases.increment();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Result.empty(e);
         } catch (Exception e) {
             return Result.empty(e);
         } finally {
-            if (resource != null) {
-                boolean success = pool.offer(resource);
-                assert success;
+            if (entry != null) {
+                release(entry);
+            }
+        }
+    }
+
+    private boolean acquire(Duration timeout) throws InterruptedException {
+        CancellationToken cancellationToken = ComputationContext.currentCancellationToken();
+        long startNanos = System.nanoTime();
+        long timeoutNanos = timeout == null ? Long.MAX_VALUE : Math.max(0, timeout.toNanos());
+        try {
+            if (permits.tryAcquire()) {
+                return true;
+            }
+            while (true) {
+                cancellationToken.check();
+                long remainingNanos = timeoutNanos - (System.nanoTime() - startNanos);
+                if (remainingNanos <= 0) {
+                    return false;
+                }
+                if (permits.tryAcquire(Math.min(remainingNanos, POLL_NANOS), TimeUnit.NANOSECONDS)) {
+                    return true;
+                }
+            }
+        } finally {
+            waitTime.record(System.nanoTime() - startNanos);
+        }
+    }
+
+    private Entry<T> lease() {
+        WeakReference<Entry<T>> reference = lastEntry.get();
+        Entry<T> entry = reference != null ? reference.get() : null;
+        if (entry != null && idleEntries.removeFirstOccurrence(entry)) {
+            if (isUsable(entry)) {
+                affinityHits.increment();
+                return entry;
+            }
+            discard(entry);
+        }
+        if (reference != null) {
+            lastEntry.remove();
+        }
+        while ((entry = idleEntries.pollFirst()) != null) {
+            if (isUsable(entry)) {
+                return entry;
+            }
+            discard(entry);
+        }
+        // a permit is held, so all other resources are either idle or leased by other permit holders
+        entry = new Entry<>(supplier.get());
+        created.increment();
+        return entry;
+    }
+
+    private void release(Entry<T> entry) {
+        entry.releaseNanos = System.nanoTime();
+        lastEntry.set(entry.reference);
+        idleEntries.offerFirst(entry);
+        permits.release();
+    }
+
+    private boolean isUsable(Entry<T> entry) {
+        if (isExpired(entry, System.nanoTime())) {
+            return false;
+        }
+        try {
+            return validator.test(entry.resource);
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    private boolean isExpired(Entry<T> entry, long nanos) {
+        Duration maxIdleTime = this.maxIdleTime;
+        return maxIdleTime != null && nanos - entry.releaseNanos > maxIdleTime.toNanos();
+    }
+
+    private void discard(Entry<T> entry) {
+        discarded.increment();
+        try {
+            disposer.accept(entry.resource);
+        } catch (RuntimeException e) {
+            // the resource is dropped anyway
+        }
+    }
+
+    /**
+     * Disposes all resources that have been idle for longer than the maximum idle time.
+     * Can be called periodically to release resources that are not needed anymore.
+     *
+     * @return the number of disposed resources
+     * @see #setMaxIdleTime(Duration)
+     */
+    public int evictIdle() {
+        long nanos = System.nanoTime();
+        int count = 0;
+        for (Entry<T> entry : idleEntries) {
+            if (isExpired(entry, nanos) && idleEntries.removeFirstOccurrence(entry)) {
+                discard(entry);
+                count++;
             }
         }
+        return count;
+    }
+
+    /**
+     * Disposes all idle resources.
+     * Leased resources are returned to the pool as usual and can be disposed by calling this method again.
+     */
+    public void clear() {
+        Entry<T> entry;
+        while ((entry = idleEntries.pollFirst()) != null) {
+            discard(entry);
+        }
+    }
+
+    /**
+     * {@return the maximum number of resources of this pool}
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * {@return the number of resources currently leased}
+     */
+    public int getNumberOfLeased() {
+        return size - permits.availablePermits();
+    }
+
+    /**
+     * {@return the number of resources currently idle}
+     */
+    public int getNumberOfIdle() {
+        return idleEntries.size();
+    }
+
+    /**
+     * {@return a snapshot of the statistics of this pool}
+     */
+    public Statistics getStatistics() {
+        return new Statistics(this);
     }
 }
@@ -20,13 +20,19 @@
  */
 package de.featjar.base.data;
 
+import java.math.BigInteger;
+import java.util.Arrays;
+
 /**
  * Computes binomial coefficients and factorial.
+ * All binomial coefficients up to the given maximums are computed on construction, row by row with Pascal's rule,
+ * so lookups neither lock nor allocate and a calculator can be shared by threads.
  *
  * @author Sebastian Krieter
  */
 public class BinomialCalculator {
 
+    // binomial[k][n] = n choose k, saturated at Long.MAX_VALUE
     private final long[][] binomial;
     private final long[] factorial;
 
@@ -35,66 +41,112 @@ public class BinomialCalculator {
     public BinomialCalculator(int maxK, int maxN) {
         this.maxK = maxK;
         this.maxN = maxN;
-        binomial = new long[maxN + 1][maxK + 1];
+        binomial = new long[maxK + 1][maxN + 1];
+        Arrays.fill(binomial[0], 1);
+        for (int k = 1; k <= maxK; k++) {
+            long[] row = binomial[k];
+            long[] previousRow = binomial[k - 1];
+            for (int n = k; n <= maxN; n++) {
+                long sum = row[n - 1] + previousRow[n - 1];
+                row[n] = sum < 0 ? Long.MAX_VALUE : sum;
+            }
+        }
         factorial = new long[maxK + 1];
+        factorial[0] = 1;
+        for (int k = 1; k <= maxK; k++) {
+            factorial[k] = factorial[k - 1] * k;
+        }
     }
 
     public long factorial(int k) {
-        synchronized (factorial) {
-            long f = factorial[k];
-            if (f == 0) {
-                f = 1;
-                for (int i = 2; i <= k; i++) {
-                    f *= i;
-                }
-                factorial[k] = f;
-            }
-            return f;
-        }
+        return factorial[k];
     }
 
     public long binomial() {
         return binomial(maxN, maxK);
     }
 
+    /**
+     * {@return n choose k}
+     *
+     * @param n the number of elements, at most the maximum n of this calculator
+     * @param k the number of chosen elements, at most the maximum k of this calculator
+     * @throws ArithmeticException if the binomial coefficient does not fit into a long
+     */
     public long binomial(int n, int k) {
-        synchronized (binomial) {
-            long b = binomial[n][k];
-            if (b == 0) {
-                b = computeBinomial(n, k);
-                binomial[n][k] = b;
-            }
-            return b;
+        long b = binomial[k][n];
+        if (b == Long.MAX_VALUE) {
+            throw new ArithmeticException("long overflow");
         }
+        return b;
     }
 
+    /**
+     * {@return the combination with the given index in the combinatorial number system} That is, the k-combination
+     * c_1 < ... < c_k of {0, ..., n - 1} such that the index equals (c_1 choose 1) + ... + (c_k choose k).
+     *
+     * @param index the index, between 0 (inclusive) and {@link #binomial()} (exclusive)
+     */
     public int[] combination(long index) {
         final int[] combination = new int[maxK];
+        combination(index, combination, 0);
+        return combination;
+    }
+
+    /**
+     * Writes the combination with the given index in the combinatorial number system into the given array.
+     * Each element is found by a binary search over the binomial coefficients, which takes O(k log n) time in total
+     * and does not use floating-point arithmetic.
+     *
+     * @param index       the index, between 0 (inclusive) and {@link #binomial()} (exclusive)
+     * @param combination the array to write the combination to
+     * @param offset      the position of the first element of the combination in the array
+     * @throws IllegalArgumentException if the index is out of range
+     */
+    public void combination(long index, int[] combination, int offset) {
+        if (index < 0 || index >= binomial[maxK][maxN]) {
+            throw new IllegalArgumentException(String.valueOf(index));
+        }
+        int high = maxN - 1;
         for (int i = maxK; i > 0; i--) {
-            if (index <= 0) {
-                combination[i - 1] = i - 1;
-            } else {
-                final int p = (int) Math.ceil(Math.pow(index * factorial(i), (1.0 / i)));
-                for (int j = p; j <= maxN; j++) {
-                    if (binomial(j, i) > index) {
-                        combination[i - 1] = j - 1;
-                        index -= binomial(j - 1, i);
-                        break;
-                    }
+            // finds the largest element c with (c choose i) <= index, saturated coefficients exceed any valid index
+            long[] row = binomial[i];
+            int low = i - 1;
+            while (low < high) {
+                int middle = (low + high + 1) >>> 1;
+                if (row[middle] <= index) {
+                    low = middle;
+                } else {
+                    high = middle - 1;
                 }
             }
+            combination[offset + i - 1] = low;
+            index -= row[low];
+            high = low - 1;
         }
-        return combination;
     }
 
+    /**
+     * {@return the index of the given combination in the combinatorial number system}
+     *
+     * @param c the combination, in ascending order
+     * @throws ArithmeticException if the index does not fit into a long
+     */
     public long index(int[] c) {
         long index = 0;
         for (int i = 0; i < maxK; i++) {
-            index += binomial(c[i], i + 1);
+            index = Math.addExact(index, binomial(c[i], i + 1));
         }
         return index;
     }
 
+    /**
+     * {@return n choose k}
+     *
+     * @param n the number of elements
+     * @param k the number of chosen elements
+     * @throws ArithmeticException if the binomial coefficient does not fit into a long
+     */
     public static long computeBinomial(int n, int k) {
         if (n < k) {
             return 0;
@@ -104,8 +156,33 @@ public class BinomialCalculator {
         }
 
         long b = k == 0 ? 1 : n;
-        for (int i = 1; i < k; i++) {
-            b = Math.multiplyExact(b, n - i) / (i + 1);
+        try {
+            for (int i = 1; i < k; i++) {
+                b = Math.multiplyExact(b, n - i) / (i + 1);
+            }
+            return b;
+        } catch (ArithmeticException e) {
+            // intermediate products may overflow even if the coefficient fits
+            return computeBigBinomial(n, k).longValueExact();
+        }
+    }
+
+    /**
+     * {@return n choose k, without overflow}
+     *
+     * @param n the number of elements
+     * @param k the number of chosen elements
+     */
+    public static BigInteger computeBigBinomial(int n, int k) {
+        if (n < k) {
+            return BigInteger.ZERO;
+        }
+        if (k > (n - k)) {
+            k = n - k;
+        }
+        BigInteger b = BigInteger.ONE;
+        for (int i = 0; i < k; i++) {
+            b = b.multiply(BigInteger.valueOf(n - i)).divide(BigInteger.valueOf(i + 1));
         }
         return b;
     }
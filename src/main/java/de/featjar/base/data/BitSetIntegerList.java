@@ -0,0 +1,262 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-base.
+ *
+ * base is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * base is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with base. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-base> for further information.
+ */
+package de.featjar.base.data;
+
+/**
+ * A set of literals over the variables 1..n, stored as a sorted integer list and as two dense bit sets
+ * (one for positive and one for negative literals).
+ * Testing for an absent literal takes constant time,
+ * while set operations on two bit set integer lists over the same variables
+ * (e.g., {@link #union(SortedIntegerList)}) work on 64 variables at a time.
+ * For other sorted integer lists, the merge-based operations of {@link SortedIntegerList} are used.
+ * Suits sets with many literals relative to the number of variables, such as configurations.
+ *
+ * @author Sebastian Krieter
+ */
+public class BitSetIntegerList extends SortedIntegerList {
+
+    private static final long serialVersionUID = -3342856361934447313L;
+
+    protected final int variableCount;
+    protected final long[] positiveWords;
+    protected final long[] negativeWords;
+
+    /**
+     * Creates a new bit set integer list from a given array of literals.
+     * Duplicate literals are ignored.
+     *
+     * @param variableCount the number of variables
+     * @param literals      the literals, with absolute values in 1..variableCount
+     * @throws IllegalArgumentException when a literal is zero or out of range
+     */
+    public BitSetIntegerList(int variableCount, int... literals) {
+        this(variableCount, toWords(variableCount, literals, true), toWords(variableCount, literals, false));
+    }
+
+    /**
+     * Creates a new bit set integer list from the literals of a given integer list.
+     *
+     * @param variableCount the number of variables
+     * @param integerList   the integer list
+     * @throws IllegalArgumentException when a literal is zero or out of range
+     */
+    public BitSetIntegerList(int variableCount, IntegerList integerList) {
+        this(variableCount, integerList.get());
+    }
+
+    /**
+     * Creates a new bit set integer list from given bit sets, which are not copied.
+     *
+     * @param variableCount the number of variables
+     * @param positiveWords the bit set of positive literals, bit {@code i} stands for literal {@code i + 1}
+     * @param negativeWords the bit set of negative literals, bit {@code i} stands for literal {@code -(i + 1)}
+     */
+    protected BitSetIntegerList(int variableCount, long[] positiveWords, long[] negativeWords) {
+        super(toElements(positiveWords, negativeWords), false);
+        this.variableCount = variableCount;
+        this.positiveWords = positiveWords;
+        this.negativeWords = negativeWords;
+    }
+
+    private static long[] toWords(int variableCount, int[] literals, boolean positive) {
+        if (variableCount < 0) {
+            throw new IllegalArgumentException(String.valueOf(variableCount));
+        }
+        long[] words = new long[(variableCount + 63) >>> 6];
+        for (int literal : literals) {
+            if (literal == 0 || literal > variableCount || literal < -variableCount) {
+                throw new IllegalArgumentException(String.valueOf(literal));
+            }
+            if (literal > 0 == positive) {
+                int bit = Math.abs(literal) - 1;
+                words[bit >>> 6] |= 1L << bit;
+            }
+        }
+        return words;
+    }
+
+    private static int[] toElements(long[] positiveWords, long[] negativeWords) {
+        int negativeCount = bitCount(negativeWords);
+        int[] elements = new int[negativeCount + bitCount(positiveWords)];
+        // negative literals come first, in ascending order, so in descending order of their variables
+        int index = negativeCount;
+        for (int i = 0; i < negativeWords.length; i++) {
+            long word = negativeWords[i];
+            while (word != 0) {
+                elements[--index] = -((i << 6) + Long.numberOfTrailingZeros(word) + 1);
+                word &= word - 1;
+            }
+        }
+        index = negativeCount;
+        for (int i = 0; i < positiveWords.length; i++) {
+            long word = positiveWords[i];
+            while (word != 0) {
+                elements[index++] = (i << 6) + Long.numberOfTrailingZeros(word) + 1;
+                word &= word - 1;
+            }
+        }
+        return elements;
+    }
+
+    private static int bitCount(long[] words) {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * {@return the number of variables}
+     */
+    public int getVariableCount() {
+        return variableCount;
+    }
+
+    /**
+     * {@return whether this integer list contains the given literal} Takes constant time.
+     *
+     * @param literal the literal
+     */
+    public boolean containsLiteral(int literal) {
+        if (literal == 0 || literal > variableCount || literal < -variableCount) {
+            return false;
+        }
+        int bit = Math.abs(literal) - 1;
+        long[] words = literal > 0 ? positiveWords : negativeWords;
+        return (words[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    @Override
+    public int indexOf(int integer) {
+        return containsLiteral(integer) ? super.indexOf(integer) : -1;
+    }
+
+    private boolean isCompatible(SortedIntegerList other) {
+        return other instanceof BitSetIntegerList && ((BitSetIntegerList) other).variableCount == variableCount;
+    }
+
+    @Override
+    public SortedIntegerList union(SortedIntegerList other) {
+        if (!isCompatible(other)) {
+            return super.union(other);
+        }
+        BitSetIntegerList bitSet = (BitSetIntegerList) other;
+        long[] positive = new long[positiveWords.length];
+        long[] negative = new long[negativeWords.length];
+        for (int i = 0; i < positive.length; i++) {
+            positive[i] = positiveWords[i] | bitSet.positiveWords[i];
+            negative[i] = negativeWords[i] | bitSet.negativeWords[i];
+        }
+        return new BitSetIntegerList(variableCount, positive, negative);
+    }
+
+    @Override
+    public SortedIntegerList intersection(SortedIntegerList other) {
+        if (!isCompatible(other)) {
+            return super.intersection(other);
+        }
+        BitSetIntegerList bitSet = (BitSetIntegerList) other;
+        long[] positive = new long[positiveWords.length];
+        long[] negative = new long[negativeWords.length];
+        for (int i = 0; i < positive.length; i++) {
+            positive[i] = positiveWords[i] & bitSet.positiveWords[i];
+            negative[i] = negativeWords[i] & bitSet.negativeWords[i];
+        }
+        return new BitSetIntegerList(variableCount, positive, negative);
+    }
+
+    @Override
+    public SortedIntegerList difference(SortedIntegerList other) {
+        if (!isCompatible(other)) {
+            return super.difference(other);
+        }
+        BitSetIntegerList bitSet = (BitSetIntegerList) other;
+        long[] positive = new long[positiveWords.length];
+        long[] negative = new long[negativeWords.length];
+        for (int i = 0; i < positive.length; i++) {
+            positive[i] = positiveWords[i] & ~bitSet.positiveWords[i];
+            negative[i] = negativeWords[i] & ~bitSet.negativeWords[i];
+        }
+        return new BitSetIntegerList(variableCount, positive, negative);
+    }
+
+    @Override
+    public BitSetIntegerList negation() {
+        return new BitSetIntegerList(variableCount, negativeWords, positiveWords);
+    }
+
+    @Override
+    public boolean isSubsetOf(SortedIntegerList other) {
+        if (!isCompatible(other)) {
+            return super.isSubsetOf(other);
+        }
+        BitSetIntegerList bitSet = (BitSetIntegerList) other;
+        for (int i = 0; i < positiveWords.length; i++) {
+            if ((positiveWords[i] & ~bitSet.positiveWords[i]) != 0
+                    || (negativeWords[i] & ~bitSet.negativeWords[i]) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean intersects(SortedIntegerList other) {
+        if (!isCompatible(other)) {
+            return super.intersects(other);
+        }
+        BitSetIntegerList bitSet = (BitSetIntegerList) other;
+        for (int i = 0; i < positiveWords.length; i++) {
+            if ((positiveWords[i] & bitSet.positiveWords[i]) != 0
+                    || (negativeWords[i] & bitSet.negativeWords[i]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int sizeOfIntersection(SortedIntegerList other) {
+        if (!isCompatible(other)) {
+            return super.sizeOfIntersection(other);
+        }
+        BitSetIntegerList bitSet = (BitSetIntegerList) other;
+        int count = 0;
+        for (int i = 0; i < positiveWords.length; i++) {
+            count += Long.bitCount(positiveWords[i] & bitSet.positiveWords[i])
+                    + Long.bitCount(negativeWords[i] & bitSet.negativeWords[i]);
+        }
+        return count;
+    }
+
+    /**
+     * {@return whether this integer list contains a literal and its negation}
+     */
+    public boolean hasComplementaryLiterals() {
+        for (int i = 0; i < positiveWords.length; i++) {
+            if ((positiveWords[i] & negativeWords[i]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
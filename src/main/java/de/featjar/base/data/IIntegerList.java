@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-base.
+ *
+ * base is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * base is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with base. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-base> for further information.
+ */
+package de.featjar.base.data;
+
+import java.util.stream.IntStream;
+
+/**
+ * Read access to a list of integers.
+ * Implemented by {@link IntegerList} and by the flyweight views of an {@link IntegerListStore}.
+ *
+ * @author Sebastian Krieter
+ */
+public interface IIntegerList {
+
+    /**
+     * {@return the value at the given index of this integer list}
+     *
+     * @param index the index
+     * @throws IndexOutOfBoundsException when the index is invalid
+     */
+    int get(int index);
+
+    /**
+     * {@return the number of integers in this integer list}
+     */
+    int size();
+
+    /**
+     * {@return whether this integer list is empty}
+     */
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * {@return the first index of the given integer in this integer list, or a negative number if it is not contained}
+     *
+     * @param integer the integer
+     */
+    default int indexOf(int integer) {
+        int size = size();
+        for (int i = 0; i < size; i++) {
+            if (get(i) == integer) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * {@return whether this integer list contains the given integer}
+     *
+     * @param integer the integer
+     */
+    default boolean contains(int integer) {
+        return indexOf(integer) >= 0;
+    }
+
+    /**
+     * {@return whether this integer list contains all of the given integers}
+     *
+     * @param integers the integers
+     */
+    default boolean containsAll(int... integers) {
+        for (int integer : integers) {
+            if (!contains(integer)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * {@return whether this integer list contains any of the given integers}
+     *
+     * @param integers the integers
+     */
+    default boolean containsAny(int... integers) {
+        for (int integer : integers) {
+            if (contains(integer)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * {@return a copy of this integer list's integers} The returned array may be modified.
+     */
+    default int[] copy() {
+        int[] copy = new int[size()];
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = get(i);
+        }
+        return copy;
+    }
+
+    /**
+     * {@return this integer list's elements as an {@code IntStream}}
+     */
+    default IntStream stream() {
+        return IntStream.range(0, size()).map(this::get);
+    }
+}
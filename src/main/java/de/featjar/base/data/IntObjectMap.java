@@ -0,0 +1,244 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-base.
+ *
+ * base is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * base is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with base. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-base> for further information.
+ */
+package de.featjar.base.data;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.IntFunction;
+
+/**
+ * A map from integers to objects that does not box its keys.
+ * Uses open addressing with linear probing in a single pair of arrays, so lookups do not allocate.
+ * Does not permit null values.
+ * Not thread-safe.
+ *
+ * @param <V> the type of the values
+ * @author Sebastian Krieter
+ */
+public class IntObjectMap<V> {
+
+    // the key 0 marks free slots, so it is stored separately
+    private int[] keys;
+    private Object[] values;
+    private V zeroValue;
+    private int size;
+
+    /**
+     * Creates an empty map.
+     */
+    public IntObjectMap() {
+        this(4);
+    }
+
+    /**
+     * Creates an empty map that can hold the given number of entries without resizing.
+     *
+     * @param expectedSize the expected number of entries
+     */
+    public IntObjectMap(int expectedSize) {
+        int capacity = IntSet.capacity(expectedSize);
+        keys = new int[capacity];
+        values = new Object[capacity];
+    }
+
+    private int slot(int key) {
+        int mask = keys.length - 1;
+        int slot = IntSet.hash(key) & mask;
+        while (true) {
+            int current = keys[slot];
+            if (current == key || current == 0) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * {@return the number of entries in this map}
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * {@return whether this map is empty}
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * {@return whether this map contains the given key}
+     *
+     * @param key the key
+     */
+    public boolean containsKey(int key) {
+        return key == 0 ? zeroValue != null : keys[slot(key)] != 0;
+    }
+
+    /**
+     * {@return the value for the given key, or null if the key is not contained}
+     *
+     * @param key the key
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        return key == 0 ? zeroValue : (V) values[slot(key)];
+    }
+
+    /**
+     * Maps the given key to the given value.
+     *
+     * @param key   the key
+     * @param value the value
+     * @return the previous value of the key, or null if the key was not contained
+     */
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        Objects.requireNonNull(value);
+        if (key == 0) {
+            V previous = zeroValue;
+            zeroValue = value;
+            if (previous == null) {
+                size++;
+            }
+            return previous;
+        }
+        int slot = slot(key);
+        V previous = (V) values[slot];
+        values[slot] = value;
+        if (previous == null) {
+            keys[slot] = key;
+            if (++size * 2 > keys.length) {
+                resize(keys.length << 1);
+            }
+        }
+        return previous;
+    }
+
+    /**
+     * {@return the value for the given key} If the key is not contained, it is mapped to a value created with the given
+     * function first.
+     *
+     * @param key      the key
+     * @param function the function creating the value, must not return null
+     */
+    public V computeIfAbsent(int key, IntFunction<? extends V> function) {
+        V value = get(key);
+        if (value == null) {
+            value = function.apply(key);
+            put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * Removes the given key from this map.
+     *
+     * @param key the key
+     * @return the previous value of the key, or null if the key was not contained
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(int key) {
+        if (key == 0) {
+            V previous = zeroValue;
+            zeroValue = null;
+            if (previous != null) {
+                size--;
+            }
+            return previous;
+        }
+        int slot = slot(key);
+        if (keys[slot] == 0) {
+            return null;
+        }
+        V previous = (V) values[slot];
+        // shifts subsequent keys of the same probe sequence back, so no tombstones are needed
+        int mask = keys.length - 1;
+        int gap = slot;
+        for (int next = (gap + 1) & mask; keys[next] != 0; next = (next + 1) & mask) {
+            int home = IntSet.hash(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+        }
+        keys[gap] = 0;
+        values[gap] = null;
+        size--;
+        return previous;
+    }
+
+    /**
+     * Removes all entries from this map.
+     */
+    public void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(values, null);
+        zeroValue = null;
+        size = 0;
+    }
+
+    /**
+     * {@return the keys of this map, in no particular order}
+     */
+    public int[] keys() {
+        int[] result = new int[size];
+        int index = 0;
+        if (zeroValue != null) {
+            result[index++] = 0;
+        }
+        for (int key : keys) {
+            if (key != 0) {
+                result[index++] = key;
+            }
+        }
+        return result;
+    }
+
+    private void resize(int capacity) {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new int[capacity];
+        values = new Object[capacity];
+        for (int i = 0; i < oldKeys.length; i++) {
+            int key = oldKeys[i];
+            if (key != 0) {
+                int slot = slot(key);
+                keys[slot] = key;
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("{");
+        for (int key : keys()) {
+            if (sb.length() > 1) {
+                sb.append(", ");
+            }
+            sb.append(key).append('=').append(get(key));
+        }
+        return sb.append('}').toString();
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-base.
+ *
+ * base is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * base is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with base. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-base> for further information.
+ */
+package de.featjar.base.data;
+
+import java.util.Arrays;
+
+/**
+ * A set of integers that does not box its elements.
+ * Uses open addressing with linear probing in a single array, so membership tests do not allocate.
+ * In contrast to {@link SortedIntegerList}, adding and removing integers takes constant expected time.
+ * Not thread-safe.
+ *
+ * @author Sebastian Krieter
+ */
+public class IntSet {
+
+    private static final int MINIMUM_CAPACITY = 8;
+
+    // the integer 0 marks free slots, so it is stored separately
+    private int[] elements;
+    private boolean hasZero;
+    private int size;
+
+    /**
+     * Creates an empty set.
+     */
+    public IntSet() {
+        this(4);
+    }
+
+    /**
+     * Creates an empty set that can hold the given number of integers without resizing.
+     *
+     * @param expectedSize the expected number of integers
+     */
+    public IntSet(int expectedSize) {
+        elements = new int[capacity(expectedSize)];
+    }
+
+    static int capacity(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException(String.valueOf(expectedSize));
+        }
+        if (expectedSize > (1 << 29)) {
+            throw new IllegalArgumentException(String.valueOf(expectedSize));
+        }
+        // keeps the load factor at most 0.5
+        return Math.max(MINIMUM_CAPACITY, Integer.highestOneBit(Math.max(1, expectedSize * 2 - 1)) << 1);
+    }
+
+    static int hash(int integer) {
+        int hash = integer * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * {@return a set containing the given integers}
+     *
+     * @param integers the integers
+     */
+    public static IntSet of(int... integers) {
+        IntSet set = new IntSet(integers.length);
+        set.addAll(integers);
+        return set;
+    }
+
+    private int slot(int integer) {
+        int mask = elements.length - 1;
+        int slot = hash(integer) & mask;
+        while (true) {
+            int current = elements[slot];
+            if (current == integer || current == 0) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * {@return the number of integers in this set}
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * {@return whether this set is empty}
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * {@return whether this set contains the given integer}
+     *
+     * @param integer the integer
+     */
+    public boolean contains(int integer) {
+        return integer == 0 ? hasZero : elements[slot(integer)] != 0;
+    }
+
+    /**
+     * Adds the given integer to this set.
+     *
+     * @param integer the integer
+     * @return whether the integer was not contained before
+     */
+    public boolean add(int integer) {
+        if (integer == 0) {
+            if (hasZero) {
+                return false;
+            }
+            hasZero = true;
+            size++;
+            return true;
+        }
+        int slot = slot(integer);
+        if (elements[slot] != 0) {
+            return false;
+        }
+        elements[slot] = integer;
+        if (++size * 2 > elements.length) {
+            resize(elements.length << 1);
+        }
+        return true;
+    }
+
+    /**
+     * Adds the given integers to this set.
+     *
+     * @param integers the integers
+     * @return whether any integer was not contained before
+     */
+    public boolean addAll(int... integers) {
+        boolean changed = false;
+        for (int integer : integers) {
+            changed |= add(integer);
+        }
+        return changed;
+    }
+
+    /**
+     * Removes the given integer from this set.
+     *
+     * @param integer the integer
+     * @return whether the integer was contained
+     */
+    public boolean remove(int integer) {
+        if (integer == 0) {
+            boolean removed = hasZero;
+            hasZero = false;
+            if (removed) {
+                size--;
+            }
+            return removed;
+        }
+        int slot = slot(integer);
+        if (elements[slot] == 0) {
+            return false;
+        }
+        // shifts subsequent integers of the same probe sequence back, so no tombstones are needed
+        int mask = elements.length - 1;
+        int gap = slot;
+        for (int next = (gap + 1) & mask; elements[next] != 0; next = (next + 1) & mask) {
+            int home = hash(elements[next]) & mask;
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                elements[gap] = elements[next];
+                gap = next;
+            }
+        }
+        elements[gap] = 0;
+        size--;
+        return true;
+    }
+
+    /**
+     * Removes all integers from this set.
+     */
+    public void clear() {
+        Arrays.fill(elements, 0);
+        hasZero = false;
+        size = 0;
+    }
+
+    /**
+     * {@return the integers of this set, in no particular order}
+     */
+    public int[] toArray() {
+        int[] result = new int[size];
+        int index = 0;
+        if (hasZero) {
+            result[index++] = 0;
+        }
+        for (int element : elements) {
+            if (element != 0) {
+                result[index++] = element;
+            }
+        }
+        return result;
+    }
+
+    private void resize(int capacity) {
+        int[] oldElements = elements;
+        elements = new int[capacity];
+        for (int element : oldElements) {
+            if (element != 0) {
+                elements[slot(element)] = element;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+}
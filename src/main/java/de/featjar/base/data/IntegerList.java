@@ -30,29 +30,40 @@ import java.util.stream.IntStream;
  * An unordered list of integers. Subclasses implement specific interpretations
  * of these integers (e.g., as an index into a {@link RangeMap}). Negative and
  * zero integers are allowed.
+ * Membership tests scan the list linearly. For large sets of integers, consider
+ * {@link SortedIntegerList} or {@link BitSetIntegerList}, which override
+ * {@link #indexOf(int)} and {@link #indicesOf(int)}.
+ * Bulk operations (e.g., {@link #retainAll(int...)}) call {@link #indicesOf(int)} for each given integer,
+ * unless both this list and the given integers are large, in which case they hash the given integers into an
+ * {@link IntSet} and scan the list once.
  *
  * @author Sebastian Krieter
  * @author Elias Kuiter
  */
-public class IntegerList implements Serializable {
+public class IntegerList implements IIntegerList, Serializable {
 
     private static final long serialVersionUID = -8440039489675429479L;
 
-    public static final class DescendingLengthComparator implements Comparator<IntegerList>, Serializable {
+    /**
+     * Bulk operations hash the given integers only if both this list and the given integers are larger than this.
+     */
+    private static final int HASHING_THRESHOLD = 16;
+
+    public static final class DescendingLengthComparator implements Comparator<IIntegerList>, Serializable {
         private static final long serialVersionUID = -6244438443507884424L;
 
         @Override
-        public int compare(IntegerList o1, IntegerList o2) {
-            return o2.elements.length - o1.elements.length;
+        public int compare(IIntegerList o1, IIntegerList o2) {
+            return o2.size() - o1.size();
         }
     }
 
-    public static final class AscendingLengthComparator implements Comparator<IntegerList>, Serializable {
+    public static final class AscendingLengthComparator implements Comparator<IIntegerList>, Serializable {
         private static final long serialVersionUID = 2117836682884275173L;
 
         @Override
-        public int compare(IntegerList o1, IntegerList o2) {
-            return o1.elements.length - o2.elements.length;
+        public int compare(IIntegerList o1, IIntegerList o2) {
+            return o1.size() - o2.size();
         }
     }
 
@@ -91,17 +102,41 @@ public class IntegerList implements Serializable {
     }
 
     public static int[] merge(Collection<? extends IntegerList> integerLists) {
-        return integerLists.stream()
-                .flatMapToInt(l -> Arrays.stream(l.elements))
-                .distinct()
-                .toArray();
+        int size = 0;
+        for (IntegerList integerList : integerLists) {
+            size += integerList.elements.length;
+        }
+        IntSet set = new IntSet(size);
+        int[] mergedArray = new int[size];
+        int count = 0;
+        for (IntegerList integerList : integerLists) {
+            count = addDistinct(set, integerList.elements, mergedArray, count);
+        }
+        return Arrays.copyOf(mergedArray, count);
     }
 
     public static int[] mergeInt(Collection<int[]> integerLists) {
-        return integerLists.stream()
-                .flatMapToInt(l -> Arrays.stream(l))
-                .distinct()
-                .toArray();
+        int size = 0;
+        for (int[] integerList : integerLists) {
+            size += integerList.length;
+        }
+        IntSet set = new IntSet(size);
+        int[] mergedArray = new int[size];
+        int count = 0;
+        for (int[] integerList : integerLists) {
+            count = addDistinct(set, integerList, mergedArray, count);
+        }
+        return Arrays.copyOf(mergedArray, count);
+    }
+
+    // keeps the first occurrence of each integer, in order
+    private static int addDistinct(IntSet set, int[] integers, int[] mergedArray, int count) {
+        for (int integer : integers) {
+            if (set.add(integer)) {
+                mergedArray[count++] = integer;
+            }
+        }
+        return count;
     }
 
     /**
@@ -311,10 +346,12 @@ public class IntegerList implements Serializable {
      * @param integer the integer
      */
     public int indexOf(int integer) {
-        return IntStream.range(0, elements.length)
-                .filter(i -> elements[i] == integer)
-                .findFirst()
-                .orElse(-1);
+        for (int i = 0; i < elements.length; i++) {
+            if (elements[i] == integer) {
+                return i;
+            }
+        }
+        return -1;
     }
 
     /**
@@ -365,6 +402,31 @@ public class IntegerList implements Serializable {
         return elements.length == 0;
     }
 
+    private int markIntersection(boolean[] intersectionMarker, int... integers) {
+        int count = 0;
+        if (integers.length <= HASHING_THRESHOLD || elements.length <= HASHING_THRESHOLD) {
+            for (int integer : integers) {
+                final int[] indices = indicesOf(integer);
+                for (int i = 0; i < indices.length; i++) {
+                    int index = indices[i];
+                    if (index >= 0 && !intersectionMarker[index]) {
+                        count++;
+                        intersectionMarker[index] = true;
+                    }
+                }
+            }
+        } else {
+            IntSet set = IntSet.of(integers);
+            for (int i = 0; i < elements.length; i++) {
+                if (set.contains(elements[i])) {
+                    intersectionMarker[i] = true;
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
     /**
      * {@return the union of this integer list with the given integers} No
      * duplicated are created.
@@ -373,17 +435,7 @@ public class IntegerList implements Serializable {
      */
     public final int[] addAll(int... integers) {
         boolean[] intersectionMarker = new boolean[elements.length];
-        int count = 0;
-        for (int integer : integers) {
-            final int[] indices = indicesOf(integer);
-            for (int i = 0; i < indices.length; i++) {
-                int index = indices[i];
-                if (index >= 0 && !intersectionMarker[index]) {
-                    count++;
-                    intersectionMarker[index] = true;
-                }
-            }
-        }
+        int count = markIntersection(intersectionMarker, integers);
 
         int[] newArray = new int[elements.length + integers.length - count];
         int j = 0;
@@ -405,17 +457,7 @@ public class IntegerList implements Serializable {
      */
     public final int[] retainAll(int... integers) {
         boolean[] intersectionMarker = new boolean[elements.length];
-        int count = 0;
-        for (int integer : integers) {
-            final int[] indices = indicesOf(integer);
-            for (int i = 0; i < indices.length; i++) {
-                int index = indices[i];
-                if (index >= 0 && !intersectionMarker[index]) {
-                    count++;
-                    intersectionMarker[index] = true;
-                }
-            }
-        }
+        int count = markIntersection(intersectionMarker, integers);
 
         int[] newArray = new int[count];
         int j = 0;
@@ -437,17 +479,7 @@ public class IntegerList implements Serializable {
      */
     public final int[] removeAll(int... integers) {
         boolean[] intersectionMarker = new boolean[elements.length];
-        int count = 0;
-        for (int integer : integers) {
-            final int[] indices = indicesOf(integer);
-            for (int i = 0; i < indices.length; i++) {
-                int index = indices[i];
-                if (index >= 0 && !intersectionMarker[index]) {
-                    count++;
-                    intersectionMarker[index] = true;
-                }
-            }
-        }
+        int count = markIntersection(intersectionMarker, integers);
 
         int[] newArray = new int[elements.length - count];
         int j = 0;
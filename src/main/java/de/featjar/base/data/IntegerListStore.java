@@ -0,0 +1,559 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-base.
+ *
+ * base is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * base is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with base. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-base> for further information.
+ */
+package de.featjar.base.data;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A compact store for many integer lists (e.g., clauses or configurations).
+ * All integers are stored in one contiguous sequence of buffers, and the start of each list in a second sequence,
+ * so a stored list takes four bytes plus four bytes per integer, instead of an {@link IntegerList} object
+ * with its own array.
+ * The buffers can be allocated off-heap (see {@link #IntegerListStore(boolean)}),
+ * in which case they do not count towards the Java heap.
+ * Stored lists can be accessed without copying through flyweight {@link View views},
+ * which implement the read access of {@link IIntegerList}.
+ * A store can be saved to a file and loaded by mapping the file into memory, without copying or parsing it.
+ * As a single buffer holds at most 2 GiB, the integers and offsets are split into chunks of 1 GiB.
+ * The total number of stored integers and the number of lists are each limited to {@link Integer#MAX_VALUE} - 1.
+ *
+ * @author Sebastian Krieter
+ */
+public class IntegerListStore implements Iterable<IntegerListStore.View> {
+
+    private static final int MAGIC = 0x464a494c;
+    private static final int HEADER_BYTES = 3 * Integer.BYTES;
+    private static final int MAXIMUM_SIZE = Integer.MAX_VALUE - 1;
+    private static final int DEFAULT_CHUNK_SHIFT = 28;
+
+    /**
+     * A flyweight view of a list in an {@link IntegerListStore}.
+     * Reads the integers directly from the store, so it is invalidated when the store is sorted.
+     */
+    public final class View implements IIntegerList {
+        private final int index;
+        private final int offset;
+        private final int size;
+
+        private View(int index) {
+            this.index = index;
+            offset = offsets.get(index);
+            size = offsets.get(index + 1) - offset;
+        }
+
+        /**
+         * {@return the index of this list in its store}
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        @Override
+        public int get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return data.get(offset + index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public int[] copy() {
+            int[] copy = new int[size];
+            data.get(offset, copy, 0, size);
+            return copy;
+        }
+
+        /**
+         * {@return a new integer list with the integers of this view}
+         */
+        public IntegerList toIntegerList() {
+            return new IntegerList(copy());
+        }
+
+        @Override
+        public String toString() {
+            return Arrays.toString(copy());
+        }
+    }
+
+    /**
+     * A sequence of integer buffers of equal capacity, except for the last one, addressed by one index.
+     * The byte buffers back the int buffers, and are kept to write them to files without copying.
+     */
+    private static final class Chunks {
+        private final int shift;
+        private final int mask;
+        private final boolean offHeap;
+        private ByteBuffer[] bytes;
+        private IntBuffer[] ints;
+
+        private Chunks(int shift, boolean offHeap, int initialCapacity) {
+            this.shift = shift;
+            this.mask = (1 << shift) - 1;
+            this.offHeap = offHeap;
+            bytes = new ByteBuffer[0];
+            ints = new IntBuffer[0];
+            appendChunk(allocate(Math.min(1 << shift, Math.max(1, initialCapacity)), offHeap));
+        }
+
+        private Chunks(int shift, ByteBuffer[] bytes) {
+            this.shift = shift;
+            this.mask = (1 << shift) - 1;
+            this.offHeap = true;
+            this.bytes = bytes;
+            ints = new IntBuffer[bytes.length];
+            for (int i = 0; i < bytes.length; i++) {
+                ints[i] = bytes[i].asIntBuffer();
+            }
+        }
+
+        private static ByteBuffer allocate(int capacity, boolean offHeap) {
+            int bytes = capacity * Integer.BYTES;
+            ByteBuffer buffer = offHeap ? ByteBuffer.allocateDirect(bytes) : ByteBuffer.allocate(bytes);
+            return buffer.order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        private void appendChunk(ByteBuffer chunk) {
+            bytes = Arrays.copyOf(bytes, bytes.length + 1);
+            ints = Arrays.copyOf(ints, ints.length + 1);
+            bytes[bytes.length - 1] = chunk;
+            ints[ints.length - 1] = chunk.asIntBuffer();
+        }
+
+        private long capacity() {
+            int last = ints.length - 1;
+            return ((long) last << shift) + ints[last].capacity();
+        }
+
+        private void ensureCapacity(long required) {
+            int chunkSize = 1 << shift;
+            while (capacity() < required) {
+                int last = ints.length - 1;
+                int lastCapacity = ints[last].capacity();
+                long requiredInChunk = required - ((long) last << shift);
+                if (lastCapacity < chunkSize) {
+                    // only the last chunk is resized, so all other chunks stay full
+                    int capacity = (int) Math.min(chunkSize, Math.max(requiredInChunk, 2L * lastCapacity));
+                    ByteBuffer chunk = allocate(capacity, offHeap);
+                    chunk.asIntBuffer().put(0, ints[last], 0, lastCapacity);
+                    bytes[last] = chunk;
+                    ints[last] = chunk.asIntBuffer();
+                } else {
+                    appendChunk(allocate((int) Math.min(chunkSize, Math.max(requiredInChunk - chunkSize, 16)), offHeap));
+                }
+            }
+        }
+
+        private int get(int index) {
+            return ints[index >>> shift].get(index & mask);
+        }
+
+        private void put(int index, int value) {
+            ints[index >>> shift].put(index & mask, value);
+        }
+
+        private void get(int index, int[] target, int offset, int length) {
+            while (length > 0) {
+                int position = index & mask;
+                int count = Math.min(length, (1 << shift) - position);
+                ints[index >>> shift].get(position, target, offset, count);
+                index += count;
+                offset += count;
+                length -= count;
+            }
+        }
+
+        private void put(int index, int[] source) {
+            int offset = 0;
+            int length = source.length;
+            while (length > 0) {
+                int position = index & mask;
+                int count = Math.min(length, (1 << shift) - position);
+                ints[index >>> shift].put(position, source, offset, count);
+                index += count;
+                offset += count;
+                length -= count;
+            }
+        }
+
+        private void transfer(int index, Chunks source, int sourceIndex, int length) {
+            while (length > 0) {
+                int position = index & mask;
+                int sourcePosition = sourceIndex & source.mask;
+                int count = Math.min(length, Math.min((1 << shift) - position, (1 << source.shift) - sourcePosition));
+                ints[index >>> shift].put(position, source.ints[sourceIndex >>> source.shift], sourcePosition, count);
+                index += count;
+                sourceIndex += count;
+                length -= count;
+            }
+        }
+
+        private void write(FileChannel channel, int length) throws IOException {
+            for (int i = 0; length > 0; i++) {
+                int count = Math.min(length, 1 << shift);
+                writeFully(channel, bytes[i].duplicate().position(0).limit(count * Integer.BYTES));
+                length -= count;
+            }
+        }
+    }
+
+    private final int chunkShift;
+    private final boolean offHeap;
+    private final boolean readOnly;
+    private Chunks data, offsets;
+    private int size;
+
+    /**
+     * Creates a new, empty store on the Java heap.
+     */
+    public IntegerListStore() {
+        this(false);
+    }
+
+    /**
+     * Creates a new, empty store.
+     *
+     * @param offHeap whether to allocate the store's buffers off-heap
+     */
+    public IntegerListStore(boolean offHeap) {
+        this(offHeap, 16, 64);
+    }
+
+    /**
+     * Creates a new, empty store.
+     *
+     * @param offHeap          whether to allocate the store's buffers off-heap
+     * @param initialLists     the expected number of lists
+     * @param initialIntegers  the expected total number of integers
+     */
+    public IntegerListStore(boolean offHeap, int initialLists, int initialIntegers) {
+        this(DEFAULT_CHUNK_SHIFT, offHeap, initialLists, initialIntegers);
+    }
+
+    IntegerListStore(int chunkShift, boolean offHeap, int initialLists, int initialIntegers) {
+        this.chunkShift = chunkShift;
+        this.offHeap = offHeap;
+        this.readOnly = false;
+        data = new Chunks(chunkShift, offHeap, initialIntegers);
+        offsets = new Chunks(chunkShift, offHeap, initialLists + 1);
+    }
+
+    private IntegerListStore(int chunkShift, Chunks data, Chunks offsets, int size) {
+        this.chunkShift = chunkShift;
+        this.offHeap = true;
+        this.readOnly = true;
+        this.data = data;
+        this.offsets = offsets;
+        this.size = size;
+    }
+
+    private void checkWritable() {
+        if (readOnly) {
+            throw new UnsupportedOperationException("store is read-only");
+        }
+    }
+
+    /**
+     * Adds a list to this store.
+     *
+     * @param integers the integers of the list
+     * @return the index of the list
+     * @throws IllegalStateException if the store would exceed its maximum size
+     */
+    public int add(int... integers) {
+        checkWritable();
+        int offset = offsets.get(size);
+        if ((long) offset + integers.length > MAXIMUM_SIZE || size == MAXIMUM_SIZE) {
+            throw new IllegalStateException("store exceeds maximum size");
+        }
+        data.ensureCapacity((long) offset + integers.length);
+        offsets.ensureCapacity(size + 2L);
+        data.put(offset, integers);
+        offsets.put(size + 1, offset + integers.length);
+        return size++;
+    }
+
+    /**
+     * Adds a list to this store.
+     *
+     * @param integerList the list
+     * @return the index of the list
+     */
+    public int add(IIntegerList integerList) {
+        return add(integerList instanceof IntegerList ? ((IntegerList) integerList).get() : integerList.copy());
+    }
+
+    /**
+     * {@return a flyweight view of the list with the given index}
+     *
+     * @param index the index
+     * @throws IndexOutOfBoundsException when the index is invalid
+     */
+    public View get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return new View(index);
+    }
+
+    /**
+     * {@return the integer at the given position of the list with the given index}
+     * Does not create a view.
+     *
+     * @param index    the index of the list
+     * @param position the position in the list
+     */
+    public int get(int index, int position) {
+        return data.get(offsets.get(index) + position);
+    }
+
+    /**
+     * {@return the size of the list with the given index}
+     * Does not create a view.
+     *
+     * @param index the index of the list
+     */
+    public int size(int index) {
+        return offsets.get(index + 1) - offsets.get(index);
+    }
+
+    /**
+     * {@return the number of lists in this store}
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * {@return the total number of integers in this store}
+     */
+    public int getNumberOfIntegers() {
+        return offsets.get(size);
+    }
+
+    /**
+     * {@return whether this store's buffers are allocated off-heap}
+     */
+    public boolean isOffHeap() {
+        return offHeap;
+    }
+
+    /**
+     * {@return whether lists can be added to this store}
+     * Loaded stores are read-only.
+     */
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    @Override
+    public Iterator<View> iterator() {
+        return new Iterator<>() {
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return index < size;
+            }
+
+            @Override
+            public View next() {
+                if (index >= size) {
+                    throw new NoSuchElementException();
+                }
+                return new View(index++);
+            }
+        };
+    }
+
+    /**
+     * Sorts the lists in this store.
+     * Sorting by length (i.e., with {@link IntegerList.AscendingLengthComparator} or
+     * {@link IntegerList.DescendingLengthComparator}) only compares the offsets and creates no views.
+     * The sort is stable. All views are invalidated.
+     * A read-only store becomes writable, as its lists are copied into new buffers.
+     *
+     * @param comparator the comparator
+     * @return a new store with the sorted lists, or this store if it is not read-only
+     */
+    public IntegerListStore sort(Comparator<? super IIntegerList> comparator) {
+        int[] permutation;
+        if (comparator instanceof IntegerList.AscendingLengthComparator) {
+            permutation = sortByLength(false);
+        } else if (comparator instanceof IntegerList.DescendingLengthComparator) {
+            permutation = sortByLength(true);
+        } else {
+            View[] views = new View[size];
+            for (int i = 0; i < size; i++) {
+                views[i] = new View(i);
+            }
+            Arrays.sort(views, comparator);
+            permutation = new int[size];
+            for (int i = 0; i < size; i++) {
+                permutation[i] = views[i].index;
+            }
+        }
+        return permute(permutation);
+    }
+
+    private int[] sortByLength(boolean descending) {
+        // sorting length and index together in one primitive key avoids boxing and keeps the sort stable
+        long[] keys = new long[size];
+        for (int i = 0; i < size; i++) {
+            int length = size(i);
+            keys[i] = ((long) (descending ? Integer.MAX_VALUE - length : length) << 32) | i;
+        }
+        Arrays.sort(keys);
+        int[] permutation = new int[size];
+        for (int i = 0; i < size; i++) {
+            permutation[i] = (int) keys[i];
+        }
+        return permutation;
+    }
+
+    private IntegerListStore permute(int[] permutation) {
+        IntegerListStore target = readOnly ? new IntegerListStore(chunkShift, true, 0, 0) : this;
+        Chunks newData = new Chunks(chunkShift, target.offHeap, 1);
+        newData.ensureCapacity(getNumberOfIntegers());
+        Chunks newOffsets = new Chunks(chunkShift, target.offHeap, 1);
+        newOffsets.ensureCapacity(size + 1L);
+        int offset = 0;
+        for (int i = 0; i < size; i++) {
+            int index = permutation[i];
+            int start = offsets.get(index);
+            int length = offsets.get(index + 1) - start;
+            newData.transfer(offset, data, start, length);
+            offset += length;
+            newOffsets.put(i + 1, offset);
+        }
+        target.data = newData;
+        target.offsets = newOffsets;
+        target.size = size;
+        return target;
+    }
+
+    /**
+     * Saves this store to a file.
+     * The buffers of this store are written as they are, in little-endian byte order.
+     *
+     * @param path the path of the file
+     * @throws IOException if an I/O error occurs
+     */
+    public void save(Path path) throws IOException {
+        int numberOfIntegers = getNumberOfIntegers();
+        try (FileChannel channel = FileChannel.open(
+                path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(size).putInt(numberOfIntegers).flip();
+            writeFully(channel, header);
+            offsets.write(channel, size + 1);
+            data.write(channel, numberOfIntegers);
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Loads a store from a file by mapping the file into memory.
+     * The lists are read from the file on demand, so loading only takes the time to validate the offsets of the
+     * lists. The loaded store is read-only.
+     *
+     * @param path the path of the file
+     * @return the loaded store
+     * @throws IOException if an I/O error occurs or the file is not a valid saved store
+     */
+    public static IntegerListStore load(Path path) throws IOException {
+        return load(path, DEFAULT_CHUNK_SHIFT);
+    }
+
+    static IntegerListStore load(Path path, int chunkShift) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining()) {
+                if (channel.read(header, header.position()) < 0) {
+                    break;
+                }
+            }
+            if (header.hasRemaining() || header.getInt(0) != MAGIC) {
+                throw new IOException("not an integer list store: " + path);
+            }
+            int size = header.getInt(Integer.BYTES);
+            int numberOfIntegers = header.getInt(2 * Integer.BYTES);
+            if (size < 0 || size > MAXIMUM_SIZE || numberOfIntegers < 0 || numberOfIntegers > MAXIMUM_SIZE) {
+                throw new IOException("corrupt integer list store: " + path);
+            }
+            long offsetsStart = HEADER_BYTES;
+            long dataStart = offsetsStart + (size + 1L) * Integer.BYTES;
+            if (channel.size() != dataStart + (long) numberOfIntegers * Integer.BYTES) {
+                throw new IOException("corrupt integer list store: " + path);
+            }
+            Chunks offsets = new Chunks(chunkShift, map(channel, offsetsStart, size + 1, chunkShift));
+            Chunks data = new Chunks(chunkShift, map(channel, dataStart, numberOfIntegers, chunkShift));
+            int previous = 0;
+            for (int i = 0; i <= size; i++) {
+                int offset = offsets.get(i);
+                if (offset < previous || (i == 0 && offset != 0)) {
+                    throw new IOException("corrupt integer list store: " + path);
+                }
+                previous = offset;
+            }
+            if (previous != numberOfIntegers) {
+                throw new IOException("corrupt integer list store: " + path);
+            }
+            return new IntegerListStore(chunkShift, data, offsets, size);
+        }
+    }
+
+    private static ByteBuffer[] map(FileChannel channel, long start, int length, int chunkShift)
+            throws IOException {
+        int chunkSize = 1 << chunkShift;
+        ByteBuffer[] chunks = new ByteBuffer[Math.max(1, (int) ((length + (long) chunkSize - 1) >>> chunkShift))];
+        for (int i = 0; i < chunks.length; i++) {
+            long chunkStart = (long) i << chunkShift;
+            int count = (int) Math.min(chunkSize, length - chunkStart);
+            chunks[i] = channel.map(
+                            FileChannel.MapMode.READ_ONLY,
+                            start + chunkStart * Integer.BYTES,
+                            (long) count * Integer.BYTES)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+        }
+        return chunks;
+    }
+}
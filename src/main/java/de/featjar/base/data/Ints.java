@@ -20,6 +20,7 @@
  */
 package de.featjar.base.data;
 
+import java.util.Arrays;
 import java.util.stream.IntStream;
 
 public final class Ints {
@@ -35,10 +36,16 @@ public final class Ints {
     }
 
     public static int[] filteredList(final int size, IntegerList filter) {
-        int[] list = IntStream.rangeClosed(1, size).toArray();
+        int[] list = new int[size];
         for (int e : filter.elements) {
-            list[Math.abs(e) - 1] = 0;
+            list[Math.abs(e) - 1] = -1;
         }
-        return IntStream.of(list).filter(i -> i != 0).toArray();
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (list[i] == 0) {
+                list[count++] = i + 1;
+            }
+        }
+        return count == size ? list : Arrays.copyOf(list, count);
     }
 }
@@ -34,19 +34,43 @@ import java.util.stream.StreamSupport;
  */
 public final class MultiLexicographicIterator<E> implements Spliterator<ICombination<E, int[]>> {
 
-    private final ICombination<E, int[]> combination;
-
     public static Stream<ICombination<Void, int[]>> stream(int[][] items, int[] t) {
         return StreamSupport.stream(new MultiLexicographicIterator<>(items, t, null), false);
     }
 
+    public static Stream<ICombination<Void, int[]>> parallelStream(int[][] items, int[] t) {
+        return StreamSupport.stream(new MultiLexicographicIterator<Void>(items, t, null), true);
+    }
+
+    public static <V> Stream<ICombination<V, int[]>> stream(int[][] items, int[] t, Supplier<V> environmentCreator) {
+        return StreamSupport.stream(new MultiLexicographicIterator<>(items, t, environmentCreator), false);
+    }
+
     public static <V> Stream<ICombination<V, int[]>> parallelStream(
             int[][] items, int[] t, Supplier<V> environmentCreator) {
         return StreamSupport.stream(new MultiLexicographicIterator<>(items, t, environmentCreator), true);
     }
 
+    private static final int MINIMUM_SPLIT_SIZE = 10;
+
+    private final MultiLiteralCombination<E> combination;
+    private long end;
+    private final Supplier<E> environmentCreator;
+
     public MultiLexicographicIterator(int[][] items, int[] t, Supplier<E> environmentCreator) {
+        this.environmentCreator = environmentCreator;
         combination = new MultiLiteralCombination<>(items, t, environmentCreator);
+        end = combination.maxIndex();
+    }
+
+    private MultiLexicographicIterator(MultiLexicographicIterator<E> other) {
+        this.environmentCreator = other.environmentCreator;
+        combination = new MultiLiteralCombination<E>(other.combination, other.environmentCreator);
+
+        long currentIndex = other.combination.index();
+        long start = currentIndex + ((other.end - currentIndex) / 2);
+        other.combination.setIndex(start);
+        end = start;
     }
 
     @Override
@@ -56,20 +80,22 @@ public final class MultiLexicographicIterator<E> implements Spliterator<ICombina
 
     @Override
     public long estimateSize() {
-        return combination.maxIndex() - combination.index();
+        return end - combination.index();
     }
 
     @Override
     public Spliterator<ICombination<E, int[]>> trySplit() {
-        return null;
+        return (estimateSize() < MINIMUM_SPLIT_SIZE) ? null : new MultiLexicographicIterator<>(this);
     }
 
     @Override
     public boolean tryAdvance(Consumer<? super ICombination<E, int[]>> action) {
-        if (combination.index() == combination.maxIndex()) {
+        if (end == combination.index()) {
             return false;
         }
         action.accept(combination);
-        return combination.advance();
+        combination.advance();
+
+        return true;
     }
 }
@@ -39,6 +39,8 @@ public final class MultiLiteralCombination<E> extends ACombination<E, int[]> {
     private final int[] t;
     private final long maxIndex;
 
+    private final BinomialCalculator[] binomialCalculators;
+
     public MultiLiteralCombination(int[][] items, int[] t, Supplier<E> environmentCreator) {
         super(IntStream.of(Objects.requireNonNull(t)).sum(), environmentCreator);
         Objects.requireNonNull(items);
@@ -62,28 +64,35 @@ public final class MultiLiteralCombination<E> extends ACombination<E, int[]> {
 
         index = 0;
         for (int tk : t) {
-            elementIndices[index++] = 0;
-            for (int i = 1; i < tk; i++) {
+            for (int i = 0; i < tk; i++) {
                 elementIndices[index++] = i;
             }
         }
 
+        binomialCalculators = new BinomialCalculator[t.length];
+        for (int k = 0; k < t.length; k++) {
+            binomialCalculators[k] = new BinomialCalculator(t[k], items[k].length);
+        }
         if (elementIndices.length > 0) {
-            BinomialCalculator binomialCalculator = new BinomialCalculator(
-                    IntStream.of(t).max().getAsInt(),
-                    Arrays.stream(items).mapToInt(a -> a.length).max().getAsInt());
-            long sum = 1;
-            for (int k = 0; k < t.length; k++) {
-                int tk = t[k];
-                int nk = items[k].length;
-                sum *= binomialCalculator.binomial(nk, tk);
+            long product = 1;
+            for (BinomialCalculator binomialCalculator : binomialCalculators) {
+                product = Math.multiplyExact(product, binomialCalculator.binomial());
             }
-            maxIndex = sum;
+            maxIndex = product;
         } else {
             maxIndex = 0;
         }
     }
 
+    public MultiLiteralCombination(MultiLiteralCombination<E> other, Supplier<E> environmentCreator) {
+        super(other, environmentCreator);
+        t = other.t;
+        items = other.items;
+        binomialCalculators = other.binomialCalculators;
+        maxIndex = other.maxIndex;
+        selection = Arrays.copyOf(other.selection, other.selection.length);
+    }
+
     @Override
     public int[] select() {
         for (int i = 0; i < elementIndices.length; i++) {
@@ -97,7 +106,10 @@ public final class MultiLiteralCombination<E> extends ACombination<E, int[]> {
         int offset = 0;
         for (int k = 0; k < t.length; k++) {
             int tk = t[k];
-            int nk = items[k].length;
+            if (tk == 0) {
+                continue;
+            }
+            int nk = items[offset].length;
 
             int i = 0;
             for (; i < tk - 1; i++) {
@@ -119,7 +131,7 @@ public final class MultiLiteralCombination<E> extends ACombination<E, int[]> {
         }
 
         resetLowerElements(0, t.length, 0);
-        combinationIndex = 0;
+        combinationIndex++;
         return true;
     }
 
@@ -132,17 +144,35 @@ public final class MultiLiteralCombination<E> extends ACombination<E, int[]> {
             int index = 0;
             for (int k2 = 0; k2 < k; k2++) {
                 int tk2 = t[k2];
-                elementIndices[index++] = 0;
-                for (int i2 = 1; i2 < tk2; i2++) {
+                for (int i2 = 0; i2 < tk2; i2++) {
                     elementIndices[index++] = i2;
                 }
             }
         }
     }
 
+    /**
+     * Sets this combination to the combination with the given index.
+     * The index is a mixed-radix number whose digits are the indices of the combinations of the single item sets,
+     * the first item set being the least significant digit with radix (n_0 choose t_0).
+     *
+     * @param index the index
+     */
     @Override
     public void setIndex(long index) {
-        throw new UnsupportedOperationException();
+        combinationIndex = index;
+        if (maxIndex == 0) {
+            return;
+        }
+        long remainder = index % maxIndex;
+        int offset = 0;
+        for (int k = 0; k < t.length; k++) {
+            BinomialCalculator binomialCalculator = binomialCalculators[k];
+            long radix = binomialCalculator.binomial();
+            binomialCalculator.combination(remainder % radix, elementIndices, offset);
+            remainder /= radix;
+            offset += t[k];
+        }
     }
 
     @Override
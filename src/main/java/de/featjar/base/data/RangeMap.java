@@ -111,7 +111,7 @@ public class RangeMap<T> implements Cloneable {
     }
 
     protected boolean isValidIndex(int index) {
-        return getValidIndexRange().map(range -> range.test(index)).orElse(false);
+        return index > 0 && index < indexToObject.size();
     }
 
     /**
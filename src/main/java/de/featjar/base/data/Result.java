@@ -60,11 +60,12 @@ public class Result<T> implements Supplier<T> {
 
     protected Result(T object, List<Problem> problems) {
         this.object = object;
-        problems = problems == null
-                ? null
-                : problems.stream().filter(Objects::nonNull).collect(Collectors.toList());
         if (problems != null && !problems.isEmpty()) {
-            this.problems.addAll(problems);
+            for (Problem problem : problems) {
+                if (problem != null) {
+                    this.problems.add(problem);
+                }
+            }
         }
     }
 
@@ -203,10 +204,13 @@ public class Result<T> implements Supplier<T> {
     }
 
     public static List<Problem> getProblems(List<? extends Result<?>> results) {
-        return results.stream()
-                .filter(Objects::nonNull)
-                .flatMap(r -> r.getProblems().stream())
-                .collect(Collectors.toList());
+        List<Problem> problems = new ArrayList<>();
+        for (Result<?> result : results) {
+            if (result != null) {
+                problems.addAll(result.problems);
+            }
+        }
+        return problems;
     }
 
     public static Stream<Result<?>> nonNull(List<? extends Result<?>> results) {
@@ -217,16 +221,47 @@ public class Result<T> implements Supplier<T> {
         return nonNull(results).collect(Collectors.toList());
     }
 
+    /**
+     * {@return a result of a list of the values of the given results, or an empty result if any result is empty}
+     * Collects the problems and values of the results in a single pass.
+     *
+     * @param results     the results, which may contain null
+     * @param listFactory creates the list of values
+     * @param <T>         the type of the list of values
+     */
     public static <T extends List<Object>> Result<T> mergeAll(
             List<? extends Result<?>> results, Supplier<T> listFactory) {
-        List<Problem> problems = getProblems(results);
-        return nonNull(results).noneMatch(Result::isEmpty)
-                ? Result.of(results.stream().map(Result::get).collect(Collectors.toCollection(listFactory)), problems)
-                : Result.empty(problems);
+        List<Problem> problems = null;
+        T values = listFactory.get();
+        for (Result<?> result : results) {
+            if (result == null) {
+                values = null;
+                continue;
+            }
+            if (!result.problems.isEmpty()) {
+                if (problems == null) {
+                    problems = new ArrayList<>();
+                }
+                problems.addAll(result.problems);
+            }
+            if (values != null) {
+                if (result.object == null) {
+                    values = null;
+                } else {
+                    values.add(result.object);
+                }
+            }
+        }
+        return values != null ? Result.of(values, problems) : Result.empty(problems);
     }
 
+    /**
+     * {@return a result of a list of the values of the given results, or an empty result if any result is empty}
+     *
+     * @param results the results, which may contain null
+     */
     public static Result<ArrayList<Object>> mergeAll(List<? extends Result<?>> results) {
-        return mergeAll(results, ArrayList::new);
+        return mergeAll(results, () -> new ArrayList<>(results.size()));
     }
 
     public static <T extends List<Object>> Result<T> mergeAllNullable(
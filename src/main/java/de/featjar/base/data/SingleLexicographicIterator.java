@@ -71,12 +71,11 @@ public final class SingleLexicographicIterator<E> implements Spliterator<ICombin
     private SingleLexicographicIterator(SingleLexicographicIterator<E> other) {
         this.environmentCreator = other.environmentCreator;
         combination = new SingleLiteralCombination<E>(other.combination, other.environmentCreator);
-        end = other.end;
 
         long currentIndex = other.combination.index();
         long start = currentIndex + ((other.end - currentIndex) / 2);
-        combination.setIndex(start);
-        other.end = start - 1;
+        other.combination.setIndex(start);
+        end = start;
     }
 
     @Override
@@ -96,7 +95,7 @@ public final class SingleLexicographicIterator<E> implements Spliterator<ICombin
 
     @Override
     public boolean tryAdvance(Consumer<? super ICombination<E, int[]>> action) {
-        if (combination.maxIndex() == combination.index()) {
+        if (end == combination.index()) {
             return false;
         }
         action.accept(combination);
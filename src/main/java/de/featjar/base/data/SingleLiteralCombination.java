@@ -104,21 +104,10 @@ public final class SingleLiteralCombination<E> extends ACombination<E, int[]> {
     @Override
     public void setIndex(long start) {
         combinationIndex = start;
-        long tempIndex = start - 1;
-        for (int i = t; i > 0; i--) {
-            if (tempIndex <= 0) {
-                elementIndices[i - 1] = i - 1;
-            } else {
-                final double root = 1.0 / i;
-                final int p = (int) Math.ceil(Math.pow(tempIndex * binomialCalculator.factorial(i), root));
-                for (int j = p; j <= items.length; j++) {
-                    if (binomialCalculator.binomial(j, i) > tempIndex) {
-                        elementIndices[i - 1] = j - 1;
-                        tempIndex -= binomialCalculator.binomial(j - 1, i);
-                        break;
-                    }
-                }
-            }
+        if (start == maxIndex) {
+            resetLowerElements(t);
+        } else {
+            binomialCalculator.combination(start, elementIndices, 0);
         }
     }
 
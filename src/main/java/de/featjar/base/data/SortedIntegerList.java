@@ -0,0 +1,303 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-base.
+ *
+ * base is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * base is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with base. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-base> for further information.
+ */
+package de.featjar.base.data;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * A set of integers, stored as an integer list in ascending order without duplicates.
+ * Membership tests use binary search, so all methods of {@link IntegerList} that test membership
+ * (e.g., {@link #contains(int)}, {@link #containsAll(int...)}, and {@link #retainAll(int...)} with few integers)
+ * take logarithmic time per tested integer.
+ * Set operations on two sorted integer lists (e.g., {@link #union(SortedIntegerList)}) merge both lists
+ * in linear time.
+ *
+ * @author Sebastian Krieter
+ */
+public class SortedIntegerList extends IntegerList {
+
+    private static final long serialVersionUID = 4207265385339046532L;
+
+    /**
+     * Creates a new sorted integer list from a given array of integers.
+     * The array is copied, sorted, and duplicates are removed.
+     *
+     * @param array the array
+     */
+    public SortedIntegerList(int... array) {
+        this(Arrays.copyOf(array, array.length), true);
+    }
+
+    /**
+     * Creates a new sorted integer list from a given collection of integers.
+     *
+     * @param collection the collection
+     */
+    public SortedIntegerList(Collection<Integer> collection) {
+        this(collection.stream().mapToInt(Integer::intValue).toArray(), true);
+    }
+
+    /**
+     * Creates a new sorted integer list from the integers of a given integer list.
+     *
+     * @param integerList the integer list
+     */
+    public SortedIntegerList(IntegerList integerList) {
+        this(integerList.get());
+    }
+
+    /**
+     * Creates a new sorted integer list from a given array of integers.
+     *
+     * @param array the array, which must be sorted and must not contain duplicates if {@code check} is false
+     * @param check whether to sort the array in place and remove duplicates
+     */
+    protected SortedIntegerList(int[] array, boolean check) {
+        super(check ? sortedDistinct(array) : array);
+        assert isSortedAndDistinct(elements);
+    }
+
+    /**
+     * {@return a sorted integer list from the given array} To ensure
+     * performance, the array is not copied, so it must not be modified.
+     *
+     * @param sortedArray the array, which must be sorted in ascending order and must not contain duplicates
+     */
+    public static SortedIntegerList ofSorted(int... sortedArray) {
+        return new SortedIntegerList(sortedArray, false);
+    }
+
+    /**
+     * Sorts the given array and removes duplicates.
+     *
+     * @param array the array, which is sorted in place
+     * @return the given array if it contains no duplicates, a shorter copy otherwise
+     */
+    protected static int[] sortedDistinct(int[] array) {
+        if (isSortedAndDistinct(array)) {
+            return array;
+        }
+        Arrays.sort(array);
+        int size = 0;
+        for (int i = 0; i < array.length; i++) {
+            if (size == 0 || array[size - 1] != array[i]) {
+                array[size++] = array[i];
+            }
+        }
+        return size == array.length ? array : Arrays.copyOf(array, size);
+    }
+
+    private static boolean isSortedAndDistinct(int[] array) {
+        for (int i = 1; i < array.length; i++) {
+            if (array[i - 1] >= array[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int indexOf(int integer) {
+        int index = Arrays.binarySearch(elements, integer);
+        return index >= 0 ? index : -1;
+    }
+
+    @Override
+    public int[] indicesOf(int integer) {
+        int index = indexOf(integer);
+        return index >= 0 ? new int[] {index} : new int[0];
+    }
+
+    /**
+     * {@return the union of this sorted integer list and the given sorted integer list}
+     *
+     * @param other the other sorted integer list
+     */
+    public SortedIntegerList union(SortedIntegerList other) {
+        int[] elements1 = elements;
+        int[] elements2 = other.elements;
+        int[] union = new int[elements1.length + elements2.length];
+        int i = 0, j = 0, k = 0;
+        while (i < elements1.length && j < elements2.length) {
+            int element1 = elements1[i];
+            int element2 = elements2[j];
+            if (element1 < element2) {
+                union[k++] = element1;
+                i++;
+            } else if (element1 > element2) {
+                union[k++] = element2;
+                j++;
+            } else {
+                union[k++] = element1;
+                i++;
+                j++;
+            }
+        }
+        while (i < elements1.length) {
+            union[k++] = elements1[i++];
+        }
+        while (j < elements2.length) {
+            union[k++] = elements2[j++];
+        }
+        return ofSorted(k == union.length ? union : Arrays.copyOf(union, k));
+    }
+
+    /**
+     * {@return the intersection of this sorted integer list and the given sorted integer list}
+     *
+     * @param other the other sorted integer list
+     */
+    public SortedIntegerList intersection(SortedIntegerList other) {
+        int[] elements1 = elements;
+        int[] elements2 = other.elements;
+        int[] intersection = new int[Math.min(elements1.length, elements2.length)];
+        int i = 0, j = 0, k = 0;
+        while (i < elements1.length && j < elements2.length) {
+            int element1 = elements1[i];
+            int element2 = elements2[j];
+            if (element1 < element2) {
+                i++;
+            } else if (element1 > element2) {
+                j++;
+            } else {
+                intersection[k++] = element1;
+                i++;
+                j++;
+            }
+        }
+        return ofSorted(k == intersection.length ? intersection : Arrays.copyOf(intersection, k));
+    }
+
+    /**
+     * {@return the difference of this sorted integer list and the given sorted integer list}
+     *
+     * @param other the other sorted integer list
+     */
+    public SortedIntegerList difference(SortedIntegerList other) {
+        int[] elements1 = elements;
+        int[] elements2 = other.elements;
+        int[] difference = new int[elements1.length];
+        int i = 0, j = 0, k = 0;
+        while (i < elements1.length && j < elements2.length) {
+            int element1 = elements1[i];
+            int element2 = elements2[j];
+            if (element1 < element2) {
+                difference[k++] = element1;
+                i++;
+            } else if (element1 > element2) {
+                j++;
+            } else {
+                i++;
+                j++;
+            }
+        }
+        while (i < elements1.length) {
+            difference[k++] = elements1[i++];
+        }
+        return ofSorted(k == difference.length ? difference : Arrays.copyOf(difference, k));
+    }
+
+    /**
+     * {@return a sorted integer list containing the negated values of this sorted integer list}
+     */
+    public SortedIntegerList negation() {
+        int[] negation = new int[elements.length];
+        for (int i = 0, j = elements.length - 1; j >= 0; i++, j--) {
+            negation[i] = -elements[j];
+        }
+        return ofSorted(negation);
+    }
+
+    /**
+     * {@return whether all integers of this sorted integer list are contained in the given sorted integer list}
+     * For clauses, this means that this clause subsumes the given clause.
+     *
+     * @param other the other sorted integer list
+     */
+    public boolean isSubsetOf(SortedIntegerList other) {
+        int[] elements1 = elements;
+        int[] elements2 = other.elements;
+        if (elements1.length > elements2.length) {
+            return false;
+        }
+        int j = 0;
+        for (int i = 0; i < elements1.length; i++) {
+            int element1 = elements1[i];
+            while (j < elements2.length && elements2[j] < element1) {
+                j++;
+            }
+            if (j == elements2.length || elements2[j] != element1) {
+                return false;
+            }
+            j++;
+        }
+        return true;
+    }
+
+    /**
+     * {@return whether this sorted integer list and the given sorted integer list have a common integer}
+     *
+     * @param other the other sorted integer list
+     */
+    public boolean intersects(SortedIntegerList other) {
+        int[] elements1 = elements;
+        int[] elements2 = other.elements;
+        int i = 0, j = 0;
+        while (i < elements1.length && j < elements2.length) {
+            int element1 = elements1[i];
+            int element2 = elements2[j];
+            if (element1 < element2) {
+                i++;
+            } else if (element1 > element2) {
+                j++;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * {@return the number of integers in both this sorted integer list and the given sorted integer list}
+     *
+     * @param other the other sorted integer list
+     */
+    public int sizeOfIntersection(SortedIntegerList other) {
+        int[] elements1 = elements;
+        int[] elements2 = other.elements;
+        int i = 0, j = 0, count = 0;
+        while (i < elements1.length && j < elements2.length) {
+            int element1 = elements1[i];
+            int element2 = elements2[j];
+            if (element1 < element2) {
+                i++;
+            } else if (element1 > element2) {
+                j++;
+            } else {
+                count++;
+                i++;
+                j++;
+            }
+        }
+        return count;
+    }
+}
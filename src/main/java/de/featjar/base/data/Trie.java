@@ -21,7 +21,6 @@
 package de.featjar.base.data;
 
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
 
 /**
  * Basic implementation of a Trie data structure.
@@ -31,7 +30,8 @@ import java.util.LinkedHashMap;
 public class Trie {
 
     private static class TrieNode {
-        LinkedHashMap<Character, TrieNode> children = new LinkedHashMap<>();
+        // keyed by character without boxing it
+        IntObjectMap<TrieNode> children = new IntObjectMap<>();
         String element;
     }
 
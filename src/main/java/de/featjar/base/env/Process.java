@@ -21,6 +21,8 @@
 package de.featjar.base.env;
 
 import de.featjar.base.FeatJAR;
+import de.featjar.base.computation.CancellationToken;
+import de.featjar.base.computation.ComputationContext;
 import de.featjar.base.data.Problem;
 import de.featjar.base.data.Result;
 import de.featjar.base.data.Void;
@@ -35,12 +37,15 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 /**
  * Executes an external executable in a process.
+ * When run inside a computation, the process is destroyed as soon as the computation is cancelled
+ * (see {@link ComputationContext#getCancellationToken()}).
  *
  * @author Elias Kuiter
  */
@@ -77,10 +82,15 @@ public class Process implements Supplier<Result<List<String>>> {
         command.addAll(arguments);
         FeatJAR.log().debug(String.join(" ", command));
         final ProcessBuilder processBuilder = new ProcessBuilder(command);
+        CancellationToken cancellationToken = ComputationContext.currentCancellationToken();
         java.lang.Process process = null;
+        Runnable destroyProcess = null;
         try {
+            cancellationToken.check();
             Instant start = Instant.now();
             process = processBuilder.start();
+            destroyProcess = process::destroyForcibly;
+            cancellationToken.addListener(destroyProcess);
             if (input != null) {
                 process.getOutputStream().write(input.getBytes(StandardCharsets.UTF_8));
                 process.getOutputStream().close();
@@ -92,6 +102,7 @@ public class Process implements Supplier<Result<List<String>>> {
                 terminatedInTime = process.waitFor(timeout.toMillis(), TimeUnit.MILLISECONDS);
             else process.waitFor();
             long elapsedTime = Duration.between(start, Instant.now()).toMillis();
+            cancellationToken.check();
             final int exitValue = process.exitValue();
             Result<Void> result;
             if (!errorOccurred) {
@@ -105,9 +116,12 @@ public class Process implements Supplier<Result<List<String>>> {
                             new Problem("in time = " + terminatedInTime, Problem.Severity.INFO),
                             new Problem("elapsed time in ms = " + elapsedTime, Problem.Severity.INFO))
                     .merge(result);
-        } catch (IOException | InterruptedException e) {
+        } catch (IOException | InterruptedException | CancellationException e) {
             return Result.empty(e);
         } finally {
+            if (destroyProcess != null) {
+                cancellationToken.removeListener(destroyProcess);
+            }
             if (process != null) {
                 process.destroyForcibly();
                 process = null;
@@ -32,6 +32,9 @@ import java.util.stream.Collectors;
  * @author Elias Kuiter
  */
 public class StackTrace {
+    private static final StackWalker STACK_WALKER =
+            StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+
     protected List<StackTraceElement> stackTraceElements;
 
     /**
@@ -102,6 +105,19 @@ public class StackTrace {
                         isMethodCall(stackTraceElement, klass, methodName).orElse(false));
     }
 
+    /**
+     * {@return whether the call stack of the current thread contains a call to a given method name in a given class or any subclass}
+     * In contrast to {@link #containsMethodCall(Class, String)}, this does not capture the whole stack trace
+     * and does not look up classes by name, but walks the stack lazily until the first matching frame.
+     *
+     * @param klass      the class
+     * @param methodName the method name
+     */
+    public static boolean isMethodCallOnStack(Class<?> klass, String methodName) {
+        return STACK_WALKER.walk(frames -> frames.anyMatch(
+                frame -> frame.getMethodName().equals(methodName) && klass.isAssignableFrom(frame.getDeclaringClass())));
+    }
+
     /**
      * {@return all stack trace elements of this stack trace}
      */
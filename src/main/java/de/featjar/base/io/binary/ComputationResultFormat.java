@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-base.
+ *
+ * base is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * base is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with base. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-base> for further information.
+ */
+package de.featjar.base.io.binary;
+
+import de.featjar.base.data.Pair;
+import de.featjar.base.data.Result;
+import de.featjar.base.io.input.AInputMapper;
+import de.featjar.base.io.output.AOutputMapper;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Parses and writes the result of a computation together with the serialized computation it belongs to.
+ * The serialized computation (see {@link de.featjar.base.computation.IComputation#serialize()}) is stored
+ * to detect hash collisions when the result is looked up by a hash of the computation.
+ * The result itself is stored with Java serialization.
+ * When parsing, only classes admitted by an {@link ObjectInputFilter} are deserialized,
+ * by default only classes of the Java base module and of FeatJAR.
+ *
+ * @author Sebastian Krieter
+ */
+public class ComputationResultFormat extends ABinaryFormat<Pair<byte[], Serializable>> {
+
+    private static final int MAGIC_NUMBER = 0x464A4352;
+    private static final int VERSION = 1;
+
+    /**
+     * Admits only classes of the Java base module and of FeatJAR,
+     * so that a manipulated file cannot instantiate arbitrary classes on the class path.
+     */
+    public static final ObjectInputFilter DEFAULT_FILTER =
+            ObjectInputFilter.Config.createFilter("java.base/*;de.featjar.**;!*");
+
+    protected final ObjectInputFilter filter;
+
+    /**
+     * Creates a computation result format that admits the classes admitted by {@link #DEFAULT_FILTER}.
+     */
+    public ComputationResultFormat() {
+        this(DEFAULT_FILTER);
+    }
+
+    /**
+     * Creates a computation result format.
+     *
+     * @param filter admits the classes that may be deserialized, which should only be the expected result types
+     */
+    public ComputationResultFormat(ObjectInputFilter filter) {
+        this.filter = Objects.requireNonNull(filter);
+    }
+
+    @Override
+    public String getName() {
+        return "Computation Result";
+    }
+
+    @Override
+    public String getFileExtension() {
+        return "result";
+    }
+
+    @Override
+    public boolean supportsParse() {
+        return true;
+    }
+
+    @Override
+    public boolean supportsSerialize() {
+        return true;
+    }
+
+    @Override
+    public Result<Pair<byte[], Serializable>> parse(AInputMapper inputMapper) {
+        final InputStream in = inputMapper.get().getInputStream();
+        try {
+            if (readInt(in) != MAGIC_NUMBER || readInt(in) != VERSION) {
+                return Result.empty(new IOException("Unsupported computation result file"));
+            }
+            final byte[] computation = readByteArray(in);
+            try (ObjectInputStream objectIn = new ObjectInputStream(new ByteArrayInputStream(readByteArray(in)))) {
+                objectIn.setObjectInputFilter(filter);
+                return Result.of(new Pair<>(computation, (Serializable) objectIn.readObject()));
+            }
+        } catch (final IOException | ClassNotFoundException | ClassCastException e) {
+            return Result.empty(e);
+        }
+    }
+
+    @Override
+    public void write(Pair<byte[], Serializable> entry, AOutputMapper outputMapper) throws IOException {
+        final ByteArrayOutputStream value = new ByteArrayOutputStream();
+        try (ObjectOutputStream objectOut = new ObjectOutputStream(value)) {
+            objectOut.writeObject(entry.getValue());
+        }
+        final OutputStream out = outputMapper.get().getOutputStream();
+        writeInt(out, MAGIC_NUMBER);
+        writeInt(out, VERSION);
+        writeByteArray(out, entry.getKey());
+        writeByteArray(out, value.toByteArray());
+        out.flush();
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-base.
+ *
+ * base is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * base is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with base. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-base> for further information.
+ */
+package de.featjar.base.computation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.featjar.base.FeatJAR;
+import de.featjar.base.data.Result;
+import de.featjar.base.data.Void;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+
+class AStreamingComputationTest {
+
+    static class ComputeRange extends AStreamingComputation<Integer> {
+        protected static final Dependency<Integer> COUNT = Dependency.newDependency(Integer.class);
+
+        private final CountDownLatch firstConsumed = new CountDownLatch(1);
+        private final CountDownLatch cancelled = new CountDownLatch(1);
+        private final AtomicInteger emitted = new AtomicInteger();
+        private boolean waitForFirstConsumed;
+
+        public ComputeRange(IComputation<Integer> count) {
+            super(count);
+        }
+
+        protected ComputeRange(ComputeRange other) {
+            super(other);
+        }
+
+        @Override
+        protected Result<Void> compute(List<Object> dependencyList, Progress progress, Consumer<? super Integer> emitter) {
+            int count = COUNT.get(dependencyList);
+            try {
+                for (int i = 0; i < count; i++) {
+                    progress.incrementCurrentStep();
+                    emitter.accept(i);
+                    emitted.incrementAndGet();
+                    if (i == 0 && waitForFirstConsumed && !firstConsumed.await(10, TimeUnit.SECONDS)) {
+                        return Result.ofVoid(new IllegalStateException());
+                    }
+                }
+            } catch (InterruptedException e) {
+                return Result.ofVoid(e);
+            } catch (CancellationException e) {
+                cancelled.countDown();
+                throw e;
+            }
+            return Result.ofVoid();
+        }
+    }
+
+    @Test
+    void elementsAreCollectedWhenComputed() {
+        ComputeRange range = new ComputeRange(Computations.of(4));
+        assertEquals(List.of(0, 1, 2, 3), range.compute());
+        assertEquals(List.of(0, 2, 4, 6), range.mapElements(getClass(), "double", i -> 2 * i).compute());
+        assertEquals(
+                List.of(1, 3),
+                range.mapElements(getClass(), "odd", i -> i % 2 == 1 ? i : null).compute());
+    }
+
+    @Test
+    void elementsAreStreamedWhileComputing() {
+        ComputeRange range = new ComputeRange(Computations.of(3));
+        range.waitForFirstConsumed = true;
+        try (Stream<Integer> elements =
+                range.mapElements(getClass(), "increment", i -> i + 1).streamElements()) {
+            Iterator<Integer> iterator = elements.iterator();
+            assertEquals(1, iterator.next());
+            assertTrue(range.emitted.get() <= 1);
+            range.firstConsumed.countDown();
+            assertEquals(2, iterator.next());
+            assertEquals(3, iterator.next());
+            assertFalse(iterator.hasNext());
+        }
+    }
+
+    @Test
+    void stagesDoNotStarveBoundedExecutor() {
+        FeatJAR.Configuration configuration = FeatJAR.createPanicConfiguration();
+        configuration.cacheConfig.setWorkStealingExecutor(1);
+        FeatJAR.run(configuration, fj -> assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+            AStreamingComputation<Integer> stages = new ComputeRange(Computations.of(100));
+            for (int i = 0; i < 8; i++) {
+                stages = stages.mapElements(getClass(), "increment", element -> element + 1);
+            }
+            try (Stream<Integer> elements = stages.streamElements()) {
+                assertEquals(
+                        IntStream.range(8, 108).boxed().collect(Collectors.toList()),
+                        elements.collect(Collectors.toList()));
+            }
+        }));
+    }
+
+    @Test
+    void streamingRespectsBackpressureAndCancellation() throws InterruptedException {
+        ComputeRange range = new ComputeRange(Computations.of(Integer.MAX_VALUE));
+        CountDownLatch received = new CountDownLatch(4);
+        Flow.Subscription[] subscription = new Flow.Subscription[1];
+        range.publish(4).subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription s) {
+                subscription[0] = s;
+                s.request(4);
+            }
+
+            @Override
+            public void onNext(Integer item) {
+                received.countDown();
+            }
+
+            @Override
+            public void onError(Throwable throwable) {}
+
+            @Override
+            public void onComplete() {}
+        });
+        assertTrue(received.await(10, TimeUnit.SECONDS));
+        Thread.sleep(100);
+        assertTrue(range.emitted.get() <= 4 + 4 + 1, String.valueOf(range.emitted.get()));
+        subscription[0].cancel();
+        assertTrue(range.cancelled.await(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void failuresArePublished() {
+        AStreamingComputation<Integer> failing = new ComputeRange(Computations.of(3))
+                .mapElements(getClass(), "fail", i -> {
+                    if (i == 1) {
+                        throw new IllegalStateException();
+                    }
+                    return i;
+                });
+        try (Stream<Integer> elements = failing.streamElements()) {
+            Iterator<Integer> iterator = elements.iterator();
+            assertEquals(0, iterator.next());
+            CompletionException exception = assertThrows(CompletionException.class, iterator::next);
+            assertTrue(exception.getCause() instanceof IllegalStateException);
+        }
+    }
+}
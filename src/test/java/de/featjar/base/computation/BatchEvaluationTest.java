@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-base.
+ *
+ * base is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * base is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with base. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-base> for further information.
+ */
+package de.featjar.base.computation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.featjar.base.data.Pair;
+import de.featjar.base.data.Result;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+class BatchEvaluationTest {
+
+    private static IComputation<Integer> shared(AtomicInteger count) {
+        return Computations.of(BatchEvaluationTest.class, "shared", () -> {
+            count.incrementAndGet();
+            return Result.of(10);
+        });
+    }
+
+    private static IComputation<Integer> root(IComputation<Integer> shared, int i) {
+        return Computations.of(shared, Computations.of(i))
+                .mapResult(BatchEvaluationTest.class, "add", pair -> pair.getKey() + pair.getValue());
+    }
+
+    @Test
+    void sharedSubcomputationsAreComputedOnce() {
+        AtomicInteger count = new AtomicInteger();
+        List<IComputation<Integer>> roots = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            roots.add(root(shared(count), i));
+        }
+        BatchEvaluation<Integer> batch = new BatchEvaluation<>(roots, false, false, Progress::new, 4);
+        assertEquals(20, batch.stream().count());
+        List<Result<Integer>> results = batch.getResults();
+        for (int i = 0; i < 20; i++) {
+            assertEquals(10 + i, results.get(i).get());
+        }
+        assertEquals(1, count.get());
+        assertTrue(batch.isDone());
+        assertEquals(1.0, batch.getProgress().get(), 1e-9);
+    }
+
+    @Test
+    void resultsAreStreamedInCompletionOrder() {
+        List<IComputation<Integer>> roots = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            roots.add(root(shared(new AtomicInteger()), i));
+        }
+        BatchEvaluation<Integer> batch = new BatchEvaluation<>(roots, false, false, Progress::new, 3);
+        Set<Integer> results =
+                batch.stream().map(Pair::getValue).map(Result::get).collect(Collectors.toSet());
+        assertEquals(Set.of(10, 11, 12, 13, 14, 15, 16, 17, 18, 19), results);
+        assertEquals(10, batch.getNumberOfCompleted());
+    }
+
+    @Test
+    void concurrencyIsBounded() {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<IComputation<Integer>> roots = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            int value = i;
+            roots.add(Computations.of(BatchEvaluationTest.class, "slow" + i, () -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(10);
+                } catch (InterruptedException e) {
+                    return Result.empty(e);
+                } finally {
+                    running.decrementAndGet();
+                }
+                return Result.of(value);
+            }));
+        }
+        BatchEvaluation<Integer> batch = new BatchEvaluation<>(roots, false, false, Progress::new, 2);
+        assertEquals(12, batch.getResults().size());
+        assertTrue(maxRunning.get() <= 2, String.valueOf(maxRunning.get()));
+    }
+
+    @Test
+    void failuresAreAggregated() {
+        List<IComputation<Integer>> roots = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            int value = i;
+            roots.add(Computations.of(
+                    BatchEvaluationTest.class,
+                    "failing" + i,
+                    () -> value % 2 == 0 ? Result.of(value) : Result.empty(new IllegalStateException())));
+        }
+        BatchEvaluation<Integer> batch = new BatchEvaluation<>(roots, false, false, Progress::new, 2);
+        assertEquals(6, batch.stream().count());
+        assertEquals(3, batch.getFailures().size());
+        assertTrue(batch.getFailures().stream()
+                .allMatch(failure -> failure.getValue().getProblems().get(0).getException()
+                        instanceof IllegalStateException));
+    }
+}
@@ -0,0 +1,495 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-base.
+ *
+ * base is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * base is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with base. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-base> for further information.
+ */
+package de.featjar.base.computation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.featjar.base.FeatJAR;
+import de.featjar.base.data.Pair;
+import de.featjar.base.data.Result;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.tascalate.concurrent.CompletablePromise;
+import net.tascalate.concurrent.DependentPromise;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CacheTest {
+
+    private static <T> FutureResult<T> completed(T value) {
+        return new FutureResult<>(Result.of(value), new Progress());
+    }
+
+    private static long weighValue(IComputation<?> computation, FutureResult<?> futureResult) {
+        // does not block on pending results, which are weighed again when they are done
+        return futureResult.getPromise().isDone() ? (Integer) futureResult.get().get() : 0;
+    }
+
+    private static ComputeConstant<Integer> constant(int value) {
+        return new ComputeConstant<>(value);
+    }
+
+    static class ComputeNested extends AComputation<Integer> {
+        protected static final Dependency<Integer> INPUT = Dependency.newDependency(Integer.class);
+
+        public ComputeNested(IComputation<Integer> input) {
+            super(input);
+        }
+
+        protected ComputeNested(ComputeNested other) {
+            super(other);
+        }
+
+        @Override
+        public Result<Integer> compute(List<Object> dependencyList, Progress progress) {
+            AComputation<Integer> nested = (AComputation<Integer>)
+                    Computations.of(INPUT.get(dependencyList)).mapResult(CacheTest.class, "nested", i -> i + 1);
+            nested.setCache(getCache());
+            return nested.computeResult();
+        }
+    }
+
+    static class ComputeOffset extends AComputation<Integer> {
+        protected static final Dependency<Integer> INPUT = Dependency.newDependency(Integer.class);
+
+        private final int offset;
+
+        public ComputeOffset(IComputation<Integer> input, int offset) {
+            super(input);
+            this.offset = offset;
+        }
+
+        protected ComputeOffset(ComputeOffset other) {
+            super(other);
+            offset = other.offset;
+        }
+
+        @Override
+        public Result<Integer> compute(List<Object> dependencyList, Progress progress) {
+            return Result.of(INPUT.get(dependencyList) + offset);
+        }
+
+        @Override
+        public boolean equalsNode(IComputation<?> other) {
+            return super.equalsNode(other) && offset == ((ComputeOffset) other).offset;
+        }
+
+        @Override
+        public int hashCodeNode() {
+            return Objects.hash(super.hashCodeNode(), offset);
+        }
+    }
+
+    @Test
+    void topLevelPolicyDoesNotCacheNestedComputations() {
+        Cache cache = new Cache(new Cache.Configuration().setCachePolicy(Cache.CachePolicy.CACHE_TOP_LEVEL));
+        ComputeNested computation = new ComputeNested(constant(1));
+        computation.setCache(cache);
+        assertEquals(2, computation.computeResult().get());
+        assertTrue(cache.has(computation));
+        assertFalse(cache.has(Computations.of(1).mapResult(CacheTest.class, "nested", i -> i + 1)));
+        assertTrue(ComputationContext.current().isTopLevel());
+    }
+
+    @Test
+    void unboundedCacheKeepsAllResults() {
+        Cache cache = new Cache(new Cache.Configuration());
+        for (int i = 0; i < 100; i++) {
+            cache.put(constant(i), completed(i));
+        }
+        assertEquals(100, cache.getCachedComputations().size());
+    }
+
+    @Test
+    void concurrentHitsAreCounted() throws InterruptedException {
+        Cache cache = new Cache(new Cache.Configuration());
+        IComputation<Integer> computation = constant(1);
+        cache.put(computation, completed(1));
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 1000; j++) {
+                    assertTrue(cache.tryHit(computation).isPresent());
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(8000, cache.getNumberOfHits(computation));
+    }
+
+    @Test
+    void weigherIsIndependentOfBound() {
+        Cache cache = new Cache(new Cache.Configuration()
+                .setWeigher(CacheTest::weighValue)
+                .setRecordStatistics(true));
+        cache.put(constant(4), completed(4));
+        cache.put(constant(5), completed(5));
+        assertFalse(cache.getConfiguration().isBounded());
+        assertEquals(9, cache.getStatistics().get().getRetainedWeight());
+        cache.getConfiguration().setMaximumWeight(8);
+        cache.setConfiguration(cache.getConfiguration());
+        assertEquals(1, cache.getCachedComputations().size());
+        assertTrue(cache.getWeight() <= 8);
+    }
+
+    @Test
+    void hitsAreForgottenWithRemovedResults() {
+        Cache cache = new Cache(new Cache.Configuration());
+        IComputation<Integer> computation = constant(1);
+        cache.put(computation, completed(1));
+        cache.tryHit(computation);
+        assertEquals(1, cache.getNumberOfHits(computation));
+        cache.remove(computation);
+        assertEquals(0, cache.getNumberOfHits(computation));
+
+        CompletablePromise<Result<Integer>> promise = new CompletablePromise<>();
+        cache.put(computation, new FutureResult<>(DependentPromise.from(promise), new Progress()));
+        assertTrue(cache.tryHit(computation).isPresent());
+        assertEquals(1, cache.getNumberOfHits(computation));
+        promise.completeExceptionally(new IllegalStateException());
+        assertFalse(cache.tryHit(computation).isPresent());
+        assertFalse(cache.has(computation));
+        assertEquals(0, cache.getNumberOfHits(computation));
+    }
+
+    @Test
+    void statisticsAreRecorded() {
+        Cache cache = new Cache(new Cache.Configuration().setMaximumSize(1).setRecordStatistics(true));
+        cache.put(constant(1), completed(1));
+        cache.tryHit(constant(1));
+        cache.tryHit(constant(2));
+        cache.put(constant(2), completed(2));
+        CacheStatistics.Snapshot snapshot = cache.getStatistics().get();
+        assertEquals(1, snapshot.getEntries());
+        assertEquals(1, snapshot.getRetainedWeight());
+        assertEquals(0, snapshot.getInFlight());
+        CacheStatistics.Entry total = snapshot.getTotal();
+        assertEquals(1, total.getHits());
+        assertEquals(1, total.getMisses());
+        assertEquals(2, total.getPuts());
+        assertEquals(1, total.getEvictions());
+        assertEquals(0.5, total.getHitRatio());
+        assertEquals(ComputeConstant.class.getName(), snapshot.getEntriesByClass().get(0).getComputationClass());
+        assertFalse(new Cache(new Cache.Configuration()).getStatistics().isPresent());
+    }
+
+    @Test
+    void evictionTracksFutureResultsByIdentity() {
+        for (Cache.EvictionPolicy evictionPolicy : Cache.EvictionPolicy.values()) {
+            CacheEviction eviction = CacheEviction.of(evictionPolicy, 1);
+            FutureResult<Integer> first = completed(1);
+            FutureResult<Integer> second = completed(1);
+            assertTrue(eviction.recordWrite(constant(1), first, 1).isEmpty());
+            assertTrue(eviction.recordWrite(constant(1), second, 1).isEmpty());
+            assertEquals(1, eviction.getWeight());
+            eviction.recordRemove(constant(1), first);
+            assertEquals(1, eviction.getWeight());
+            List<Pair<IComputation<?>, FutureResult<?>>> evicted = eviction.recordWrite(constant(2), completed(2), 1);
+            assertEquals(1, evicted.size());
+            assertEquals(constant(1), evicted.get(0).getKey());
+            assertSame(second, evicted.get(0).getValue());
+            assertEquals(1, eviction.getWeight());
+        }
+    }
+
+    @Test
+    void leastRecentlyUsedEvictsOldestResult() {
+        List<IComputation<?>> evicted = new ArrayList<>();
+        Cache cache = new Cache(new Cache.Configuration()
+                .setMaximumSize(2)
+                .setEvictionPolicy(Cache.EvictionPolicy.LEAST_RECENTLY_USED)
+                .addEvictionListener((computation, futureResult) -> evicted.add(computation)));
+        cache.put(constant(1), completed(1));
+        cache.put(constant(2), completed(2));
+        assertTrue(cache.tryHit(constant(1)).isPresent());
+        cache.put(constant(3), completed(3));
+        assertEquals(List.of(constant(2)), evicted);
+        assertTrue(cache.has(constant(1)));
+        assertFalse(cache.has(constant(2)));
+        assertTrue(cache.has(constant(3)));
+        assertEquals(2, cache.getWeight());
+    }
+
+    @Test
+    void leastFrequentlyUsedEvictsRarestResult() {
+        Cache cache = new Cache(new Cache.Configuration()
+                .setMaximumSize(2)
+                .setEvictionPolicy(Cache.EvictionPolicy.LEAST_FREQUENTLY_USED));
+        cache.put(constant(1), completed(1));
+        cache.put(constant(2), completed(2));
+        cache.tryHit(constant(1));
+        cache.tryHit(constant(1));
+        cache.tryHit(constant(2));
+        cache.put(constant(3), completed(3));
+        cache.put(constant(4), completed(4));
+        assertTrue(cache.has(constant(1)));
+        assertFalse(cache.has(constant(2)));
+        assertFalse(cache.has(constant(3)));
+        assertTrue(cache.has(constant(4)));
+    }
+
+    @Test
+    void windowedTinyLeastFrequentlyUsedProtectsFrequentResults() {
+        Cache cache = new Cache(new Cache.Configuration()
+                .setMaximumSize(10)
+                .setEvictionPolicy(Cache.EvictionPolicy.WINDOWED_TINY_LEAST_FREQUENTLY_USED));
+        for (int i = 0; i < 9; i++) {
+            cache.put(constant(i), completed(i));
+        }
+        for (int hit = 0; hit < 5; hit++) {
+            for (int i = 0; i < 9; i++) {
+                cache.tryHit(constant(i));
+            }
+        }
+        for (int i = 100; i < 1000; i++) {
+            cache.put(constant(i), completed(i));
+            if (i % 10 == 0) {
+                for (int j = 0; j < 9; j++) {
+                    cache.tryHit(constant(j));
+                }
+            }
+        }
+        for (int i = 0; i < 9; i++) {
+            assertTrue(cache.has(constant(i)), String.valueOf(i));
+        }
+        assertEquals(10, cache.getCachedComputations().size());
+    }
+
+    @Test
+    void weightBoundIsRespected() {
+        Cache cache = new Cache(new Cache.Configuration()
+                .setMaximumWeight(10, CacheTest::weighValue));
+        cache.put(constant(4), completed(4));
+        cache.put(constant(5), completed(5));
+        cache.put(constant(11), completed(11));
+        assertFalse(cache.has(constant(11)));
+        cache.put(constant(3), completed(3));
+        assertFalse(cache.has(constant(4)));
+        assertEquals(8, cache.getWeight());
+    }
+
+    @Test
+    void resultsAreReweighedWhenDone() {
+        Cache cache = new Cache(new Cache.Configuration()
+                .setMaximumWeight(10, CacheTest::weighValue));
+        CompletablePromise<Result<Integer>> promise = new CompletablePromise<>();
+        cache.put(constant(7), new FutureResult<>(DependentPromise.from(promise), new Progress()));
+        cache.put(constant(2), completed(2));
+        assertEquals(2, cache.getWeight());
+        promise.complete(Result.of(7));
+        assertEquals(9, cache.getWeight());
+        cache.put(constant(3), completed(3));
+        assertFalse(cache.has(constant(7)));
+        assertEquals(5, cache.getWeight());
+    }
+
+    @Test
+    void diskCacheSurvivesNewCache(@TempDir Path directory) throws IOException, InterruptedException {
+        IComputation<Integer> computation = Computations.of(21).mapResult(CacheTest.class, "double", i -> 2 * i);
+        DiskCache diskCache = new DiskCache(directory, 1 << 20);
+        Cache cache = new Cache(new Cache.Configuration().setDiskCache(diskCache));
+        cache.put(computation, completed(42));
+        for (int i = 0; i < 100 && diskCache.getBytes() == 0; i++) {
+            Thread.sleep(10);
+        }
+        assertTrue(diskCache.getBytes() > 0);
+
+        Cache newCache = new Cache(new Cache.Configuration()
+                .setDiskCache(new DiskCache(directory, 1 << 20))
+                .setRecordStatistics(true));
+        assertEquals(42, newCache.tryHit(computation).get().get().get());
+        assertTrue(newCache.has(computation));
+        CacheStatistics.Entry total = newCache.getStatistics().get().getTotal();
+        assertEquals(0, total.getHits());
+        assertEquals(1, total.getDiskHits());
+        assertEquals(0, newCache.getNumberOfHits(computation));
+        assertFalse(newCache.tryHit(Computations.of(21).mapResult(CacheTest.class, "triple", i -> 3 * i))
+                .isPresent());
+    }
+
+    @Test
+    void diskCacheOnlyLoadsAdmittedClasses(@TempDir Path directory) throws IOException {
+        DiskCache diskCache =
+                new DiskCache(directory, 1 << 20, ObjectInputFilter.Config.createFilter("java.lang.*;!*"));
+        IComputation<Integer> integer = Computations.of(21).mapResult(CacheTest.class, "integer", i -> 2 * i);
+        IComputation<ArrayList<Integer>> list =
+                Computations.of(21).mapResult(CacheTest.class, "list", i -> new ArrayList<>(List.of(i)));
+        assertTrue(diskCache.store(integer, 42));
+        assertTrue(diskCache.store(list, new ArrayList<>(List.of(21))));
+        assertEquals(42, diskCache.load(integer).get());
+        assertFalse(diskCache.load(list).isPresent());
+        diskCache.remove(integer);
+        assertFalse(diskCache.load(integer).isPresent());
+    }
+
+    @Test
+    void diskCacheDetectsFilesOfOtherComputations(@TempDir Path directory) throws IOException {
+        DiskCache diskCache = new DiskCache(directory, 1 << 20);
+        IComputation<Integer> one = Computations.of(21).mapResult(CacheTest.class, "one", i -> i + 1);
+        IComputation<Integer> two = Computations.of(21).mapResult(CacheTest.class, "two", i -> i + 2);
+        assertTrue(diskCache.store(one, 22));
+        Files.copy(diskCache.getFile(one.getDigest().get()), diskCache.getFile(two.getDigest().get()));
+
+        DiskCache newDiskCache = new DiskCache(directory, 1 << 20);
+        assertEquals(22, newDiskCache.load(one).get());
+        assertFalse(newDiskCache.load(two).isPresent());
+    }
+
+    @Test
+    void diskCacheSkipsComputationsWithoutSerializedNode(@TempDir Path directory) throws IOException {
+        DiskCache diskCache = new DiskCache(directory, 1 << 20);
+        ComputeOffset one = new ComputeOffset(constant(21), 1);
+        ComputeOffset two = new ComputeOffset(constant(21), 2);
+        assertFalse(one.serializeNode().isPresent());
+        assertFalse(one.getDigest().isPresent());
+        assertFalse(diskCache.store(one, 22));
+        assertFalse(diskCache.load(two).isPresent());
+
+        Cache cache = new Cache(new Cache.Configuration().setDiskCache(diskCache));
+        cache.put(one, completed(22));
+        assertEquals(0, diskCache.getBytes());
+        Cache newCache = new Cache(new Cache.Configuration().setDiskCache(new DiskCache(directory, 1 << 20)));
+        assertFalse(newCache.tryHit(two).isPresent());
+        assertFalse(newCache.tryHit(one).isPresent());
+    }
+
+    @Test
+    void concurrentIdenticalComputationsAreCoalesced() throws InterruptedException {
+        FeatJAR.cache().getConfiguration().setCoalesceComputations(true);
+        try {
+            computeConcurrentIdenticalComputations();
+        } finally {
+            FeatJAR.cache().getConfiguration().setCoalesceComputations(false);
+        }
+    }
+
+    private static void computeConcurrentIdenticalComputations() throws InterruptedException {
+        AtomicInteger count = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        List<FutureResult<Integer>> futureResults = new ArrayList<>();
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                IComputation<Integer> computation =
+                        Computations.of(1).mapResult(CacheTest.class, "blocking", value -> {
+                            count.incrementAndGet();
+                            try {
+                                release.await();
+                            } catch (InterruptedException e) {
+                                throw new RuntimeException(e);
+                            }
+                            return value + 1;
+                        });
+                FutureResult<Integer> futureResult = computation.computeFutureResult();
+                synchronized (futureResults) {
+                    futureResults.add(futureResult);
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(1, FeatJAR.cache().getNumberOfInFlightComputations());
+        release.countDown();
+        for (FutureResult<Integer> futureResult : futureResults) {
+            assertEquals(2, futureResult.get().get());
+        }
+        assertEquals(1, count.get());
+        for (int i = 0; i < 100 && FeatJAR.cache().getNumberOfInFlightComputations() > 0; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, FeatJAR.cache().getNumberOfInFlightComputations());
+    }
+
+    private static IComputation<Integer> blockingComputation(
+            AtomicInteger count, CountDownLatch started, CountDownLatch release) {
+        return Computations.of(1).mapResult(CacheTest.class, "cancellable", value -> {
+            count.incrementAndGet();
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            return value + 1;
+        });
+    }
+
+    @Test
+    void cancellingJoinedComputationDoesNotCancelOthers() throws InterruptedException {
+        FeatJAR.cache().getConfiguration().setCoalesceComputations(true);
+        try {
+            AtomicInteger count = new AtomicInteger();
+            CountDownLatch started = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            FutureResult<Integer> first = blockingComputation(count, started, release).computeFutureResult();
+            FutureResult<Integer> second = blockingComputation(count, started, release).computeFutureResult();
+            assertEquals(1, FeatJAR.cache().getNumberOfInFlightComputations());
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+            first.cancel();
+            assertTrue(first.getPromise().isCancelled());
+            assertFalse(second.getPromise().isDone());
+            assertEquals(1, FeatJAR.cache().getNumberOfInFlightComputations());
+            release.countDown();
+            assertEquals(2, second.get().get());
+            assertEquals(1, count.get());
+        } finally {
+            FeatJAR.cache().getConfiguration().setCoalesceComputations(false);
+        }
+    }
+
+    @Test
+    void cancellingAllJoinedComputationsCancelsSharedComputation() throws InterruptedException {
+        FeatJAR.cache().getConfiguration().setCoalesceComputations(true);
+        try {
+            AtomicInteger count = new AtomicInteger();
+            CountDownLatch started = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            FutureResult<Integer> first = blockingComputation(count, started, release).computeFutureResult();
+            FutureResult<Integer> second = blockingComputation(count, started, release).computeFutureResult();
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+            first.cancel();
+            second.cancel();
+            assertEquals(0, FeatJAR.cache().getNumberOfInFlightComputations());
+            FutureResult<Integer> third = blockingComputation(count, started, release).computeFutureResult();
+            release.countDown();
+            assertEquals(2, third.get().get());
+            assertEquals(2, count.get());
+        } finally {
+            FeatJAR.cache().getConfiguration().setCoalesceComputations(false);
+        }
+    }
+}
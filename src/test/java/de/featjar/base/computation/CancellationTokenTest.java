@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-base.
+ *
+ * base is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * base is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with base. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-base> for further information.
+ */
+package de.featjar.base.computation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class CancellationTokenTest {
+
+    @Test
+    void cancellationPropagatesToChildren() {
+        CancellationToken parent = new CancellationToken();
+        CancellationToken child = new CancellationToken(parent);
+        CancellationToken detachedChild = new CancellationToken(parent);
+        detachedChild.detach();
+        AtomicInteger notifications = new AtomicInteger();
+        child.addListener(notifications::incrementAndGet);
+
+        assertFalse(child.isCancelled());
+        parent.cancel();
+        parent.cancel();
+        assertTrue(child.isCancelled());
+        assertFalse(detachedChild.isCancelled());
+        assertEquals(1, notifications.get());
+        assertThrows(CancellationException.class, child::check);
+
+        child.addListener(notifications::incrementAndGet);
+        assertEquals(2, notifications.get());
+    }
+
+    @Test
+    void deadlineCancels() throws InterruptedException {
+        CancellationToken token = new CancellationToken().setDeadline(Duration.ofMillis(20));
+        assertFalse(token.getRemainingTime().isNegative());
+        for (int i = 0; i < 1000 && !token.isCancelled(); i++) {
+            Thread.sleep(10);
+        }
+        assertTrue(token.isCancelled());
+    }
+
+    @Test
+    void noneIsNeverCancelled() {
+        CancellationToken.NONE.cancel();
+        assertFalse(CancellationToken.NONE.isCancelled());
+        assertFalse(new Progress().isCancelled());
+    }
+
+    @Test
+    void progressChecksCancellation() {
+        Progress progress = new Progress();
+        CancellationToken token = new CancellationToken();
+        progress.setCancellationToken(token);
+        progress.incrementCurrentStep();
+        token.cancel();
+        assertThrows(CancellationException.class, progress::incrementCurrentStep);
+        assertEquals(1, progress.getCurrentStep());
+    }
+}
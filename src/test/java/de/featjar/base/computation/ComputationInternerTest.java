@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-base.
+ *
+ * base is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * base is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with base. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-base> for further information.
+ */
+package de.featjar.base.computation;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.featjar.base.data.Pair;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+class ComputationInternerTest {
+
+    private static ComputePair<Pair<Integer, Integer>, Integer> tree(int a, int b, int c) {
+        return new ComputePair<>(new ComputePair<>(Computations.of(a), Computations.of(b)), Computations.of(c));
+    }
+
+    @Test
+    void equalTreesHaveEqualFingerprints() {
+        assertEquals(tree(1, 2, 3).getFingerprint(), tree(1, 2, 3).getFingerprint());
+        assertNotEquals(tree(1, 2, 3).getFingerprint(), tree(1, 2, 4).getFingerprint());
+        assertNotEquals(tree(1, 2, 3).getFingerprint(), tree(2, 1, 3).getFingerprint());
+        assertEquals(tree(1, 2, 3), tree(1, 2, 3));
+        assertNotEquals(tree(1, 2, 3), tree(1, 2, 4));
+    }
+
+    @Test
+    void modifiedDescendantsInvalidateAncestors() {
+        ComputePair<Pair<Integer, Integer>, Integer> tree = tree(1, 2, 3);
+        Fingerprint fingerprint = tree.getFingerprint();
+        int hashCode = tree.hashCode();
+        ComputePair<Integer, Integer> inner = (ComputePair<Integer, Integer>) tree.getKeyComputation();
+        inner.setKeyComputation(Computations.of(5));
+        assertNotEquals(fingerprint, tree.getFingerprint());
+        assertNotEquals(hashCode, tree.hashCode());
+        assertEquals(tree(5, 2, 3).getFingerprint(), tree.getFingerprint());
+        assertEquals(tree(5, 2, 3), tree);
+        inner.setKeyComputation(Computations.of(1));
+        assertEquals(fingerprint, tree.getFingerprint());
+    }
+
+    @Test
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    void fingerprintsOfDeepTreesDoNotOverflowTheStack() {
+        IComputation tree = Computations.of(0);
+        IComputation otherTree = Computations.of(0);
+        for (int i = 1; i < 100_000; i++) {
+            tree = new ComputePair<>(tree, Computations.of(i));
+            otherTree = new ComputePair<>(otherTree, Computations.of(i));
+        }
+        assertEquals(tree.getFingerprint(), otherTree.getFingerprint());
+        assertArrayEquals((byte[]) tree.getDigest().get(), (byte[]) otherTree.getDigest().get());
+    }
+
+    @Test
+    void digestsAreCachedUntilDescendantsAreModified() {
+        ComputePair<Pair<Integer, Integer>, Integer> tree = tree(1, 2, 3);
+        byte[] digest = tree.getDigest().get();
+        assertSame(digest, tree.getDigest().get());
+        assertArrayEquals(digest, tree(1, 2, 3).getDigest().get());
+        ((ComputePair<Integer, Integer>) tree.getKeyComputation()).setKeyComputation(Computations.of(5));
+        assertArrayEquals(tree(5, 2, 3).getDigest().get(), tree.getDigest().get());
+        assertFalse(Arrays.equals(digest, tree.getDigest().get()));
+        assertFalse(Computations.of(new Object()).getDigest().isPresent());
+    }
+
+    @Test
+    void equalTreesAreInternedToSameInstance() {
+        ComputationInterner interner = new ComputationInterner();
+        IComputation<Pair<Pair<Integer, Integer>, Integer>> tree1 = interner.intern(tree(1, 2, 3));
+        IComputation<Pair<Pair<Integer, Integer>, Integer>> tree2 = interner.intern(tree(1, 2, 3));
+        IComputation<Pair<Pair<Integer, Integer>, Integer>> tree3 = interner.intern(tree(1, 2, 4));
+        assertSame(tree1, tree2);
+        assertNotSame(tree1, tree3);
+        assertSame(tree1.getChildren().get(0), tree3.getChildren().get(0));
+        assertTrue(interner.isCanonical(tree1));
+        assertFalse(interner.isCanonical(tree(1, 2, 3)));
+        assertEquals(7, interner.size());
+    }
+
+    @Test
+    void internedTreesWithDifferentSubtreesAreCloned() {
+        ComputationInterner interner = new ComputationInterner();
+        IComputation<Pair<Pair<Integer, Integer>, Integer>> tree1 = interner.intern(tree(1, 2, 3));
+        ComputePair<Pair<Integer, Integer>, Integer> tree2 = tree(1, 2, 4);
+        IComputation<Pair<Pair<Integer, Integer>, Integer>> internedTree2 = interner.intern(tree2);
+        assertNotSame(tree2, internedTree2);
+        assertNotSame(tree1.getChildren().get(0), tree2.getChildren().get(0));
+        assertEquals(tree2, internedTree2);
+        assertEquals(new Pair<>(new Pair<>(1, 2), 4), internedTree2.computeUncachedResult().get());
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-base.
+ *
+ * base is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * base is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with base. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-base> for further information.
+ */
+package de.featjar.base.computation;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import de.featjar.base.data.Pair;
+import de.featjar.base.data.Result;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class ComputationPlanTest {
+
+    private static IComputation<Pair<Integer, Integer>> diamond(AtomicInteger count) {
+        IComputation<Integer> left = Computations.<Integer>of(ComputationPlanTest.class, "shared", () -> {
+                    count.incrementAndGet();
+                    return Result.of(1);
+                })
+                .mapResult(ComputationPlanTest.class, "left", i -> i + 1);
+        IComputation<Integer> right = Computations.<Integer>of(ComputationPlanTest.class, "shared", () -> {
+                    count.incrementAndGet();
+                    return Result.of(1);
+                })
+                .mapResult(ComputationPlanTest.class, "right", i -> i + 2);
+        return Computations.of(left, right);
+    }
+
+    @Test
+    void identicalSubcomputationsAreShared() {
+        ComputationPlan plan = ComputationPlan.of(diamond(new AtomicInteger()));
+        assertEquals(4, plan.size());
+        assertArrayEquals(new int[] {3}, plan.getRootIndices());
+        assertArrayEquals(new int[] {0}, plan.getDependencyIndices(1));
+        assertArrayEquals(new int[] {0}, plan.getDependencyIndices(2));
+        assertArrayEquals(new int[] {1, 2}, plan.getDependencyIndices(3));
+        assertEquals(0, plan.indexOf(Computations.of(ComputationPlanTest.class, "shared", () -> Result.of(1))));
+        assertEquals(-1, plan.indexOf(Computations.of(2)));
+    }
+
+    @Test
+    void planSharesSubcomputationsAmongRoots() {
+        AtomicInteger count = new AtomicInteger();
+        ComputationPlan plan = ComputationPlan.of(List.of(diamond(count), diamond(count).getChildren().get(0)));
+        assertEquals(4, plan.size());
+        assertArrayEquals(new int[] {3, 1}, plan.getRootIndices());
+    }
+
+    @Test
+    void identicalSubcomputationsAreComputedOnce() {
+        AtomicInteger count = new AtomicInteger();
+        assertEquals(new Pair<>(2, 3), diamond(count).computeUncachedFutureResult().get().get());
+        assertEquals(1, count.get());
+    }
+}
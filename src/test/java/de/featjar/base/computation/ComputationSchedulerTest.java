@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-base.
+ *
+ * base is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * base is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with base. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-base> for further information.
+ */
+package de.featjar.base.computation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.featjar.base.FeatJAR;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ComputationSchedulerTest {
+
+    private ExecutorService executor;
+    private ComputationScheduler scheduler;
+    private CountDownLatch blocker;
+    private List<String> order;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newSingleThreadExecutor();
+        scheduler = new ComputationScheduler(1);
+        blocker = new CountDownLatch(1);
+        order = new ArrayList<>();
+        scheduler.openSession(0).getExecutor(Computations.of(0), 0, executor).execute(() -> {
+            try {
+                blocker.await();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        // releases the blocking task in tests that do not run the queued tasks
+        blocker.countDown();
+        executor.shutdownNow();
+    }
+
+    private void submit(ComputationScheduler.Session session, long criticalPathCost, String name) {
+        session.getExecutor(Computations.of(0), criticalPathCost, executor).execute(() -> {
+            synchronized (order) {
+                order.add(name);
+            }
+        });
+    }
+
+    private List<String> run(int expectedTasks) throws InterruptedException {
+        assertEquals(expectedTasks, scheduler.getQueueSize());
+        blocker.countDown();
+        for (int i = 0; i < 1000 && scheduler.getQueueSize() > 0; i++) {
+            Thread.sleep(10);
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        return order;
+    }
+
+    @Test
+    void higherPriorityIsScheduledFirst() throws InterruptedException {
+        ComputationScheduler.Session batch = scheduler.openSession(0);
+        ComputationScheduler.Session interactive = scheduler.openSession(10);
+        submit(batch, 1, "batch1");
+        submit(batch, 1, "batch2");
+        submit(interactive, 1, "interactive");
+        assertEquals(List.of("interactive", "batch1", "batch2"), run(3));
+    }
+
+    @Test
+    void sessionsShareFairly() throws InterruptedException {
+        ComputationScheduler.Session a = scheduler.openSession(0);
+        ComputationScheduler.Session b = scheduler.openSession(0);
+        for (int i = 0; i < 4; i++) {
+            submit(a, 1, "a");
+        }
+        submit(b, 1, "b");
+        submit(b, 1, "b");
+        assertEquals(List.of("a", "b", "a", "b", "a", "a"), run(6));
+    }
+
+    @Test
+    void criticalPathIsScheduledFirst() throws InterruptedException {
+        ComputationScheduler.Session session = scheduler.openSession(0);
+        submit(session, 1, "short");
+        submit(session, 5, "long");
+        submit(session, 3, "medium");
+        assertEquals(List.of("long", "medium", "short"), run(3));
+    }
+
+    @Test
+    void criticalPathCostsArePlanned() {
+        IComputation<Integer> shared = Computations.of(1).mapResult(getClass(), "shared", i -> i);
+        IComputation<Integer> deep = shared.mapResult(getClass(), "a", i -> i)
+                .mapResult(getClass(), "b", i -> i)
+                .mapResult(getClass(), "c", i -> i);
+        ComputationPlan plan = ComputationPlan.of(Computations.of(deep, shared));
+        long[] criticalPathCosts = plan.getCriticalPathCosts();
+        assertEquals(1, criticalPathCosts[plan.getRootIndices()[0]]);
+        assertEquals(5, criticalPathCosts[plan.indexOf(shared)]);
+        assertEquals(6, criticalPathCosts[plan.indexOf(Computations.of(1))]);
+    }
+
+    @Test
+    void scheduledEvaluation() {
+        blocker.countDown();
+        FeatJAR.Configuration configuration = FeatJAR.createPanicConfiguration();
+        configuration.cacheConfig.setScheduler(new ComputationScheduler(1));
+        FeatJAR.run(configuration, fj -> {
+            IComputation<Integer> shared = Computations.of(20).mapResult(getClass(), "shared", i -> i + 1);
+            IComputation<Integer> sum = Computations.of(shared, shared.mapResult(getClass(), "double", i -> 2 * i))
+                    .mapResult(getClass(), "sum", pair -> pair.getKey() + pair.getValue());
+            assertEquals(63, sum.computeFutureResult().get().get());
+            assertEquals(0, FeatJAR.cache().getConfiguration().getScheduler().get().getQueueSize());
+        });
+    }
+}
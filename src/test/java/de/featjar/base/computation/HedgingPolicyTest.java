@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-base.
+ *
+ * base is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * base is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with base. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-base> for further information.
+ */
+package de.featjar.base.computation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.featjar.base.data.Result;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class HedgingPolicyTest {
+
+    /**
+     * Hangs in the first attempt until cancelled, and returns the attempt number otherwise.
+     */
+    static class ComputeHeavyTailed extends AComputation<Integer> {
+        protected static final Dependency<Integer> SEED = Dependency.newDependency(ComputeHeavyTailed.class, Integer.class);
+
+        private final HedgingPolicy hedgingPolicy;
+        private final CountDownLatch cancelled = new CountDownLatch(1);
+
+        public ComputeHeavyTailed(IComputation<Integer> seed, HedgingPolicy hedgingPolicy) {
+            super(seed);
+            this.hedgingPolicy = hedgingPolicy;
+        }
+
+        protected ComputeHeavyTailed(ComputeHeavyTailed other) {
+            super(other);
+            this.hedgingPolicy = other.hedgingPolicy;
+        }
+
+        @Override
+        public HedgingPolicy getHedgingPolicy() {
+            return hedgingPolicy;
+        }
+
+        @Override
+        public Result<Integer> compute(List<Object> dependencyList, Progress progress) {
+            int attempt = ComputationContext.currentAttempt();
+            if (attempt == 0) {
+                long start = System.nanoTime();
+                try {
+                    while (System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(200)) {
+                        progress.checkCancel();
+                        Thread.onSpinWait();
+                    }
+                } catch (CancellationException e) {
+                    cancelled.countDown();
+                    throw e;
+                }
+            }
+            return Result.of(SEED.get(dependencyList) + attempt);
+        }
+    }
+
+    @Test
+    void slowAttemptIsHedged() throws InterruptedException {
+        HedgingPolicy hedgingPolicy = new HedgingPolicy(0.5, 1, Duration.ZERO);
+        hedgingPolicy.recordLatency(TimeUnit.MILLISECONDS.toNanos(1));
+        ComputeHeavyTailed computation = new ComputeHeavyTailed(Computations.of(10), hedgingPolicy);
+        assertEquals(11, computation.computeFutureResult(false, false).get().get());
+        assertTrue(computation.cancelled.await(10, TimeUnit.SECONDS));
+        assertEquals(1, hedgingPolicy.getHedges());
+        assertEquals(1, hedgingPolicy.getHedgeWins());
+    }
+
+    @Test
+    void attemptIsNotHedgedWithoutObservedLatencies() {
+        HedgingPolicy hedgingPolicy = new HedgingPolicy(0.5, 1, Duration.ZERO);
+        ComputeHeavyTailed computation = new ComputeHeavyTailed(Computations.of(10), hedgingPolicy);
+        assertEquals(10, computation.computeFutureResult(false, false).get().get());
+        assertEquals(0, hedgingPolicy.getHedges());
+        assertTrue(hedgingPolicy.getDelayNanos() >= 0);
+    }
+}
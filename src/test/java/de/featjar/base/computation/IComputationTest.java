@@ -37,6 +37,12 @@ import de.featjar.base.log.VerbosityFormatter;
 import de.featjar.base.tree.structure.ITree;
 import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 import org.junit.jupiter.api.Test;
 
@@ -100,6 +106,73 @@ class IComputationTest {
         assertTrue(FeatJAR.cache().getCachedComputations().isEmpty());
     }
 
+    @Test
+    void workStealingExecutor() {
+        final Configuration configuration = FeatJAR.createPanicConfiguration();
+        configuration.cacheConfig.setWorkStealingExecutor(2);
+        FeatJAR.run(configuration, fj -> {
+            IComputation<Integer> deep = Computations.of(0);
+            for (int i = 0; i < 500; i++) {
+                deep = deep.mapResult(getClass(), "increment", n -> n + 1);
+            }
+            assertEquals(500, deep.computeFutureResult().get().get());
+
+            IComputation<? extends Pair<?, Integer>> wide = Computations.of(Computations.of(0), Computations.of(0));
+            for (int i = 1; i < 500; i++) {
+                wide = Computations.<Object, Integer>of(
+                        Computations.cast(wide, Object.class),
+                        Computations.of(i).mapResult(getClass(), "square", n -> n * n));
+            }
+            assertEquals(499 * 499, wide.computeFutureResult().get().get().getValue());
+        });
+    }
+
+    static class ComputeSuccessor extends AComputation<Integer> {
+        protected static Dependency<Integer> INPUT = Dependency.newDependency(Integer.class);
+
+        public ComputeSuccessor(IComputation<Integer> input) {
+            super(input);
+        }
+
+        protected ComputeSuccessor(ComputeSuccessor other) {
+            super(other);
+        }
+
+        @Override
+        public Result<Integer> compute(List<Object> dependencyList, Progress progress) {
+            return Result.of(INPUT.get(dependencyList) + 1);
+        }
+
+        @Override
+        public boolean isCPUBound() {
+            return true;
+        }
+    }
+
+    @Test
+    void cpuBoundExecutor() {
+        AtomicInteger tasks = new AtomicInteger();
+        ExecutorService cpuBoundExecutor = Executors.newSingleThreadExecutor();
+        final Configuration configuration = FeatJAR.createPanicConfiguration();
+        configuration.cacheConfig.setVirtualThreadExecutor().setCPUBoundExecutor(task -> {
+            tasks.incrementAndGet();
+            cpuBoundExecutor.execute(task);
+        });
+        FeatJAR.run(configuration, fj -> {
+            assertEquals(2, new ComputeSuccessor(Computations.of(1)).computeFutureResult().get().get());
+            assertEquals(1, tasks.get());
+            assertEquals(
+                    2,
+                    Computations.of(1)
+                            .mapResult(getClass(), "successor", n -> n + 1)
+                            .computeFutureResult()
+                            .get()
+                            .get());
+            assertEquals(1, tasks.get());
+        });
+        cpuBoundExecutor.shutdown();
+    }
+
     static class ComputeIsEven extends AComputation<Boolean> {
         protected static Dependency<Integer> INPUT = Dependency.newDependency(Integer.class);
 
@@ -282,4 +355,100 @@ class IComputationTest {
         }
         assertFalse(computation1.completed);
     }
+
+    static class SpinCompute extends AComputation<Object> {
+        private static final Dependency<?> INPUT = Dependency.newDependency();
+
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final CountDownLatch stopped = new CountDownLatch(1);
+
+        public SpinCompute(IComputation<Object> input) {
+            super(input);
+        }
+
+        protected SpinCompute(SpinCompute other) {
+            super(other);
+        }
+
+        @Override
+        public Result<Object> compute(List<Object> dependencyList, Progress progress) {
+            started.countDown();
+            try {
+                // ignores interruption, so only the cancellation token can stop this computation
+                while (true) {
+                    progress.incrementCurrentStep();
+                    Thread.onSpinWait();
+                }
+            } catch (CancellationException e) {
+                stopped.countDown();
+                throw e;
+            }
+        }
+    }
+
+    @Test
+    void cancellationPropagatesToDependencies() throws InterruptedException {
+        SpinCompute dependency = new SpinCompute(Computations.of(1));
+        FutureResult<Object> futureResult =
+                dependency.mapResult(getClass(), "identity", x -> x).computeFutureResult();
+        assertTrue(dependency.started.await(10, TimeUnit.SECONDS));
+        futureResult.cancel();
+        assertTrue(dependency.stopped.await(10, TimeUnit.SECONDS));
+        assertNull(futureResult.get().orElse(null));
+    }
+
+    @Test
+    void deadlinePropagatesToDependencies() throws InterruptedException {
+        SpinCompute dependency = new SpinCompute(Computations.of(1));
+        FutureResult<Object> futureResult =
+                dependency.mapResult(getClass(), "identity", x -> x).computeFutureResult();
+        futureResult.cancelAfter(Duration.ofMillis(50));
+        assertTrue(dependency.stopped.await(10, TimeUnit.SECONDS));
+        assertNull(futureResult.get().orElse(null));
+    }
+
+    abstract static class ComputeBinary extends AComputation<Integer> {
+        protected static final Dependency<Integer> FIRST = Dependency.newDependency(ComputeBinary.class, Integer.class);
+        protected static final Dependency<Integer> SECOND =
+                Dependency.newDependency(ComputeBinary.class, Integer.class);
+
+        protected ComputeBinary(IComputation<?>... computations) {
+            super(computations);
+        }
+
+        protected ComputeBinary(ComputeBinary other) {
+            super(other);
+        }
+    }
+
+    static class ComputeTriple extends ComputeBinary {
+        protected static final Dependency<Integer> THIRD = Dependency.newDependency(ComputeTriple.class, Integer.class);
+
+        public ComputeTriple(IComputation<Integer> first, IComputation<Integer> second, IComputation<Integer> third) {
+            super(first, second, third);
+        }
+
+        protected ComputeTriple(ComputeTriple other) {
+            super(other);
+        }
+
+        @Override
+        public Result<Integer> compute(List<Object> dependencyList, Progress progress) {
+            return Result.of(FIRST.get(dependencyList) + SECOND.get(dependencyList) + THIRD.get(dependencyList));
+        }
+    }
+
+    @Test
+    void dependenciesOfSubclassesFollowInheritedDependencies() {
+        assertEquals(0, ComputeBinary.FIRST.getIndex());
+        assertEquals(1, ComputeBinary.SECOND.getIndex());
+        assertEquals(2, ComputeTriple.THIRD.getIndex());
+        assertEquals(3, Dependency.computeDependencyCount(ComputeTriple.class));
+        ComputeTriple computation = new ComputeTriple(Computations.of(1), Computations.of(2), Computations.of(3));
+        assertEquals(3, computation.getChildrenCount());
+        ITree<IComputation<?>> clone = computation.cloneTree();
+        assertTrue(clone instanceof ComputeTriple);
+        assertEquals(computation, clone);
+        assertEquals(6, computation.computeResult().get());
+    }
 }
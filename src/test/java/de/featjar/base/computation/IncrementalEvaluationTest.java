@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-base.
+ *
+ * base is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * base is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with base. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-base> for further information.
+ */
+package de.featjar.base.computation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import de.featjar.base.data.Pair;
+import de.featjar.base.data.Result;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class IncrementalEvaluationTest {
+
+    static class ComputeSquare extends AComputation<Integer> {
+        protected static final Dependency<Integer> INPUT = Dependency.newDependency(Integer.class);
+
+        public ComputeSquare(IComputation<Integer> input) {
+            super(input);
+        }
+
+        protected ComputeSquare(ComputeSquare other) {
+            super(other);
+        }
+
+        @Override
+        public Result<Integer> compute(List<Object> dependencyList, Progress progress) {
+            int input = INPUT.get(dependencyList);
+            return Result.of(input * input);
+        }
+    }
+
+    @Test
+    void onlyDirtyPathIsRecomputed() {
+        ComputeSquare left = new ComputeSquare(Computations.of(2));
+        ComputeSquare right = new ComputeSquare(Computations.of(3));
+        IComputation<Pair<Integer, Integer>> root = Computations.of(left, right);
+        IncrementalEvaluation<Pair<Integer, Integer>> evaluation = new IncrementalEvaluation<>(root);
+
+        assertEquals(new Pair<>(4, 9), evaluation.compute().get());
+        assertEquals(5, evaluation.getNumberOfComputedComputations());
+
+        evaluation.set(left, ComputeSquare.INPUT, 5);
+        assertEquals(new Pair<>(25, 9), evaluation.compute().get());
+        assertEquals(3, evaluation.getNumberOfComputedComputations());
+        assertEquals(5, evaluation.getNumberOfResults());
+
+        assertEquals(new Pair<>(25, 9), evaluation.compute().get());
+        assertEquals(0, evaluation.getNumberOfComputedComputations());
+    }
+
+    @Test
+    void hashCodesOnDirtyPathAreUpdated() {
+        ComputeSquare left = new ComputeSquare(Computations.of(2));
+        IComputation<Integer> root = left.mapResult(getClass(), "increment", i -> i + 1);
+        IncrementalEvaluation<Integer> evaluation = new IncrementalEvaluation<>(root);
+        int hashCode = root.hashCode();
+        assertEquals(5, evaluation.compute().get());
+
+        evaluation.set(left, ComputeSquare.INPUT, 3);
+        IComputation<Integer> expected =
+                new ComputeSquare(Computations.of(3)).mapResult(getClass(), "increment", i -> i + 1);
+        assertEquals(expected, root);
+        assertEquals(expected.hashCode(), root.hashCode());
+        assertEquals(10, evaluation.compute().get());
+        assertEquals(3, evaluation.getNumberOfComputedComputations());
+
+        evaluation.set(left, ComputeSquare.INPUT, 2);
+        assertEquals(hashCode, root.hashCode());
+        assertEquals(5, evaluation.compute().get());
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-base.
+ *
+ * base is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * base is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with base. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-base> for further information.
+ */
+package de.featjar.base.computation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import de.featjar.base.FeatJAR;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class ProgressTest {
+
+    @Test
+    void childrenArePushedToParents() {
+        Progress root = new Progress(2);
+        Progress child = new Progress(4);
+        Progress grandChild = new Progress(10);
+        root.addChild(child, 2);
+        child.addChild(grandChild);
+        assertEquals(0, root.get(), 1e-9);
+
+        grandChild.setCurrentStep(10);
+        assertEquals(0.5, child.get(), 1e-9);
+        assertEquals(1.0 / 3, root.get(), 1e-9);
+
+        child.finish();
+        root.incrementCurrentStep();
+        assertEquals(1, child.get(), 1e-9);
+        assertEquals(2.5 / 3, root.get(), 1e-9);
+
+        root.finish();
+        assertEquals(1, root.get(), 1e-9);
+    }
+
+    @Test
+    void concurrentUpdatesAreNotLost() throws InterruptedException {
+        int threads = 8;
+        int steps = 10000;
+        Progress root = new Progress();
+        List<Progress> children = new ArrayList<>();
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            Progress child = new Progress(steps);
+            root.addChild(child);
+            children.add(child);
+            workers.add(new Thread(() -> {
+                for (int j = 0; j < steps; j++) {
+                    child.incrementCurrentStep();
+                    root.incrementCurrentStep();
+                }
+            }));
+        }
+        workers.forEach(Thread::start);
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        assertEquals((long) threads * steps, root.getCurrentStep());
+        children.forEach(child -> assertEquals(steps, child.getCurrentStep()));
+        assertEquals((double) threads / (threads + 1), root.get(), 1e-9);
+    }
+
+    @Test
+    void evaluationAggregatesProgress() {
+        FeatJAR.Configuration configuration = FeatJAR.createPanicConfiguration();
+        configuration.cacheConfig.setCachePolicy(Cache.CachePolicy.CACHE_TOP_LEVEL);
+        FeatJAR.run(configuration, fj -> {
+            IComputation<Integer> shared = Computations.of(1).mapResult(getClass(), "shared", i -> i + 1);
+            IComputation<Integer> sum = Computations.of(shared, shared)
+                    .mapResult(getClass(), "sum", pair -> pair.getKey() + pair.getValue());
+            FutureResult<Integer> futureResult = sum.computeFutureResult();
+            assertEquals(4, futureResult.get().get());
+            assertEquals(1, futureResult.progress.get(), 1e-9);
+            assertEquals(1, FeatJAR.cache().getProgress(sum).get(), 1e-9);
+        });
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-base.
+ *
+ * base is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * base is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with base. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-base> for further information.
+ */
+package de.featjar.base.computation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.featjar.base.data.Result;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class ResourcePoolTest {
+
+    private static class Handle {
+        private final AtomicBoolean alive = new AtomicBoolean(true);
+    }
+
+    @Test
+    void concurrentUseCreatesAtMostSizeResources() throws Exception {
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger inUse = new AtomicInteger();
+        AtomicInteger maxInUse = new AtomicInteger();
+        ResourcePool<Handle> pool = new ResourcePool<>(() -> {
+            created.incrementAndGet();
+            return new Handle();
+        }, 3);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Result<Integer>>> futures = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                int value = i;
+                futures.add(executor.submit(() -> pool.use(handle -> {
+                    maxInUse.accumulateAndGet(inUse.incrementAndGet(), Math::max);
+                    Thread.onSpinWait();
+                    inUse.decrementAndGet();
+                    return value;
+                })));
+            }
+            for (int i = 0; i < 64; i++) {
+                assertEquals(i, futures.get(i).get().get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue(created.get() <= 3, String.valueOf(created.get()));
+        assertTrue(maxInUse.get() <= 3, String.valueOf(maxInUse.get()));
+        assertEquals(64, pool.getStatistics().getLeases());
+        assertEquals(0, pool.getNumberOfLeased());
+    }
+
+    @Test
+    void leaseTimesOut() throws Exception {
+        ResourcePool<Handle> pool = new ResourcePool<>(Handle::new, 1).setLeaseTimeout(Duration.ofMillis(20));
+        CountDownLatch leased = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        Thread thread = new Thread(() -> pool.use(handle -> {
+            leased.countDown();
+            try {
+                return done.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                return false;
+            }
+        }));
+        thread.start();
+        assertTrue(leased.await(10, TimeUnit.SECONDS));
+        Result<Handle> result = pool.use(handle -> handle);
+        assertFalse(result.isPresent());
+        assertTrue(result.getProblems().get(0).getException() instanceof TimeoutException);
+        assertEquals(1, pool.getStatistics().getTimeouts());
+        done.countDown();
+        thread.join();
+        assertTrue(pool.use(handle -> handle).isPresent());
+    }
+
+    @Test
+    void interruptedWaitKeepsInterruptFlag() throws Exception {
+        ResourcePool<Handle> pool = new ResourcePool<>(Handle::new, 1);
+        CountDownLatch leased = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        Thread thread = new Thread(() -> pool.use(handle -> {
+            leased.countDown();
+            try {
+                return done.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                return false;
+            }
+        }));
+        thread.start();
+        assertTrue(leased.await(10, TimeUnit.SECONDS));
+        Thread.currentThread().interrupt();
+        Result<Handle> result = pool.use(handle -> handle);
+        assertTrue(Thread.interrupted());
+        assertFalse(result.isPresent());
+        assertTrue(result.getProblems().get(0).getException() instanceof InterruptedException);
+        done.countDown();
+        thread.join();
+    }
+
+    @Test
+    void invalidResourcesAreReplaced() {
+        List<Handle> disposed = new ArrayList<>();
+        ResourcePool<Handle> pool = new ResourcePool<>(Handle::new, 2)
+                .setValidator(handle -> handle.alive.get())
+                .setDisposer(disposed::add);
+        Handle first = pool.use(handle -> handle).get();
+        assertSame(first, pool.use(handle -> handle).get());
+        first.alive.set(false);
+        Handle second = pool.use(handle -> handle).get();
+        assertTrue(second != first);
+        assertEquals(List.of(first), disposed);
+        assertEquals(1, pool.getStatistics().getDiscarded());
+    }
+
+    @Test
+    void idleResourcesAreEvicted() throws InterruptedException {
+        AtomicInteger disposed = new AtomicInteger();
+        ResourcePool<Handle> pool = new ResourcePool<>(Handle::new, 2)
+                .setMaxIdleTime(Duration.ofMillis(5))
+                .setDisposer(handle -> disposed.incrementAndGet());
+        Handle first = pool.use(handle -> handle).get();
+        assertEquals(1, pool.getNumberOfIdle());
+        Thread.sleep(20);
+        assertEquals(1, pool.evictIdle());
+        assertEquals(0, pool.getNumberOfIdle());
+        assertTrue(first != pool.use(handle -> handle).get());
+        assertEquals(1, disposed.get());
+    }
+
+    @Test
+    void threadsReuseTheirLastResource() throws Exception {
+        ResourcePool<Handle> pool = new ResourcePool<>(Handle::new, 2);
+        Handle mainHandle = pool.use(handle -> handle).get();
+        Thread thread = new Thread(() -> pool.use(handle -> handle));
+        thread.start();
+        thread.join();
+        for (int i = 0; i < 10; i++) {
+            assertSame(mainHandle, pool.use(handle -> handle).get());
+        }
+        assertTrue(pool.getStatistics().getAffinityHits() >= 10);
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-base.
+ *
+ * base is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * base is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with base. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-base> for further information.
+ */
+package de.featjar.base.data;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigInteger;
+import java.util.Random;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+public class BinomialCalculatorTest {
+
+    private static BigInteger rank(int[] combination) {
+        BigInteger rank = BigInteger.ZERO;
+        for (int i = 0; i < combination.length; i++) {
+            rank = rank.add(BinomialCalculator.computeBigBinomial(combination[i], i + 1));
+        }
+        return rank;
+    }
+
+    private static void assertCombination(int n, int[] combination) {
+        for (int i = 0; i < combination.length; i++) {
+            assertTrue(combination[i] >= 0 && combination[i] < n);
+            assertTrue(i == 0 || combination[i - 1] < combination[i]);
+        }
+    }
+
+    @Test
+    void setIndexMatchesAdvance() {
+        for (int n = 1; n <= 12; n++) {
+            for (int t = 1; t <= n; t++) {
+                Combination<Void> advanced = new Combination<>(t, n, null);
+                Combination<Void> unranked = new Combination<>(t, n, null);
+                for (long index = 0; index < advanced.maxIndex(); index++) {
+                    unranked.setIndex(index);
+                    assertArrayEquals(advanced.indexElements(), unranked.indexElements(), n + " " + t + " " + index);
+                    advanced.advance();
+                }
+                unranked.setIndex(unranked.maxIndex());
+                assertArrayEquals(advanced.indexElements(), unranked.indexElements());
+            }
+        }
+    }
+
+    @Test
+    void unrankingIsExactForLargeN() {
+        Random random = new Random(1);
+        for (int i = 0; i < 200; i++) {
+            int n = 1 + random.nextInt(100_000);
+            // (100000 choose 4) still fits into a long
+            int t = 1 + random.nextInt(Math.min(4, n));
+            BinomialCalculator calculator = new BinomialCalculator(t, n);
+            long size = calculator.binomial();
+            assertEquals(BinomialCalculator.computeBigBinomial(n, t).longValueExact(), size);
+
+            long[] indices = {0, size - 1, Math.floorMod(random.nextLong(), size), size / 2};
+            for (long index : indices) {
+                int[] combination = calculator.combination(index);
+                assertCombination(n, combination);
+                assertEquals(BigInteger.valueOf(index), rank(combination), n + " " + t + " " + index);
+                assertEquals(index, calculator.index(combination));
+            }
+            assertArrayEquals(IntStream.range(n - t, n).toArray(), calculator.combination(size - 1));
+        }
+    }
+
+    @Test
+    void unrankingFollowsSuccessors() {
+        Random random = new Random(2);
+        int n = 100_000;
+        int t = 4;
+        Combination<Void> advanced = new Combination<>(t, n, null);
+        Combination<Void> unranked = new Combination<>(t, n, null);
+        for (int i = 0; i < 1000; i++) {
+            long index = Math.floorMod(random.nextLong(), advanced.maxIndex() - 1);
+            advanced.setIndex(index);
+            advanced.advance();
+            unranked.setIndex(index + 1);
+            assertArrayEquals(advanced.indexElements(), unranked.indexElements(), String.valueOf(index));
+        }
+    }
+
+    @Test
+    void overflowIsDetected() {
+        // the intermediate products of (66 choose 33) overflow, but the coefficient itself fits into a long
+        assertEquals(7219428434016265740L, BinomialCalculator.computeBinomial(66, 33));
+        assertEquals(7219428434016265740L, new BinomialCalculator(33, 66).binomial());
+        assertThrows(ArithmeticException.class, () -> BinomialCalculator.computeBinomial(68, 34));
+        assertThrows(ArithmeticException.class, () -> new BinomialCalculator(34, 68).binomial());
+        assertThrows(IllegalArgumentException.class, () -> new BinomialCalculator(2, 10).combination(45));
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-base.
+ *
+ * base is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * base is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with base. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-base> for further information.
+ */
+package de.featjar.base.data;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+public class IntSetTest {
+
+    @Test
+    void ofIgnoresDuplicates() {
+        IntSet set = IntSet.of(3, -1, 0, 3, -1);
+        assertEquals(3, set.size());
+        assertTrue(set.contains(0));
+        assertTrue(set.contains(-1));
+        assertFalse(set.contains(1));
+        int[] integers = set.toArray();
+        Arrays.sort(integers);
+        assertArrayEquals(new int[] {-1, 0, 3}, integers);
+    }
+
+    @Test
+    void matchesHashSet() {
+        Random random = new Random(1);
+        IntSet set = new IntSet();
+        HashSet<Integer> expected = new HashSet<>();
+        for (int i = 0; i < 100_000; i++) {
+            int integer = random.nextInt(2001) - 1000;
+            switch (random.nextInt(3)) {
+                case 0:
+                    assertEquals(expected.add(integer), set.add(integer));
+                    break;
+                case 1:
+                    assertEquals(expected.remove(integer), set.remove(integer));
+                    break;
+                default:
+                    assertEquals(expected.contains(integer), set.contains(integer));
+            }
+            assertEquals(expected.size(), set.size());
+        }
+        for (int integer = -1000; integer <= 1000; integer++) {
+            assertEquals(expected.contains(integer), set.contains(integer));
+        }
+        set.clear();
+        assertTrue(set.isEmpty());
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-base.
+ *
+ * base is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * base is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with base. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-base> for further information.
+ */
+package de.featjar.base.data;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class IntegerListStoreTest {
+
+    private static List<IntegerList> randomLists(int count) {
+        Random random = new Random(1);
+        List<IntegerList> lists = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            lists.add(new IntegerList(random.ints(random.nextInt(8), -50, 50).toArray()));
+        }
+        return lists;
+    }
+
+    private static void assertContainsLists(List<IntegerList> expected, IntegerListStore store) {
+        assertEquals(expected.size(), store.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertArrayEquals(expected.get(i).get(), store.get(i).copy());
+            assertEquals(expected.get(i), store.get(i).toIntegerList());
+        }
+    }
+
+    @Test
+    void storesListsOnAndOffHeap() {
+        List<IntegerList> lists = randomLists(1000);
+        for (boolean offHeap : new boolean[] {false, true}) {
+            IntegerListStore store = new IntegerListStore(offHeap);
+            lists.forEach(store::add);
+            assertContainsLists(lists, store);
+            assertEquals(offHeap, store.isOffHeap());
+            assertEquals(lists.stream().mapToInt(IntegerList::size).sum(), store.getNumberOfIntegers());
+        }
+    }
+
+    @Test
+    void viewsProvideReadAccess() {
+        IntegerListStore store = new IntegerListStore();
+        store.add(1, -2, 3);
+        store.add();
+        IIntegerList view = store.get(0);
+        assertEquals(3, view.size());
+        assertEquals(-2, view.get(1));
+        assertEquals(2, view.indexOf(3));
+        assertTrue(view.containsAll(3, 1));
+        assertFalse(view.containsAny(2, 4));
+        assertTrue(store.get(1).isEmpty());
+        assertThrows(IndexOutOfBoundsException.class, () -> view.get(3));
+        assertThrows(IndexOutOfBoundsException.class, () -> store.get(2));
+    }
+
+    @Test
+    void sortsByLengthLikeLists() {
+        List<IntegerList> lists = randomLists(1000);
+        IntegerListStore store = new IntegerListStore();
+        lists.forEach(store::add);
+
+        store.sort(new IntegerList.DescendingLengthComparator());
+        lists.sort(new IntegerList.DescendingLengthComparator());
+        assertContainsLists(lists, store);
+
+        store.sort(new IntegerList.AscendingLengthComparator());
+        lists.sort(new IntegerList.AscendingLengthComparator());
+        assertContainsLists(lists, store);
+
+        Comparator<IIntegerList> byFirst = Comparator.comparingInt(list -> list.isEmpty() ? 0 : list.get(0));
+        store.sort(byFirst);
+        lists.sort(byFirst);
+        assertContainsLists(lists, store);
+    }
+
+    @Test
+    void savedStoresCanBeLoaded(@TempDir Path directory) throws IOException {
+        List<IntegerList> lists = randomLists(1000);
+        IntegerListStore store = new IntegerListStore(true);
+        lists.forEach(store::add);
+        Path path = directory.resolve("lists.bin");
+        store.save(path);
+
+        IntegerListStore loadedStore = IntegerListStore.load(path);
+        assertTrue(loadedStore.isReadOnly());
+        assertContainsLists(lists, loadedStore);
+        assertThrows(UnsupportedOperationException.class, () -> loadedStore.add(1));
+
+        IntegerListStore sortedStore = loadedStore.sort(new IntegerList.DescendingLengthComparator());
+        lists.sort(new IntegerList.DescendingLengthComparator());
+        assertFalse(sortedStore.isReadOnly());
+        assertContainsLists(lists, sortedStore);
+
+        Path corruptPath = directory.resolve("corrupt.bin");
+        Files.write(corruptPath, new byte[] {1, 2, 3});
+        assertThrows(IOException.class, () -> IntegerListStore.load(corruptPath));
+    }
+
+    @Test
+    void listsMaySpanChunks(@TempDir Path directory) throws IOException {
+        List<IntegerList> lists = randomLists(1000);
+        // chunks of 16 integers, so that most lists and the offsets span several chunks
+        IntegerListStore store = new IntegerListStore(4, false, 1, 1);
+        lists.forEach(store::add);
+        assertContainsLists(lists, store);
+
+        Path path = directory.resolve("lists.bin");
+        store.save(path);
+        assertContainsLists(lists, IntegerListStore.load(path));
+        IntegerListStore loadedStore = IntegerListStore.load(path, 5);
+        assertContainsLists(lists, loadedStore);
+
+        IntegerListStore sortedStore = loadedStore.sort(new IntegerList.AscendingLengthComparator());
+        lists.sort(new IntegerList.AscendingLengthComparator());
+        assertContainsLists(lists, sortedStore);
+    }
+
+    @Test
+    void loadRejectsDecreasingOffsets(@TempDir Path directory) throws IOException {
+        IntegerListStore store = new IntegerListStore();
+        store.add(1, 2);
+        store.add(3);
+        Path path = directory.resolve("lists.bin");
+        store.save(path);
+        byte[] bytes = Files.readAllBytes(path);
+        // the offset of the second list follows the header and the offset of the first list
+        bytes[16] = 5;
+        Files.write(path, bytes);
+        assertThrows(IOException.class, () -> IntegerListStore.load(path));
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-base.
+ *
+ * base is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * base is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with base. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-base> for further information.
+ */
+package de.featjar.base.data;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+public class IntegerListTest {
+
+    @Test
+    void mergeKeepsFirstOccurrences() {
+        assertArrayEquals(
+                new int[] {3, -1, 2, 0},
+                IntegerList.merge(List.of(new IntegerList(3, -1, 3), new IntegerList(2, -1, 0, 3))));
+        assertArrayEquals(
+                new int[] {3, -1, 2, 0}, IntegerList.mergeInt(List.of(new int[] {3, -1, 3}, new int[] {2, -1, 0})));
+        assertArrayEquals(new int[0], IntegerList.mergeInt(List.of()));
+    }
+
+    @Test
+    void bulkOperationsKeepOrderAndDuplicates() {
+        IntegerList list = new IntegerList(4, -2, 0, 4, 7);
+        assertArrayEquals(new int[] {4, 0, 4}, list.retainAll(0, 4, 5));
+        assertArrayEquals(new int[] {-2, 7}, list.removeAll(0, 4, 5));
+        assertArrayEquals(new int[] {-2, 7, 0, 4, 5}, list.addAll(0, 4, 5));
+    }
+
+    @Test
+    void bulkOperationsAgreeForSmallAndLargeArguments() {
+        int[] elements = IntStream.range(-20, 20).map(i -> i / 2).toArray();
+        int[] few = {-3, 0, 5, 42};
+        int[] many = IntStream.range(-10, 30).toArray();
+        for (IntegerList list : List.of(new IntegerList(elements), new SortedIntegerList(elements))) {
+            for (int[] integers : List.of(few, many)) {
+                IntSet set = IntSet.of(integers);
+                int[] retained = Arrays.stream(list.get()).filter(set::contains).toArray();
+                int[] removed =
+                        Arrays.stream(list.get()).filter(e -> !set.contains(e)).toArray();
+                assertArrayEquals(retained, list.retainAll(integers));
+                assertArrayEquals(removed, list.removeAll(integers));
+                assertArrayEquals(
+                        IntStream.concat(Arrays.stream(removed), Arrays.stream(integers))
+                                .toArray(),
+                        list.addAll(integers));
+            }
+        }
+    }
+}
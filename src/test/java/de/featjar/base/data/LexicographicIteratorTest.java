@@ -23,10 +23,12 @@ package de.featjar.base.data;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Random;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import org.junit.jupiter.api.Test;
 
 public class LexicographicIteratorTest {
@@ -44,6 +46,21 @@ public class LexicographicIteratorTest {
         streamParallel(3, 20);
     }
 
+    @Test
+    void singleParallelAndSequentialContainSameTuplesInSameOrder() {
+        int[] items = IntStream.rangeClosed(1, 30).toArray();
+        for (int t = 1; t <= 3; t++) {
+            List<String> sequential = SingleLexicographicIterator.stream(items, t)
+                    .map(c -> Arrays.toString(c.select()))
+                    .collect(Collectors.toList());
+            List<String> parallel = SingleLexicographicIterator.parallelStream(items, t)
+                    .map(c -> Arrays.toString(c.select()))
+                    .collect(Collectors.toList());
+            assertEquals(BinomialCalculator.computeBinomial(items.length, t), sequential.size());
+            assertEquals(sequential, parallel);
+        }
+    }
+
     private void streamParallel(int k, int n) {
         int size = (int) BinomialCalculator.computeBinomial(n, k);
         int[] counts = new int[size];
@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-base.
+ *
+ * base is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * base is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with base. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-base> for further information.
+ */
+package de.featjar.base.data;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+public class MultiLexicographicIteratorTest {
+
+    private static int[][] items(int... sizes) {
+        int[][] items = new int[sizes.length][];
+        int offset = 0;
+        for (int k = 0; k < sizes.length; k++) {
+            items[k] = IntStream.range(offset, offset + sizes[k]).toArray();
+            offset += sizes[k];
+        }
+        return items;
+    }
+
+    @Test
+    void streamContainsAllCombinations() {
+        int[][] items = items(3, 4);
+        List<String> combinations = MultiLexicographicIterator.stream(items, new int[] {2, 1})
+                .map(c -> Arrays.toString(c.select()))
+                .collect(Collectors.toList());
+        assertEquals(12, combinations.size());
+        assertEquals(12, new HashSet<>(combinations).size());
+        assertEquals("[0, 1, 3]", combinations.get(0));
+        assertEquals("[1, 2, 6]", combinations.get(11));
+    }
+
+    @Test
+    void setIndexMatchesAdvance() {
+        int[][] items = items(5, 1, 6, 4);
+        int[] t = {2, 0, 3, 1};
+        MultiLiteralCombination<Void> advanced = new MultiLiteralCombination<>(items, t, null);
+        MultiLiteralCombination<Void> unranked = new MultiLiteralCombination<>(items, t, null);
+        assertEquals(10 * 20 * 4, advanced.maxIndex());
+        for (long index = 0; index < advanced.maxIndex(); index++) {
+            unranked.setIndex(index);
+            assertEquals(index, advanced.index());
+            assertArrayEquals(advanced.indexElements(), unranked.indexElements(), String.valueOf(index));
+            advanced.advance();
+        }
+        assertEquals(advanced.maxIndex(), advanced.index());
+    }
+
+    @Test
+    void parallelAndSequentialContainSameCombinationsInSameOrder() {
+        int[][] items = items(20, 10, 5);
+        int[] t = {2, 2, 1};
+        List<String> sequential = MultiLexicographicIterator.stream(items, t)
+                .map(c -> c.index() + Arrays.toString(c.select()))
+                .collect(Collectors.toList());
+        List<String> parallel = MultiLexicographicIterator.parallelStream(items, t)
+                .map(c -> c.index() + Arrays.toString(c.select()))
+                .collect(Collectors.toList());
+        assertEquals(190 * 45 * 5, sequential.size());
+        assertEquals(sequential, parallel);
+    }
+}
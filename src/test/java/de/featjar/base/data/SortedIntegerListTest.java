@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-base.
+ *
+ * base is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * base is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with base. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-base> for further information.
+ */
+package de.featjar.base.data;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+public class SortedIntegerListTest {
+
+    private static int[] randomLiterals(Random random, int variableCount) {
+        return random.ints(random.nextInt(2 * variableCount), 1, variableCount + 1)
+                .map(v -> random.nextBoolean() ? v : -v)
+                .toArray();
+    }
+
+    private static TreeSet<Integer> toSet(int... integers) {
+        return Arrays.stream(integers).boxed().collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    private static int[] toArray(TreeSet<Integer> set) {
+        return set.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    @Test
+    void sortsAndRemovesDuplicates() {
+        SortedIntegerList list = new SortedIntegerList(3, -1, 2, 3, -5);
+        assertArrayEquals(new int[] {-5, -1, 2, 3}, list.get());
+        assertEquals(1, list.indexOf(-1));
+        assertEquals(-1, list.indexOf(1));
+        assertTrue(list.containsAll(3, -5));
+        assertArrayEquals(new int[] {-1, 3}, list.retainAll(3, -1, 7));
+        assertArrayEquals(new int[] {-5, 2}, list.removeAll(3, -1, 7));
+        assertArrayEquals(new int[] {-3, -2, 1, 5}, list.negation().get());
+    }
+
+    @Test
+    void setOperationsMatchTreeSet() {
+        Random random = new Random(1);
+        int variableCount = 100;
+        for (int i = 0; i < 200; i++) {
+            int[] literals1 = randomLiterals(random, variableCount);
+            int[] literals2 = randomLiterals(random, variableCount);
+            TreeSet<Integer> set1 = toSet(literals1);
+            TreeSet<Integer> set2 = toSet(literals2);
+            TreeSet<Integer> union = new TreeSet<>(set1);
+            union.addAll(set2);
+            TreeSet<Integer> intersection = new TreeSet<>(set1);
+            intersection.retainAll(set2);
+            TreeSet<Integer> difference = new TreeSet<>(set1);
+            difference.removeAll(set2);
+
+            SortedIntegerList[] lists1 = {
+                new SortedIntegerList(literals1), new BitSetIntegerList(variableCount, literals1)
+            };
+            SortedIntegerList[] lists2 = {
+                new SortedIntegerList(literals2), new BitSetIntegerList(variableCount, literals2)
+            };
+            for (SortedIntegerList list1 : lists1) {
+                assertArrayEquals(toArray(set1), list1.get());
+                for (SortedIntegerList list2 : lists2) {
+                    assertArrayEquals(toArray(union), list1.union(list2).get());
+                    assertArrayEquals(toArray(intersection), list1.intersection(list2).get());
+                    assertArrayEquals(toArray(difference), list1.difference(list2).get());
+                    assertEquals(set2.containsAll(set1), list1.isSubsetOf(list2));
+                    assertEquals(!intersection.isEmpty(), list1.intersects(list2));
+                    assertEquals(intersection.size(), list1.sizeOfIntersection(list2));
+                }
+                assertArrayEquals(
+                        toArray(set1.stream().map(l -> -l).collect(Collectors.toCollection(TreeSet::new))),
+                        list1.negation().get());
+            }
+        }
+    }
+
+    @Test
+    void bitSetChecksLiterals() {
+        BitSetIntegerList list = new BitSetIntegerList(70, 70, -64, 1, -1);
+        assertArrayEquals(new int[] {-64, -1, 1, 70}, list.get());
+        assertTrue(list.containsLiteral(70));
+        assertFalse(list.containsLiteral(-70));
+        assertFalse(list.contains(71));
+        assertTrue(list.hasComplementaryLiterals());
+        assertFalse(((BitSetIntegerList) list.difference(new BitSetIntegerList(70, -1))).hasComplementaryLiterals());
+        assertThrows(IllegalArgumentException.class, () -> new BitSetIntegerList(70, 0));
+        assertThrows(IllegalArgumentException.class, () -> new BitSetIntegerList(70, -71));
+    }
+}